@@ -0,0 +1,53 @@
+package com.samsung.recipe.recipe.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 외부 API용 WebClient. 호출마다 만들지 않고 커넥션 풀과 타임아웃을 가진 인스턴스 하나를 공유한다.
+ * Boot의 WebClient.Builder에서 복제하므로 http.client.requests 메트릭이 그대로 기록된다.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Bean
+    public WebClient unsplashWebClient(WebClient.Builder webClientBuilder,
+                                       @Value("${unsplash.api.url:https://api.unsplash.com}") String baseUrl,
+                                       @Value("${unsplash.access.key:}") String accessKey,
+                                       @Value("${unsplash.api.connect-timeout:2s}") Duration connectTimeout,
+                                       @Value("${unsplash.api.read-timeout:3s}") Duration readTimeout,
+                                       @Value("${unsplash.api.max-connections:10}") int maxConnections) {
+        ConnectionProvider provider = ConnectionProvider.builder("unsplash")
+                .maxConnections(maxConnections)
+                // 풀이 가득 차면 오래 기다리지 않고 실패한다 (동시 호출 상한은 UnsplashService의 bulkhead가 먼저 막는다)
+                .pendingAcquireTimeout(connectTimeout)
+                .maxIdleTime(Duration.ofSeconds(30))
+                .evictInBackground(Duration.ofSeconds(60))
+                .build();
+
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout)
+                .doOnConnected(connection -> connection
+                        .addHandlerLast(new ReadTimeoutHandler(readTimeout.toMillis(), TimeUnit.MILLISECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(readTimeout.toMillis(), TimeUnit.MILLISECONDS)));
+
+        return webClientBuilder.clone()
+                .baseUrl(baseUrl)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Client-ID " + accessKey)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
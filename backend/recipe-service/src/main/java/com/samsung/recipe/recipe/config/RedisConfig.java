@@ -1,5 +1,8 @@
 package com.samsung.recipe.recipe.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samsung.recipe.recipe.dto.RecipeResponseDto;
+import com.samsung.recipe.recipe.service.RecipeDetailCache;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -8,7 +11,9 @@ import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
@@ -31,7 +36,8 @@ public class RedisConfig {
     }
     
     @Bean
-    public RedisCacheManager cacheManager() {
+    public RedisCacheManager cacheManager(ObjectMapper objectMapper,
+                                          @Value("${recipe.cache.redis-ttl:30m}") Duration recipeCacheTtl) {
         RedisCacheConfiguration cacheConfig = RedisCacheConfiguration.defaultCacheConfig()
             .entryTtl(Duration.ofHours(2))
             .serializeKeysWith(org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair
@@ -39,8 +45,26 @@ public class RedisConfig {
             .serializeValuesWith(org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair
                 .fromSerializer(new GenericJackson2JsonRedisSerializer()));
         
+        // 레시피 상세 (RecipeDetailCache의 L2): 타입을 고정해 @class 메타데이터 없이 저장하고 LocalDateTime을 처리한다
+        RedisCacheConfiguration recipeCacheConfig = cacheConfig
+            .entryTtl(recipeCacheTtl)
+            .serializeValuesWith(org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair
+                .fromSerializer(new Jackson2JsonRedisSerializer<>(objectMapper, RecipeResponseDto.class)));
+        
         return RedisCacheManager.builder(redisConnectionFactory())
             .cacheDefaults(cacheConfig)
+            .withCacheConfiguration(RecipeDetailCache.CACHE_NAME, recipeCacheConfig)
             .build();
     }
+    
+    /**
+     * 노드 간 pub/sub 메시지 수신용 컨테이너.
+     * 구독 채널은 각 리스너 컴포넌트가 직접 등록한다.
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,34 @@
+package com.samsung.recipe.recipe.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.NoneNestedConditions;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 주기 작업(@Scheduled): 이미지 채우기 폴링, 조회수 flush, 랭킹 재구성, 카탈로그 버전 동기화 등.
+ * CSV 적재 CLI(recipe.import.csv, CatalogImportRunner)로 띄운 경우에는 적재만 하도록 켜지 않는다.
+ * ApplicationReadyEvent 워밍업도 같은 이유로 NOT_IMPORTING 조건을 건다.
+ */
+@Configuration
+@EnableScheduling
+@Conditional(SchedulingConfig.NotCatalogImport.class)
+public class SchedulingConfig {
+
+    /**
+     * 적재 CLI가 아닐 때만 처리하는 이벤트 리스너 조건 (@EventListener(condition = ...)).
+     */
+    public static final String NOT_IMPORTING = "!@environment.containsProperty('recipe.import.csv')";
+
+    static class NotCatalogImport extends NoneNestedConditions {
+
+        NotCatalogImport() {
+            super(ConfigurationPhase.PARSE_CONFIGURATION);
+        }
+
+        @ConditionalOnProperty(name = "recipe.import.csv")
+        static class CatalogImport {
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.samsung.recipe.recipe.controller;
 import com.samsung.recipe.recipe.service.ImageService;
 import com.samsung.recipe.recipe.config.StorageConfig;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -39,6 +41,15 @@ public class ImageController {
             response.put("message", "이미지 업로드 성공");
             
             return ResponseEntity.ok(response);
+        } catch (ImageService.TooManyUploadsException e) {
+            // 대기열에 쌓지 않고 바로 돌려보낸다 (클라이언트가 잠시 후 재시도)
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(response);
         } catch (Exception e) {
             System.err.println("Image upload failed: " + e.getMessage());
             e.printStackTrace();
@@ -1,19 +1,40 @@
 package com.samsung.recipe.recipe.controller;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.samsung.recipe.recipe.dto.RecipeBatchResultDto;
+import com.samsung.recipe.recipe.dto.RecipeCursorPageDto;
 import com.samsung.recipe.recipe.dto.RecipeRequestDto;
 import com.samsung.recipe.recipe.dto.RecipeResponseDto;
+import com.samsung.recipe.recipe.service.CatalogVersion;
+import com.samsung.recipe.recipe.service.RecipeFields;
 import com.samsung.recipe.recipe.service.RecipeService;
+import com.samsung.recipe.recipe.service.TrendingRecipes;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/recipes")
@@ -22,7 +43,18 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class RecipeController {
     
+    private static final String NDJSON = "application/x-ndjson";
+    
+    // 상세는 매번 ETag로 재검증 (변경 시 바로 반영), 공유 캐시(nginx)도 저장할 수 있도록 public
+    private static final CacheControl DETAIL_CACHE_CONTROL = CacheControl.noCache().cachePublic();
+    
     private final RecipeService recipeService;
+    private final ObjectMapper objectMapper;
+    private final TrendingRecipes trendingRecipes;
+    private final CatalogVersion catalogVersion;
+    
+    @Value("${recipe.http.list-max-age:30s}")
+    private Duration listMaxAge;
     
     @PostMapping
     public ResponseEntity<Map<String, Object>> createRecipe(@Valid @RequestBody RecipeRequestDto recipeRequestDto) {
@@ -52,10 +84,74 @@ public class RecipeController {
         }
     }
     
+    /**
+     * 일괄 생성 (기업 회원 대량 등록용). 항목별 결과를 요청 순서대로 돌려준다.
+     * 전부 성공하면 201, 일부만 성공하면 207, 하나도 만들지 못하면 400.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<Map<String, Object>> createRecipes(@RequestBody List<RecipeRequestDto> recipeRequestDtos) {
+        try {
+            List<RecipeBatchResultDto> results = recipeService.createRecipes(recipeRequestDtos);
+            long created = results.stream().filter(RecipeBatchResultDto::isSuccess).count();
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", created == results.size());
+            response.put("count", results.size());
+            response.put("created", created);
+            response.put("failed", results.size() - created);
+            response.put("results", results);
+            
+            HttpStatus status = created == results.size() ? HttpStatus.CREATED
+                    : created > 0 ? HttpStatus.MULTI_STATUS : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status).body(response);
+            
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e);
+            
+        } catch (Exception e) {
+            log.error("Batch recipe creation failed: {}", e.getMessage());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Failed to create recipes");
+            
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+    
     @GetMapping("/best")
-    public ResponseEntity<Map<String, Object>> getBestRecipes(@RequestParam(defaultValue = "15") int limit) {
+    public ResponseEntity<?> getBestRecipes(
+            @RequestParam(defaultValue = "15") int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest webRequest) {
         try {
-            List<RecipeResponseDto> recipes = recipeService.getBestRecipes(limit);
+            RecipeFields recipeFields = RecipeFields.parse(fields);
+            if (listNotModified(webRequest, true)) {
+                return null;
+            }
+            
+            if (cursor != null) {
+                return cursorResponse(recipeService.getBestRecipesAfter(cursor, limit, withTotal, recipeFields), limit);
+            }
+            
+            // 전체 필드는 레시피별로 캐시된 JSON 조각을 이어 붙여 응답
+            if (recipeFields.isAll()) {
+                List<byte[]> fragments = recipeService.getBestRecipesJson(limit);
+                
+                Map<String, Object> head = new HashMap<>();
+                head.put("success", true);
+                head.put("count", fragments.size());
+                head.put("limit", limit);
+                
+                return splicedResponse(head, "recipes", fragments, listCacheControl());
+            }
+            
+            // 요약만 요청하면 recipes 컬럼 projection으로 응답
+            List<?> recipes = recipeFields.isSummary()
+                    ? recipeService.getBestRecipeSummaries(limit)
+                    : recipeService.getBestRecipes(limit, recipeFields);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -63,7 +159,10 @@ public class RecipeController {
             response.put("count", recipes.size());
             response.put("limit", limit);
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(listCacheControl()).body(response);
+            
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e);
             
         } catch (Exception e) {
             log.error("Best recipes fetch failed: {}", e.getMessage());
@@ -76,16 +175,74 @@ public class RecipeController {
         }
     }
     
-    @GetMapping("/{id}")
-    public ResponseEntity<Map<String, Object>> getRecipeById(@PathVariable Long id) {
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrendingRecipes(
+            @RequestParam(defaultValue = "15") int limit,
+            @RequestParam(required = false) String halfLife,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest webRequest) {
         try {
-            RecipeResponseDto recipe = recipeService.getRecipeById(id);
+            RecipeFields recipeFields = RecipeFields.parse(fields);
+            Duration resolvedHalfLife = trendingRecipes.resolveHalfLife(halfLife);
+            if (listNotModified(webRequest, true)) {
+                return null;
+            }
+            
+            
+            if (recipeFields.isAll()) {
+                List<byte[]> fragments = recipeService.getTrendingRecipesJson(limit, resolvedHalfLife);
+                
+                Map<String, Object> head = new HashMap<>();
+                head.put("success", true);
+                head.put("count", fragments.size());
+                head.put("limit", limit);
+                head.put("halfLife", resolvedHalfLife.toString());
+                
+                return splicedResponse(head, "recipes", fragments, listCacheControl());
+            }
+            
+            List<?> recipes = recipeFields.isSummary()
+                    ? recipeService.getTrendingRecipeSummaries(limit, resolvedHalfLife)
+                    : recipeService.getTrendingRecipes(limit, resolvedHalfLife, recipeFields);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("recipe", recipe);
+            response.put("recipes", recipes);
+            response.put("count", recipes.size());
+            response.put("limit", limit);
+            response.put("halfLife", resolvedHalfLife.toString());
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(listCacheControl()).body(response);
+            
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e);
+            
+        } catch (Exception e) {
+            log.error("Trending recipes fetch failed: {}", e.getMessage());
+            
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Failed to fetch trending recipes");
+            
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getRecipeById(@PathVariable Long id, ServletWebRequest webRequest) {
+        try {
+            // If-None-Match가 현재 버전과 같으면 DTO를 조립/직렬화하지 않고 304
+            String eTag = recipeService.getRecipeETag(id);
+            if (eTag != null && webRequest.checkNotModified(eTag)) {
+                recipeService.recordView(id);
+                webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, DETAIL_CACHE_CONTROL.getHeaderValue());
+                return null;
+            }
+            
+            // 캐시된 JSON 바이트를 다시 직렬화하지 않고 봉투에 그대로 넣는다
+            byte[] recipe = recipeService.getRecipeJson(id);
+            
+            return splicedResponse(Map.of("success", true), "recipe", List.of(recipe), DETAIL_CACHE_CONTROL);
             
         } catch (RuntimeException e) {
             log.error("Recipe fetch failed: {}", e.getMessage());
@@ -99,16 +256,24 @@ public class RecipeController {
     }
     
     @GetMapping
-    public ResponseEntity<Map<String, Object>> getAllRecipes() {
+    public ResponseEntity<Map<String, Object>> getAllRecipes(@RequestParam(required = false) String fields, ServletWebRequest webRequest) {
         try {
-            List<RecipeResponseDto> recipes = recipeService.getAllRecipes();
+            RecipeFields recipeFields = RecipeFields.parse(fields);
+            if (listNotModified(webRequest, false)) {
+                return null;
+            }
+            
+            List<RecipeResponseDto> recipes = recipeService.getAllRecipes(recipeFields);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("recipes", recipes);
             response.put("count", recipes.size());
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(listCacheControl()).body(response);
+            
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e);
             
         } catch (Exception e) {
             log.error("Recipes fetch failed: {}", e.getMessage());
@@ -121,12 +286,58 @@ public class RecipeController {
         }
     }
     
+    /**
+     * Accept: application/x-ndjson 이면 전체 목록을 한 줄에 한 레시피씩 스트리밍한다.
+     */
+    @GetMapping(produces = NDJSON)
+    public ResponseEntity<?> streamAllRecipes(@RequestParam(required = false) String fields) {
+        RecipeFields recipeFields;
+        try {
+            recipeFields = RecipeFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e);
+        }
+        
+        StreamingResponseBody body = out -> recipeService.streamAllRecipes(recipeFields, recipes -> {
+            try {
+                for (RecipeResponseDto recipe : recipes) {
+                    out.write(objectMapper.writeValueAsBytes(recipe));
+                    out.write('\n');
+                }
+                out.flush();
+            } catch (IOException e) {
+                // 클라이언트가 연결을 끊은 경우: 커서를 닫고 중단
+                throw new UncheckedIOException(e);
+            }
+        });
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+    
     @GetMapping("/paged")
     public ResponseEntity<Map<String, Object>> getAllRecipesPaged(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest webRequest) {
         try {
-            Page<RecipeResponseDto> recipePage = recipeService.getAllRecipesPaged(page, size);
+            RecipeFields recipeFields = RecipeFields.parse(fields);
+            if (listNotModified(webRequest, false)) {
+                return null;
+            }
+            
+            // cursor 파라미터가 있으면 (빈 값 = 첫 페이지) OFFSET 대신 키셋 페이지로 응답
+            if (cursor != null) {
+                return cursorResponse(recipeService.getLatestRecipesAfter(cursor, size, withTotal, recipeFields), size);
+            }
+            
+            Page<?> recipePage = recipeFields.isSummary()
+                    ? recipeService.getRecipeSummariesPaged(page, size)
+                    : recipeService.getAllRecipesPaged(page, size, recipeFields);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -136,7 +347,10 @@ public class RecipeController {
             response.put("totalElements", recipePage.getTotalElements());
             response.put("size", recipePage.getSize());
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(listCacheControl()).body(response);
+            
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e);
             
         } catch (Exception e) {
             log.error("Paged recipes fetch failed: {}", e.getMessage());
@@ -150,16 +364,27 @@ public class RecipeController {
     }
     
     @GetMapping("/writer/{writerId}")
-    public ResponseEntity<Map<String, Object>> getRecipesByWriter(@PathVariable String writerId) {
+    public ResponseEntity<Map<String, Object>> getRecipesByWriter(
+            @PathVariable String writerId,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest webRequest) {
         try {
-            List<RecipeResponseDto> recipes = recipeService.getRecipesByWriter(writerId);
+            RecipeFields recipeFields = RecipeFields.parse(fields);
+            if (listNotModified(webRequest, false)) {
+                return null;
+            }
+            
+            List<RecipeResponseDto> recipes = recipeService.getRecipesByWriter(writerId, recipeFields);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("recipes", recipes);
             response.put("count", recipes.size());
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(listCacheControl()).body(response);
+            
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e);
             
         } catch (Exception e) {
             log.error("Writer recipes fetch failed: {}", e.getMessage());
@@ -173,17 +398,34 @@ public class RecipeController {
     }
     
     @GetMapping("/search")
-    public ResponseEntity<Map<String, Object>> searchRecipes(@RequestParam String keyword) {
+    public ResponseEntity<Map<String, Object>> searchRecipes(
+            @RequestParam String keyword,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest webRequest) {
         try {
-            List<RecipeResponseDto> recipes = recipeService.searchRecipes(keyword);
+            RecipeFields recipeFields = RecipeFields.parse(fields);
+            if (listNotModified(webRequest, false)) {
+                return null;
+            }
+            
+            Page<RecipeResponseDto> recipePage = recipeService.searchRecipes(keyword, page, size, recipeFields);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("recipes", recipes);
-            response.put("count", recipes.size());
+            response.put("recipes", recipePage.getContent());
+            response.put("count", recipePage.getNumberOfElements());
             response.put("keyword", keyword);
+            response.put("currentPage", recipePage.getNumber());
+            response.put("totalPages", recipePage.getTotalPages());
+            response.put("totalElements", recipePage.getTotalElements());
+            response.put("size", recipePage.getSize());
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(listCacheControl()).body(response);
+            
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e);
             
         } catch (Exception e) {
             log.error("Recipe search failed: {}", e.getMessage());
@@ -196,10 +438,72 @@ public class RecipeController {
         }
     }
     
+    @GetMapping("/by-ingredients")
+    public ResponseEntity<Map<String, Object>> searchRecipesByIngredients(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest webRequest) {
+        try {
+            RecipeFields recipeFields = RecipeFields.parse(fields);
+            if (listNotModified(webRequest, false)) {
+                return null;
+            }
+            
+            // 쉼표로 구분된 재료 키워드 (모두 포함해야 매칭)
+            List<String> terms = Arrays.stream(q.split(","))
+                    .map(String::trim)
+                    .filter(term -> !term.isEmpty())
+                    .distinct()
+                    .collect(Collectors.toList());
+
+            Page<RecipeResponseDto> recipePage = recipeService.searchRecipesByIngredients(terms, page, size, recipeFields);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("recipes", recipePage.getContent());
+            response.put("currentPage", recipePage.getNumber());
+            response.put("totalPages", recipePage.getTotalPages());
+            response.put("totalElements", recipePage.getTotalElements());
+            response.put("size", recipePage.getSize());
+            response.put("q", q);
+
+            return ResponseEntity.ok().cacheControl(listCacheControl()).body(response);
+
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e);
+            
+        } catch (Exception e) {
+            log.error("Ingredient search failed: {}", e.getMessage());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Failed to search recipes by ingredients");
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     @GetMapping("/difficulty/{difficulty}")
-    public ResponseEntity<Map<String, Object>> getRecipesByDifficulty(@PathVariable String difficulty) {
+    public ResponseEntity<Map<String, Object>> getRecipesByDifficulty(
+            @PathVariable String difficulty,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest webRequest) {
         try {
-            List<RecipeResponseDto> recipes = recipeService.getRecipesByDifficulty(difficulty);
+            RecipeFields recipeFields = RecipeFields.parse(fields);
+            if (listNotModified(webRequest, false)) {
+                return null;
+            }
+            
+            if (cursor != null) {
+                return cursorResponse(recipeService.getRecipesByDifficultyAfter(difficulty, cursor, size, withTotal, recipeFields), size);
+            }
+            
+            List<RecipeResponseDto> recipes = recipeService.getRecipesByDifficulty(difficulty, recipeFields);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -207,7 +511,10 @@ public class RecipeController {
             response.put("count", recipes.size());
             response.put("difficulty", difficulty);
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(listCacheControl()).body(response);
+            
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e);
             
         } catch (Exception e) {
             log.error("Difficulty recipes fetch failed: {}", e.getMessage());
@@ -221,9 +528,24 @@ public class RecipeController {
     }
     
     @GetMapping("/cooking-time/{maxTime}")
-    public ResponseEntity<Map<String, Object>> getRecipesByCookingTime(@PathVariable Integer maxTime) {
+    public ResponseEntity<Map<String, Object>> getRecipesByCookingTime(
+            @PathVariable Integer maxTime,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest webRequest) {
         try {
-            List<RecipeResponseDto> recipes = recipeService.getRecipesByCookingTime(maxTime);
+            RecipeFields recipeFields = RecipeFields.parse(fields);
+            if (listNotModified(webRequest, false)) {
+                return null;
+            }
+            
+            if (cursor != null) {
+                return cursorResponse(recipeService.getRecipesByCookingTimeAfter(maxTime, cursor, size, withTotal, recipeFields), size);
+            }
+            
+            List<RecipeResponseDto> recipes = recipeService.getRecipesByCookingTime(maxTime, recipeFields);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -231,7 +553,10 @@ public class RecipeController {
             response.put("count", recipes.size());
             response.put("maxTime", maxTime);
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(listCacheControl()).body(response);
+            
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e);
             
         } catch (Exception e) {
             log.error("Cooking time recipes fetch failed: {}", e.getMessage());
@@ -247,9 +572,24 @@ public class RecipeController {
     @GetMapping("/recent")
     public ResponseEntity<Map<String, Object>> getRecentRecipes(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean withTotal,
+            @RequestParam(required = false) String fields,
+            ServletWebRequest webRequest) {
         try {
-            Page<RecipeResponseDto> recipePage = recipeService.getRecentRecipes(page, size);
+            RecipeFields recipeFields = RecipeFields.parse(fields);
+            if (listNotModified(webRequest, false)) {
+                return null;
+            }
+            
+            if (cursor != null) {
+                return cursorResponse(recipeService.getLatestRecipesAfter(cursor, size, withTotal, recipeFields), size);
+            }
+            
+            Page<?> recipePage = recipeFields.isSummary()
+                    ? recipeService.getRecipeSummariesPaged(page, size)
+                    : recipeService.getRecentRecipes(page, size, recipeFields);
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -259,7 +599,10 @@ public class RecipeController {
             response.put("totalElements", recipePage.getTotalElements());
             response.put("size", recipePage.getSize());
             
-            return ResponseEntity.ok(response);
+            return ResponseEntity.ok().cacheControl(listCacheControl()).body(response);
+            
+        } catch (IllegalArgumentException e) {
+            return badRequestResponse(e);
             
         } catch (Exception e) {
             log.error("Recent recipes fetch failed: {}", e.getMessage());
@@ -334,4 +677,94 @@ public class RecipeController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
+    
+    private ResponseEntity<Map<String, Object>> cursorResponse(RecipeCursorPageDto cursorPage, int size) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("recipes", cursorPage.getRecipes());
+        response.put("count", cursorPage.getRecipes().size());
+        response.put("nextCursor", cursorPage.getNextCursor());
+        response.put("hasNext", cursorPage.isHasNext());
+        response.put("size", size);
+        if (cursorPage.getTotalElements() != null) {
+            response.put("totalElements", cursorPage.getTotalElements());
+        }
+        
+        return ResponseEntity.ok().cacheControl(listCacheControl()).body(response);
+    }
+    
+    /**
+     * 목록 응답의 weak ETag 검사. 카탈로그 버전 + 요청 URI/쿼리로 만들고,
+     * 조회수 순 목록(best, trending)은 분 단위 시간도 섞어 순위 변동이 반영되도록 한다.
+     * 일치하면 304 헤더를 설정하고 true를 반환한다.
+     * 잘못된 파라미터가 304에 가려지지 않도록 호출 전에 fields 등을 먼저 파싱한다.
+     */
+    private boolean listNotModified(ServletWebRequest webRequest, boolean viewSorted) {
+        long version = catalogVersion.current();
+        if (version == CatalogVersion.UNKNOWN) {
+            return false;
+        }
+        
+        HttpServletRequest request = webRequest.getRequest();
+        String query = request.getQueryString();
+        int variant = (request.getRequestURI() + (query == null ? "" : "?" + query)).hashCode();
+        String eTag = "W/\"" + version + "-" + Integer.toHexString(variant)
+                + (viewSorted ? "-" + Long.toString(System.currentTimeMillis() / 60_000, 36) : "") + "\"";
+        
+        if (webRequest.checkNotModified(eTag)) {
+            webRequest.getResponse().setHeader(HttpHeaders.CACHE_CONTROL, listCacheControl().getHeaderValue());
+            return true;
+        }
+        return false;
+    }
+    
+    private CacheControl listCacheControl() {
+        return CacheControl.maxAge(listMaxAge).cachePublic();
+    }
+    
+    /**
+     * head(작은 스칼라 값들)를 직렬화한 뒤 field에 미리 직렬화된 레시피 JSON 조각을 그대로 이어 붙인다.
+     * fragments가 한 건이고 field가 "recipe"이면 객체로, 그 외에는 배열로 쓴다.
+     */
+    private ResponseEntity<byte[]> splicedResponse(Map<String, Object> head, String field,
+                                                   List<byte[]> fragments, CacheControl cacheControl) {
+        byte[] headJson;
+        try {
+            headJson = objectMapper.writeValueAsBytes(head);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        boolean array = !"recipe".equals(field);
+        
+        int size = headJson.length + field.length() + 8;
+        for (byte[] fragment : fragments) {
+            size += fragment.length + 1;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        // 닫는 '}'를 떼고 ,"field": 를 이어 쓴다
+        out.write(headJson, 0, headJson.length - 1);
+        out.writeBytes((",\"" + field + "\":" + (array ? "[" : "")).getBytes(StandardCharsets.UTF_8));
+        for (int i = 0; i < fragments.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(fragments.get(i));
+        }
+        out.writeBytes((array ? "]}" : "}").getBytes(StandardCharsets.UTF_8));
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(cacheControl)
+                .body(out.toByteArray());
+    }
+    
+    private ResponseEntity<Map<String, Object>> badRequestResponse(IllegalArgumentException e) {
+        log.warn("Invalid request parameter: {}", e.getMessage());
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("message", e.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
 }
@@ -0,0 +1,24 @@
+package com.samsung.recipe.recipe.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 일괄 생성 (POST /recipes/batch) 항목별 결과. index는 요청 배열에서의 위치.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeBatchResultDto {
+    private int index;
+    private boolean success;
+    
+    // 성공한 항목만
+    private Long recipeId;
+    
+    // 실패한 항목만 (검증 오류 또는 저장 실패 사유)
+    private String message;
+}
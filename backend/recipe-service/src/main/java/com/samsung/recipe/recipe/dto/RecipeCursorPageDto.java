@@ -0,0 +1,21 @@
+package com.samsung.recipe.recipe.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeCursorPageDto {
+    private List<RecipeResponseDto> recipes;
+    private String nextCursor;
+    private boolean hasNext;
+    
+    // withTotal=true 로 요청한 경우에만 채워진다 (COUNT 쿼리 생략)
+    private Long totalElements;
+}
@@ -1,5 +1,6 @@
 package com.samsung.recipe.recipe.dto;
 
+import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,6 +11,7 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class RecipeIngredientDto {
+    @NotBlank(message = "Ingredient name is required")
     private String ingredientName;
     private String amount;
 } 
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.samsung.recipe.recipe.dto;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -48,13 +49,15 @@ public class RecipeRequestDto {
     private String cookingMethod;
     
     // 재료 정보
-    private List<RecipeIngredientDto> ingredients;
+    @Valid
+    private List<@NotNull(message = "Ingredient is required") RecipeIngredientDto> ingredients;
     
     // 조리법 정보
     private List<RecipeStepDto> steps;
     
     // 태그 정보
-    private List<TagDto> tags;
+    @Valid
+    private List<@NotNull(message = "Tag is required") TagDto> tags;
     
     // 조리법 문자열 배열 (프론트엔드 호환성)
     private List<String> instructions;
@@ -0,0 +1,20 @@
+package com.samsung.recipe.recipe.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 레시피 카드용 요약 (recipes 테이블 컬럼만 사용)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecipeSummaryDto {
+    private Long id;
+    private String title;
+    private String imageUrl;
+    private Integer cookingTime;
+    private String difficulty;
+    private Integer viewCount;
+}
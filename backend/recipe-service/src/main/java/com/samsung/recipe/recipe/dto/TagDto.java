@@ -1,5 +1,6 @@
 package com.samsung.recipe.recipe.dto;
 
+import jakarta.validation.constraints.NotBlank;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -10,5 +11,6 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @AllArgsConstructor
 public class TagDto {
+    @NotBlank(message = "Tag name is required")
     private String name;
 } 
\ No newline at end of file
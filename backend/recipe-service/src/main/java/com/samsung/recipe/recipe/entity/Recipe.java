@@ -21,8 +21,10 @@ import java.util.List;
 @EntityListeners(AuditingEntityListener.class)
 public class Recipe {
     
+    // IDENTITY는 JDBC 배치를 막으므로 시퀀스를 50개씩 미리 할당받는다 (db/migrations/003_id_sequence_increment.sql)
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipes_id_seq")
+    @SequenceGenerator(name = "recipes_id_seq", sequenceName = "recipes_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
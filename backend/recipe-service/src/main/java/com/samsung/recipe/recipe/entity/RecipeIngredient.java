@@ -15,7 +15,8 @@ import lombok.NoArgsConstructor;
 public class RecipeIngredient {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_ingredient_id_seq")
+    @SequenceGenerator(name = "recipe_ingredient_id_seq", sequenceName = "recipe_ingredient_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "recipe_id", nullable = false)
@@ -15,7 +15,8 @@ import lombok.NoArgsConstructor;
 public class RecipeStep {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_step_id_seq")
+    @SequenceGenerator(name = "recipe_step_id_seq", sequenceName = "recipe_step_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "recipe_id", nullable = false)
@@ -15,7 +15,8 @@ import lombok.NoArgsConstructor;
 public class RecipeTag {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "recipe_tag_id_seq")
+    @SequenceGenerator(name = "recipe_tag_id_seq", sequenceName = "recipe_tag_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "recipe_id", nullable = false)
@@ -0,0 +1,29 @@
+package com.samsung.recipe.recipe.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 레시피 생성/수정/삭제 알림.
+ * 인덱스나 캐시처럼 레시피 데이터를 파생해서 들고 있는 컴포넌트가 구독한다.
+ * remote=true 는 다른 노드에서 발생한 변경을 RecipeChangeRelay가 전달한 것으로,
+ * Redis처럼 노드 간 공유되는 상태는 이미 원 노드가 반영했으므로 건너뛰어야 한다.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class RecipeChangedEvent {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Long recipeId;
+    private final Type type;
+    private final boolean remote;
+
+    public RecipeChangedEvent(Long recipeId, Type type) {
+        this(recipeId, type, false);
+    }
+}
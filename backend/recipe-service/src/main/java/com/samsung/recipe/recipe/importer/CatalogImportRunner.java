@@ -0,0 +1,69 @@
+package com.samsung.recipe.recipe.importer;
+
+import com.samsung.recipe.recipe.service.BestRecipeLeaderboard;
+import com.samsung.recipe.recipe.service.CatalogVersion;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+
+/**
+ * CSV 적재 CLI. recipe.import.csv가 주어졌을 때만 등록되며, 적재가 끝나면 프로세스를 종료한다.
+ *
+ * <pre>
+ * java -jar recipe-service.jar --spring.main.web-application-type=none --recipe.import.csv=recipe_03_final.csv
+ * java -jar recipe-service.jar --spring.main.web-application-type=none --recipe.import.csv=recipe_03_final.csv --recipe.import.mode=sync
+ * </pre>
+ *
+ * full(기본)은 전부 새로 넣고, 공유 상태인 베스트 랭킹(Redis)과 카탈로그 버전을 여기서 한꺼번에 갱신한다.
+ * 실행 중인 노드의 로컬 검색 색인은 재시작 시 (또는 다음 재구축 주기에) 새 레시피를 반영한다.
+ * sync는 바뀐 레시피만 반영하며, 캐시/색인/카탈로그 버전은 레시피별 변경 이벤트(RecipeChangeRelay)로 갱신된다.
+ * 랭킹의 추가/삭제 반영은 애플리케이션 준비 전이라 건너뛰므로 레시피가 추가/삭제된 경우에만 다시 만든다.
+ * 적재 중에는 주기 작업(SchedulingConfig)을 켜지 않고, 준비 이벤트의 워밍업(검색 색인, 랭킹 등)도 건너뛴다.
+ */
+@Component
+@ConditionalOnProperty(name = "recipe.import.csv")
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogImportRunner implements ApplicationRunner {
+
+    private final CatalogImporter catalogImporter;
+    private final BestRecipeLeaderboard bestRecipeLeaderboard;
+    private final CatalogVersion catalogVersion;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${recipe.import.csv}")
+    private String csv;
+
+    @Value("${recipe.import.mode:full}")
+    private String mode;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int exitCode = 0;
+        try {
+            if ("sync".equalsIgnoreCase(mode)) {
+                CatalogImporter.SyncResult result = catalogImporter.sync(Path.of(csv));
+                if (result.created() > 0 || result.deleted() > 0) {
+                    bestRecipeLeaderboard.rebuild();
+                }
+            } else {
+                catalogImporter.importCsv(Path.of(csv));
+                bestRecipeLeaderboard.rebuild();
+                catalogVersion.bump();
+            }
+        } catch (Exception e) {
+            log.error("Catalog import from {} failed: {}", csv, e.getMessage(), e);
+            exitCode = 1;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
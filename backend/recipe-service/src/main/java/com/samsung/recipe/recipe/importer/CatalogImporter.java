@@ -0,0 +1,753 @@
+package com.samsung.recipe.recipe.importer;
+
+import com.samsung.recipe.recipe.event.RecipeChangedEvent;
+import com.samsung.recipe.recipe.service.IngredientTagDictionary;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * 레시피 CSV 대량 적재 (db/in_postgre.py 대체).
+ * CSV를 청크 단위로 읽어 병렬로 해석하고 (다음 청크 해석은 현재 청크 적재와 겹쳐 진행),
+ * 재료/태그 이름은 청크마다 IngredientTagDictionary로 한 번에 id로 바꾼 뒤,
+ * recipes / recipe_step / recipe_ingredient / recipe_tag를 COPY FROM STDIN으로 흘려 넣는다.
+ * id는 각 시퀀스에서 JPA와 같은 방식(nextval 하나당 increment_by 개)으로 미리 받아 둔다.
+ * 청크마다 커밋하므로 중간에 실패하면 이전 청크까지는 남는다.
+ *
+ * <p>적재한 레시피마다 원본 키와 내용 해시를 recipe_source에 남긴다. {@link #sync(Path)}는 이를 비교해
+ * 바뀐 레시피만 추가/수정/삭제하고, 해당 id에 대해서만 RecipeChangedEvent를 발행한다.
+ * recipe_source가 생기기 전에 적재된 레시피는 migration 005가 기록한 id 워터마크 이하에서만 제목/작성자로 이어 받는다.
+ */
+@Component
+@Slf4j
+public class CatalogImporter {
+
+    private static final String RECIPES_COPY = "COPY recipes (id, title, description, cooking_time, servings, difficulty, "
+            + "ingredients_count, kind, situation, main_ingredient, cooking_method, writer_id, view_count, "
+            + "created_at, updated_at, image_url) FROM STDIN";
+    private static final String STEPS_COPY = "COPY recipe_step (id, recipe_id, step_index, description, image_url) FROM STDIN";
+    private static final String INGREDIENTS_COPY = "COPY recipe_ingredient (id, recipe_id, ingredient_id, amount) FROM STDIN";
+    private static final String TAGS_COPY = "COPY recipe_tag (id, recipe_id, tag_id) FROM STDIN";
+    private static final String SOURCES_COPY = "COPY recipe_source (source_key, recipe_id, content_hash, synced_at) FROM STDIN";
+
+    private static final String LOOKUP_SQL =
+            "SELECT source_key, recipe_id, content_hash FROM recipe_source WHERE source_key = ANY(?)";
+
+    // recipe_source가 생기기 전에 적재된 레시피(in_postgre.py 등)를 제목/작성자로 찾아 이어 받는다.
+    // 대상은 migration 005가 recipe_source_legacy에 남긴 id 이하뿐이다 (이후 사용자가 만든 레시피는 건드리지 않는다)
+    private static final String UNTRACKED_SQL = """
+            SELECT r.id, r.title, r.writer_id FROM recipes r
+             WHERE r.title = ANY(?)
+               AND r.id <= ?
+               AND NOT EXISTS (SELECT 1 FROM recipe_source s WHERE s.recipe_id = r.id)
+             ORDER BY r.id""";
+
+    // 조회수는 서비스가 올리는 값이라 건드리지 않고, 원본에 이미지가 없으면 자동으로 채운 이미지를 유지한다
+    private static final String UPDATE_SQL = """
+            UPDATE recipes
+               SET title = ?, cooking_time = ?, servings = ?, difficulty = ?, ingredients_count = ?, kind = ?,
+                   situation = ?, main_ingredient = ?, cooking_method = ?, writer_id = ?,
+                   image_url = COALESCE(?, image_url), updated_at = ?
+             WHERE id = ?""";
+
+    private static final String UPSERT_SOURCE_SQL = """
+            INSERT INTO recipe_source (source_key, recipe_id, content_hash, synced_at) VALUES (?, ?, ?, ?)
+            ON CONFLICT (source_key) DO UPDATE
+               SET recipe_id = EXCLUDED.recipe_id, content_hash = EXCLUDED.content_hash, synced_at = EXCLUDED.synced_at""";
+
+    // 하위 테이블과 recipe_source는 ON DELETE CASCADE로 함께 지워진다
+    private static final String DELETE_SQL = "DELETE FROM recipes WHERE id = ANY(?)";
+
+    // 삭제 트랜잭션 하나가 잡는 행 수
+    private static final int DELETE_BATCH_SIZE = 500;
+
+    private final DataSource dataSource;
+    private final TransactionTemplate transactionTemplate;
+    private final IngredientTagDictionary dictionary;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final double maxDeleteRatio;
+
+    public CatalogImporter(DataSource dataSource,
+                           PlatformTransactionManager transactionManager,
+                           IngredientTagDictionary dictionary,
+                           ApplicationEventPublisher eventPublisher,
+                           @Value("${recipe.import.chunk-size:5000}") int chunkSize,
+                           @Value("${recipe.import.max-delete-ratio:0.5}") double maxDeleteRatio) {
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dictionary = dictionary;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.maxDeleteRatio = maxDeleteRatio;
+    }
+
+    public record Result(long recipes, long steps, long ingredients, long tags, long elapsedMillis) {
+
+        public double recipesPerSecond() {
+            return elapsedMillis == 0 ? recipes : recipes * 1000.0 / elapsedMillis;
+        }
+
+        public double rowsPerSecond() {
+            long rows = recipes + steps + ingredients + tags;
+            return elapsedMillis == 0 ? rows : rows * 1000.0 / elapsedMillis;
+        }
+    }
+
+    public record SyncResult(long created, long updated, long unchanged, long deleted, long elapsedMillis) {
+    }
+
+    // 원본 키(RCP_SNO, 없으면 제목+작성자)와 내용 해시를 붙인 CSV 한 줄
+    private record SourceRecipe(String key, byte[] hash, RecipeCsvRow row) {
+    }
+
+    // recipe_source에 기록된 상태
+    private record Tracked(long recipeId, byte[] hash) {
+    }
+
+    // 청크 안의 재료/태그 이름 → id
+    private record Names(Map<String, Long> ingredientIds, Map<String, Long> tagIds) {
+    }
+
+    public Result importCsv(Path csv) throws IOException {
+        long started = System.currentTimeMillis();
+        long[] totals = new long[4];
+
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(csv, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = header(reader.next());
+            Map<String, Integer> occurrences = new HashMap<>();
+
+            CompletableFuture<List<SourceRecipe>> next = readChunkAsync(reader, columns, occurrences);
+            while (true) {
+                List<SourceRecipe> chunk = join(next);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                next = readChunkAsync(reader, columns, occurrences);
+
+                long chunkStarted = System.currentTimeMillis();
+                long[] counts = load(chunk);
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += counts[i];
+                }
+                log.info("Imported {} recipes ({} total) in {} ms", chunk.size(), totals[0],
+                        System.currentTimeMillis() - chunkStarted);
+            }
+        }
+
+        Result result = new Result(totals[0], totals[1], totals[2], totals[3], System.currentTimeMillis() - started);
+        log.info("Catalog import finished: {} recipes, {} steps, {} ingredient links, {} tag links in {} ms "
+                        + "({} recipes/s, {} rows/s)",
+                result.recipes(), result.steps(), result.ingredients(), result.tags(), result.elapsedMillis(),
+                Math.round(result.recipesPerSecond()), Math.round(result.rowsPerSecond()));
+        return result;
+    }
+
+    /**
+     * CSV와 DB를 비교해 바뀐 레시피만 반영한다.
+     * 해시가 같은 레시피는 읽기만 하고, 바뀐 레시피는 본문을 UPDATE하고 하위 행을 지운 뒤 다시 COPY한다.
+     * 파일에 없는 추적 레시피는 마지막에 지운다 (max-delete-ratio를 넘으면 잘린 파일로 보고 지우지 않는다).
+     * 캐시와 색인은 전체를 비우지 않고, 바뀐 id마다 발행하는 RecipeChangedEvent로 갱신된다.
+     */
+    public SyncResult sync(Path csv) throws IOException {
+        long started = System.currentTimeMillis();
+        long[] totals = new long[3];
+        Set<String> seen = new HashSet<>();
+        long legacyMaxId = legacyMaxId();
+
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(csv, StandardCharsets.UTF_8))) {
+            Map<String, Integer> columns = header(reader.next());
+            Map<String, Integer> occurrences = new HashMap<>();
+
+            CompletableFuture<List<SourceRecipe>> next = readChunkAsync(reader, columns, occurrences);
+            while (true) {
+                List<SourceRecipe> chunk = join(next);
+                if (chunk.isEmpty()) {
+                    break;
+                }
+                next = readChunkAsync(reader, columns, occurrences);
+
+                long chunkStarted = System.currentTimeMillis();
+                for (SourceRecipe source : chunk) {
+                    seen.add(source.key());
+                }
+                long[] counts = syncChunk(chunk, legacyMaxId);
+                for (int i = 0; i < totals.length; i++) {
+                    totals[i] += counts[i];
+                }
+                log.info("Synced {} recipes ({} created, {} updated) in {} ms", chunk.size(), counts[0], counts[1],
+                        System.currentTimeMillis() - chunkStarted);
+            }
+        }
+
+        long deleted = deleteMissing(seen);
+        SyncResult result = new SyncResult(totals[0], totals[1], totals[2], deleted, System.currentTimeMillis() - started);
+        log.info("Catalog sync finished: {} created, {} updated, {} unchanged, {} deleted in {} ms",
+                result.created(), result.updated(), result.unchanged(), result.deleted(), result.elapsedMillis());
+        return result;
+    }
+
+    // 레코드 읽기는 순차적이지만 해석과 해시는 병렬 스트림으로 한다. 현재 청크를 적재하는 동안 다음 청크를 준비한다
+    private CompletableFuture<List<SourceRecipe>> readChunkAsync(CsvReader reader, Map<String, Integer> columns,
+                                                                 Map<String, Integer> occurrences) {
+        return CompletableFuture.supplyAsync(() -> {
+            List<String[]> records = new ArrayList<>(chunkSize);
+            try {
+                String[] record;
+                while (records.size() < chunkSize && (record = reader.next()) != null) {
+                    records.add(record);
+                }
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+            List<RecipeCsvRow> rows = records.parallelStream()
+                    .map(record -> RecipeCsvRow.parse(record, columns))
+                    .toList();
+            List<byte[]> hashes = rows.parallelStream()
+                    .map(RecipeCsvRow::contentHash)
+                    .toList();
+
+            // 키는 파일 순서대로 붙인다. 같은 키가 또 나오면 #2, #3 ...
+            List<SourceRecipe> chunk = new ArrayList<>(rows.size());
+            for (int i = 0; i < rows.size(); i++) {
+                RecipeCsvRow row = rows.get(i);
+                String base = row.sourceNo() != null ? "sno:" + row.sourceNo().strip() : "ttl:" + titleWriter(row);
+                int n = occurrences.merge(base, 1, Integer::sum);
+                chunk.add(new SourceRecipe(n == 1 ? base : base + "#" + n, hashes.get(i), row));
+            }
+            return chunk;
+        });
+    }
+
+    private long[] load(List<SourceRecipe> chunk) throws IOException {
+        List<RecipeCsvRow> rows = rows(chunk);
+        Names names = resolveNames(rows);
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                long[] ids = allocateIds(connection, "recipes_id_seq", rows.size());
+
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                String now = LocalDateTime.now().toString();
+                copyRecipes(pg, rows, ids, now);
+                long[] counts = copyChildren(connection, pg, rows, ids, names);
+                copySources(pg, chunk, ids, now);
+
+                connection.commit();
+                return new long[]{rows.size(), counts[0], counts[1], counts[2]};
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Failed to import chunk: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 청크 하나를 비교해 반영하고 {새로 만든 수, 수정한 수, 그대로인 수}를 돌려준다. 커밋한 뒤에 변경 이벤트를 발행한다.
+     */
+    private long[] syncChunk(List<SourceRecipe> chunk, long legacyMaxId) throws IOException {
+        List<SourceRecipe> created = new ArrayList<>();
+        List<SourceRecipe> updated = new ArrayList<>();
+        List<Long> updatedIdList = new ArrayList<>();
+        long[] createdIds;
+        long[] updatedIds;
+
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                Map<String, Tracked> tracked = lookup(connection, chunk);
+                List<SourceRecipe> untracked = new ArrayList<>();
+                for (SourceRecipe source : chunk) {
+                    Tracked current = tracked.get(source.key());
+                    if (current == null) {
+                        untracked.add(source);
+                    } else if (!Arrays.equals(current.hash(), source.hash())) {
+                        updated.add(source);
+                        updatedIdList.add(current.recipeId());
+                    }
+                }
+
+                Map<String, Deque<Long>> adoptable = untracked.isEmpty() || legacyMaxId == 0
+                        ? Map.of() : findUntracked(connection, untracked, legacyMaxId);
+                for (SourceRecipe source : untracked) {
+                    Deque<Long> candidates = adoptable.get(titleWriter(source.row()));
+                    if (candidates != null && !candidates.isEmpty()) {
+                        updated.add(source);
+                        updatedIdList.add(candidates.poll());
+                    } else {
+                        created.add(source);
+                    }
+                }
+
+                if (created.isEmpty() && updated.isEmpty()) {
+                    connection.commit();
+                    return new long[]{0, 0, chunk.size()};
+                }
+
+                List<RecipeCsvRow> createdRows = rows(created);
+                List<RecipeCsvRow> updatedRows = rows(updated);
+                List<RecipeCsvRow> allRows = new ArrayList<>(createdRows);
+                allRows.addAll(updatedRows);
+                // 재료/태그 이름 upsert는 별도 트랜잭션으로 먼저 커밋된다 (남아도 해가 없다)
+                Names names = resolveNames(allRows);
+
+                createdIds = allocateIds(connection, "recipes_id_seq", createdRows.size());
+                updatedIds = updatedIdList.stream().mapToLong(Long::longValue).toArray();
+
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                String now = LocalDateTime.now().toString();
+                copyRecipes(pg, createdRows, createdIds, now);
+                if (!updatedRows.isEmpty()) {
+                    updateRecipes(connection, updatedRows, updatedIds);
+                    deleteChildren(connection, updatedIds);
+                }
+
+                long[] allIds = Arrays.copyOf(createdIds, createdIds.length + updatedIds.length);
+                System.arraycopy(updatedIds, 0, allIds, createdIds.length, updatedIds.length);
+                copyChildren(connection, pg, allRows, allIds, names);
+
+                copySources(pg, created, createdIds, now);
+                upsertSources(connection, updated, updatedIds);
+
+                connection.commit();
+            } catch (SQLException | IOException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new IOException("Failed to sync chunk: " + e.getMessage(), e);
+        }
+
+        for (long id : createdIds) {
+            eventPublisher.publishEvent(new RecipeChangedEvent(id, RecipeChangedEvent.Type.CREATED));
+        }
+        for (long id : updatedIds) {
+            eventPublisher.publishEvent(new RecipeChangedEvent(id, RecipeChangedEvent.Type.UPDATED));
+        }
+        return new long[]{created.size(), updated.size(), chunk.size() - created.size() - updated.size()};
+    }
+
+    /**
+     * 이번 파일에 나오지 않은 추적 레시피를 지운다. 사용자가 직접 만든 레시피는 recipe_source에 없으므로 대상이 아니다.
+     */
+    private long deleteMissing(Set<String> seen) throws IOException {
+        List<Long> missing = new ArrayList<>();
+        long tracked = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            // fetch size는 트랜잭션 안에서만 커서로 나눠 읽는다
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                statement.setFetchSize(10_000);
+                try (ResultSet rs = statement.executeQuery("SELECT source_key, recipe_id FROM recipe_source")) {
+                    while (rs.next()) {
+                        tracked++;
+                        if (!seen.contains(rs.getString(1))) {
+                            missing.add(rs.getLong(2));
+                        }
+                    }
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IOException("Failed to read recipe sources: " + e.getMessage(), e);
+        }
+
+        if (missing.isEmpty()) {
+            return 0;
+        }
+        if (missing.size() > tracked * maxDeleteRatio) {
+            log.warn("Skipping deletion of {} of {} tracked recipes: exceeds recipe.import.max-delete-ratio {}",
+                    missing.size(), tracked, maxDeleteRatio);
+            return 0;
+        }
+
+        for (int from = 0; from < missing.size(); from += DELETE_BATCH_SIZE) {
+            List<Long> batch = missing.subList(from, Math.min(from + DELETE_BATCH_SIZE, missing.size()));
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(DELETE_SQL)) {
+                statement.setArray(1, connection.createArrayOf("bigint", batch.toArray()));
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                throw new IOException("Failed to delete recipes: " + e.getMessage(), e);
+            }
+            for (Long id : batch) {
+                eventPublisher.publishEvent(new RecipeChangedEvent(id, RecipeChangedEvent.Type.DELETED));
+            }
+        }
+        return missing.size();
+    }
+
+    private static Map<String, Tracked> lookup(Connection connection, List<SourceRecipe> chunk) throws SQLException {
+        String[] keys = new String[chunk.size()];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = chunk.get(i).key();
+        }
+        Map<String, Tracked> tracked = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(LOOKUP_SQL)) {
+            statement.setArray(1, connection.createArrayOf("text", keys));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    tracked.put(rs.getString(1), new Tracked(rs.getLong(2), rs.getBytes(3)));
+                }
+            }
+        }
+        return tracked;
+    }
+
+    // 제목+작성자별로 아직 추적되지 않은 레시피 id (오래된 순)
+    /**
+     * 이어 받을 수 있는 레시피 id 상한. migration 005를 적용하지 않은 DB (테이블 없음)나 init.sql로 새로 만든 DB는 0이다.
+     */
+    private long legacyMaxId() throws IOException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SELECT to_regclass('recipe_source_legacy') IS NOT NULL")) {
+                if (!rs.next() || !rs.getBoolean(1)) {
+                    log.warn("recipe_source_legacy not found (db/migrations/005_recipe_source.sql): "
+                            + "untracked recipes will not be adopted");
+                    return 0;
+                }
+            }
+            try (ResultSet rs = statement.executeQuery("SELECT COALESCE(max(max_recipe_id), 0) FROM recipe_source_legacy")) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Failed to read legacy recipe watermark: " + e.getMessage(), e);
+        }
+    }
+
+    private static Map<String, Deque<Long>> findUntracked(Connection connection, List<SourceRecipe> untracked,
+                                                          long legacyMaxId) throws SQLException {
+        Set<String> titles = new LinkedHashSet<>();
+        for (SourceRecipe source : untracked) {
+            titles.add(source.row().title());
+        }
+        Map<String, Deque<Long>> candidates = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(UNTRACKED_SQL)) {
+            statement.setArray(1, connection.createArrayOf("text", titles.toArray()));
+            statement.setLong(2, legacyMaxId);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    candidates.computeIfAbsent(rs.getString(2) + '\u001f' + rs.getString(3), k -> new ArrayDeque<>())
+                            .add(rs.getLong(1));
+                }
+            }
+        }
+        return candidates;
+    }
+
+    private static String titleWriter(RecipeCsvRow row) {
+        return row.title() + '\u001f' + row.writerId();
+    }
+
+    private static void updateRecipes(Connection connection, List<RecipeCsvRow> rows, long[] ids) throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement statement = connection.prepareStatement(UPDATE_SQL)) {
+            for (int i = 0; i < rows.size(); i++) {
+                RecipeCsvRow row = rows.get(i);
+                statement.setString(1, row.title());
+                statement.setInt(2, row.cookingTime());
+                statement.setInt(3, row.servings());
+                statement.setString(4, row.difficulty());
+                statement.setInt(5, row.ingredientsCount());
+                statement.setString(6, row.kind());
+                statement.setString(7, row.situation());
+                statement.setString(8, row.mainIngredient());
+                statement.setString(9, row.cookingMethod());
+                statement.setString(10, row.writerId());
+                statement.setString(11, row.imageUrl());
+                statement.setTimestamp(12, now);
+                statement.setLong(13, ids[i]);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static void deleteChildren(Connection connection, long[] recipeIds) throws SQLException {
+        Array ids = connection.createArrayOf("bigint", Arrays.stream(recipeIds).boxed().toArray());
+        for (String table : List.of("recipe_step", "recipe_ingredient", "recipe_tag")) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM " + table + " WHERE recipe_id = ANY(?)")) {
+                statement.setArray(1, ids);
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    private static void upsertSources(Connection connection, List<SourceRecipe> sources, long[] ids) throws SQLException {
+        if (sources.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try (PreparedStatement statement = connection.prepareStatement(UPSERT_SOURCE_SQL)) {
+            for (int i = 0; i < sources.size(); i++) {
+                statement.setString(1, sources.get(i).key());
+                statement.setLong(2, ids[i]);
+                statement.setBytes(3, sources.get(i).hash());
+                statement.setTimestamp(4, now);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private Names resolveNames(List<RecipeCsvRow> rows) {
+        Set<String> ingredientNames = new LinkedHashSet<>();
+        Set<String> tagNames = new LinkedHashSet<>();
+        for (RecipeCsvRow row : rows) {
+            for (RecipeCsvRow.Ingredient ingredient : row.ingredients()) {
+                ingredientNames.add(ingredient.name());
+            }
+            tagNames.addAll(row.tags());
+        }
+        // 이름 → id는 애플리케이션과 같은 경로(upsert 한 번 + 조회 한 번)로 먼저 커밋해 둔다
+        Map<String, Long> ingredientIds = transactionTemplate.execute(status -> dictionary.resolveIngredientIds(ingredientNames));
+        Map<String, Long> tagIds = transactionTemplate.execute(status -> dictionary.resolveTagIds(tagNames));
+        return new Names(ingredientIds, tagIds);
+    }
+
+    private static List<RecipeCsvRow> rows(List<SourceRecipe> sources) {
+        List<RecipeCsvRow> rows = new ArrayList<>(sources.size());
+        for (SourceRecipe source : sources) {
+            rows.add(source.row());
+        }
+        return rows;
+    }
+
+    private static void copyRecipes(PGConnection pg, List<RecipeCsvRow> rows, long[] ids, String now)
+            throws SQLException, IOException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        copy(pg, RECIPES_COPY, out -> {
+            for (int i = 0; i < rows.size(); i++) {
+                RecipeCsvRow row = rows.get(i);
+                row(out, ids[i], row.title(), "", row.cookingTime(), row.servings(), row.difficulty(),
+                        row.ingredientsCount(), row.kind(), row.situation(), row.mainIngredient(),
+                        row.cookingMethod(), row.writerId(), row.viewCount(), now, now, row.imageUrl());
+            }
+        });
+    }
+
+    // 단계/재료/태그를 COPY하고 {단계 수, 재료 수, 태그 수}를 돌려준다. ids[i]가 rows[i]의 레시피 id
+    private static long[] copyChildren(Connection connection, PGConnection pg, List<RecipeCsvRow> rows, long[] ids,
+                                       Names names) throws SQLException, IOException {
+        int stepCount = 0;
+        int ingredientCount = 0;
+        int tagCount = 0;
+        for (RecipeCsvRow row : rows) {
+            stepCount += row.steps().size();
+            ingredientCount += row.ingredients().size();
+            tagCount += row.tags().size();
+        }
+
+        if (stepCount > 0) {
+            long[] stepIds = allocateIds(connection, "recipe_step_id_seq", stepCount);
+            copy(pg, STEPS_COPY, out -> {
+                int next = 0;
+                for (int i = 0; i < rows.size(); i++) {
+                    List<RecipeCsvRow.Step> steps = rows.get(i).steps();
+                    for (int s = 0; s < steps.size(); s++) {
+                        row(out, stepIds[next++], ids[i], s + 1, steps.get(s).description(), steps.get(s).imageUrl());
+                    }
+                }
+            });
+        }
+        if (ingredientCount > 0) {
+            long[] recipeIngredientIds = allocateIds(connection, "recipe_ingredient_id_seq", ingredientCount);
+            copy(pg, INGREDIENTS_COPY, out -> {
+                int next = 0;
+                for (int i = 0; i < rows.size(); i++) {
+                    for (RecipeCsvRow.Ingredient ingredient : rows.get(i).ingredients()) {
+                        row(out, recipeIngredientIds[next++], ids[i], names.ingredientIds().get(ingredient.name()),
+                                ingredient.amount());
+                    }
+                }
+            });
+        }
+        if (tagCount > 0) {
+            long[] recipeTagIds = allocateIds(connection, "recipe_tag_id_seq", tagCount);
+            copy(pg, TAGS_COPY, out -> {
+                int next = 0;
+                for (int i = 0; i < rows.size(); i++) {
+                    for (String tag : rows.get(i).tags()) {
+                        row(out, recipeTagIds[next++], ids[i], names.tagIds().get(tag));
+                    }
+                }
+            });
+        }
+        return new long[]{stepCount, ingredientCount, tagCount};
+    }
+
+    private static void copySources(PGConnection pg, List<SourceRecipe> sources, long[] ids, String now)
+            throws SQLException, IOException {
+        if (sources.isEmpty()) {
+            return;
+        }
+        copy(pg, SOURCES_COPY, out -> {
+            for (int i = 0; i < sources.size(); i++) {
+                row(out, sources.get(i).key(), ids[i], bytea(sources.get(i).hash()), now);
+            }
+        });
+    }
+
+    private static Map<String, Integer> header(String[] header) throws IOException {
+        if (header == null) {
+            throw new IOException("Empty CSV");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.length; i++) {
+            // UTF-8 BOM이 붙은 파일도 받는다
+            columns.put(header[i].replace("\uFEFF", "").strip(), i);
+        }
+        if (!columns.containsKey("RCP_TTL")) {
+            throw new IOException("CSV header has no RCP_TTL column");
+        }
+        return columns;
+    }
+
+    /**
+     * count개의 id를 미리 받는다. JPA pooled 옵티마이저와 같이 nextval 값 v 하나가 (v - increment, v] 구간을 뜻하므로
+     * 애플리케이션의 insert나 기본값(nextval) insert와 겹치지 않는다.
+     * 새로 만든 시퀀스는 1부터 시작하므로 v가 increment보다 작은 첫 구간은 1..v만 쓴다
+     * (Hibernate도 첫 값이 increment보다 작으면 그 값을 하한으로 본다). 모자라는 만큼은 nextval을 더 받는다.
+     */
+    private static long[] allocateIds(Connection connection, String sequence, int count) throws SQLException {
+        long[] ids = new long[count];
+        if (count == 0) {
+            return ids;
+        }
+
+        int increment;
+        // 이름은 search_path 기준으로 찾는다 (pg_sequences.sequencename은 스키마를 가리지 않는다)
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT seqincrement FROM pg_sequence WHERE seqrelid = CAST(? AS regclass)")) {
+            statement.setString(1, sequence);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next()) {
+                    throw new SQLException("Sequence not found: " + sequence);
+                }
+                increment = (int) rs.getLong(1);
+            }
+        }
+
+        int next = 0;
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT nextval(CAST(? AS regclass)) FROM generate_series(1, ?)")) {
+            statement.setString(1, sequence);
+            while (next < count) {
+                statement.setInt(2, (count - next + increment - 1) / increment);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next() && next < count) {
+                        long high = rs.getLong(1);
+                        for (long id = Math.max(1, high - increment + 1); id <= high && next < count; id++) {
+                            ids[next++] = id;
+                        }
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    private interface CopyBody {
+        void write(Writer out) throws IOException;
+    }
+
+    private static void copy(PGConnection connection, String sql, CopyBody body) throws SQLException, IOException {
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                new PGCopyOutputStream(connection, sql, 1 << 16), StandardCharsets.UTF_8), 1 << 16)) {
+            body.write(out);
+        }
+    }
+
+    // COPY text 형식 한 줄: 탭 구분, null은 \N, 역슬래시/탭/줄바꿈은 이스케이프
+    private static void row(Writer out, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write('\t');
+            }
+            Object value = values[i];
+            if (value == null) {
+                out.write("\\N");
+            } else if (value instanceof String text) {
+                escape(out, text);
+            } else {
+                out.write(value.toString());
+            }
+        }
+        out.write('\n');
+    }
+
+    private static void escape(Writer out, String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '\\' -> out.write("\\\\");
+                case '\t' -> out.write("\\t");
+                case '\n' -> out.write("\\n");
+                case '\r' -> out.write("\\r");
+                default -> out.write(c);
+            }
+        }
+    }
+
+    // bytea hex 입력 형식 (\x...). row()가 역슬래시를 한 번 더 이스케이프한다
+    private static String bytea(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(2 + bytes.length * 2).append("\\x");
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private static <T> T join(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.samsung.recipe.recipe.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RFC 4180 CSV 레코드 단위 스트리밍 리더.
+ * 큰따옴표로 감싼 필드 안의 쉼표/줄바꿈과 "" 이스케이프를 처리한다. 레코드 경계는 따옴표 상태에 따라
+ * 결정되므로 읽기는 순차적으로 하고, 레코드 해석(RecipeCsvRow.parse)을 병렬로 돌린다.
+ */
+final class CsvReader implements Closeable {
+
+    private final Reader in;
+    private final char[] buffer = new char[64 * 1024];
+    private int position;
+    private int limit;
+
+    CsvReader(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * 다음 레코드. 파일 끝이면 null.
+     */
+    String[] next() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    int peek = read();
+                    if (peek == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = peek;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                int peek = read();
+                if (peek != '\n' && peek != -1) {
+                    position--;
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,258 @@
+package com.samsung.recipe.recipe.importer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 레시피 CSV (recipe_03_final.csv) 한 줄을 해석한 결과.
+ * 컬럼 해석 규칙은 db/in_postgre.py와 같다: 목록 컬럼은 Python 리터럴 (['a', 'b']),
+ * 인분/조리시간은 첫 숫자만, 단계는 설명과 이미지 목록을 짝지은 만큼만, 재료는 "이름: 양" 형식.
+ * sourceNo는 원본 레시피 일련번호(RCP_SNO)로, 파일에 없으면 null이다.
+ */
+record RecipeCsvRow(
+        String sourceNo,
+        String title,
+        int cookingTime,
+        int servings,
+        String difficulty,
+        int ingredientsCount,
+        String kind,
+        String situation,
+        String mainIngredient,
+        String cookingMethod,
+        String writerId,
+        int viewCount,
+        String imageUrl,
+        List<Step> steps,
+        List<Ingredient> ingredients,
+        List<String> tags) {
+
+    record Step(String description, String imageUrl) {
+    }
+
+    record Ingredient(String name, String amount) {
+    }
+
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+
+    // 해석 규칙이나 해시에 넣는 필드가 바뀌면 올린다. 다음 동기화 때 모든 레시피가 변경으로 잡힌다
+    private static final int HASH_VERSION = 1;
+
+    static RecipeCsvRow parse(String[] record, Map<String, Integer> columns) {
+        List<String> stepDescriptions = literalList(get(record, columns, "RCP_STEP_DESC"));
+        List<String> stepImages = literalList(get(record, columns, "RCP_STEP_IMG"));
+        int stepCount = Math.min(stepDescriptions.size(), stepImages.size());
+        List<Step> steps = new ArrayList<>(stepCount);
+        for (int i = 0; i < stepCount; i++) {
+            steps.add(new Step(stepDescriptions.get(i).strip(), stepImages.get(i).strip()));
+        }
+
+        List<String> rawIngredients = literalList(get(record, columns, "CKG_MTRL_CN"));
+        List<Ingredient> ingredients = new ArrayList<>(rawIngredients.size());
+        for (String raw : rawIngredients) {
+            int colon = raw.indexOf(':');
+            String name = (colon >= 0 ? raw.substring(0, colon) : raw).strip();
+            String amount = colon >= 0 ? raw.substring(colon + 1).strip() : null;
+            if (!name.isEmpty()) {
+                ingredients.add(new Ingredient(name, amount));
+            }
+        }
+
+        List<String> tags = new ArrayList<>();
+        for (String tag : literalList(get(record, columns, "RCP_HASHTAG"))) {
+            String clean = tag.strip();
+            if (!clean.isEmpty()) {
+                tags.add(clean);
+            }
+        }
+
+        String writerId = get(record, columns, "RGTR_ID");
+        String viewCount = get(record, columns, "RCP_VIEW_CNT");
+        return new RecipeCsvRow(
+                get(record, columns, "RCP_SNO"),
+                get(record, columns, "RCP_TTL"),
+                firstNumber(get(record, columns, "CKG_TIME_NM")),
+                firstNumber(get(record, columns, "CKG_INBUN_NM")),
+                get(record, columns, "CKG_DODF_NM"),
+                rawIngredients.size(),
+                get(record, columns, "CKG_KND_ACTO_NM"),
+                get(record, columns, "CKG_STA_ACTO_NM"),
+                get(record, columns, "CKG_MTRL_ACTO_NM"),
+                get(record, columns, "CKG_MTH_ACTO_NM"),
+                writerId != null ? writerId : "1",
+                viewCount == null ? 0 : toInt(viewCount),
+                get(record, columns, "RCP_IMG_URL"),
+                steps,
+                ingredients,
+                tags);
+    }
+
+    /**
+     * 동기화 비교용 내용 해시 (SHA-256). 단계/재료/태그까지 포함하되,
+     * 조회수는 서비스가 따로 올리는 값이므로 넣지 않는다.
+     */
+    byte[] contentHash() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update((byte) HASH_VERSION);
+        update(digest, title);
+        update(digest, cookingTime);
+        update(digest, servings);
+        update(digest, difficulty);
+        update(digest, ingredientsCount);
+        update(digest, kind);
+        update(digest, situation);
+        update(digest, mainIngredient);
+        update(digest, cookingMethod);
+        update(digest, writerId);
+        update(digest, imageUrl);
+        update(digest, steps.size());
+        for (Step step : steps) {
+            update(digest, step.description());
+            update(digest, step.imageUrl());
+        }
+        update(digest, ingredients.size());
+        for (Ingredient ingredient : ingredients) {
+            update(digest, ingredient.name());
+            update(digest, ingredient.amount());
+        }
+        update(digest, tags.size());
+        for (String tag : tags) {
+            update(digest, tag);
+        }
+        return digest.digest();
+    }
+
+    // 길이를 앞에 붙여 필드 경계가 섞이지 않게 한다 (null은 -1)
+    private static void update(MessageDigest digest, String value) {
+        if (value == null) {
+            update(digest, -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        update(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    private static void update(MessageDigest digest, int value) {
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(value).array());
+    }
+
+    // 빈 값(pandas NaN)은 null
+    private static String get(String[] record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.length || record[index].isEmpty()) {
+            return null;
+        }
+        return record[index];
+    }
+
+    private static int toInt(String value) {
+        try {
+            return (int) Double.parseDouble(value.strip());
+        } catch (NumberFormatException e) {
+            return firstNumber(value);
+        }
+    }
+
+    // "2인분" → 2, "20분 이내" → 20, 숫자가 없으면 0
+    static int firstNumber(String text) {
+        if (text == null) {
+            return 0;
+        }
+        Matcher matcher = NUMBER.matcher(text);
+        if (!matcher.find()) {
+            return 0;
+        }
+        try {
+            return Integer.parseInt(matcher.group());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Python 리터럴 목록 (['a', "b", 3])을 문자열 목록으로. 해석할 수 없으면 빈 목록 (safe_eval과 같다).
+     */
+    static List<String> literalList(String text) {
+        if (text == null) {
+            return Collections.emptyList();
+        }
+        String s = text.strip();
+        if (s.length() < 2 || s.charAt(0) != '[' || s.charAt(s.length() - 1) != ']') {
+            return Collections.emptyList();
+        }
+
+        List<String> items = new ArrayList<>();
+        StringBuilder item = new StringBuilder();
+        int i = 1;
+        int end = s.length() - 1;
+        while (i < end) {
+            char c = s.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            }
+            if (c == '\'' || c == '"') {
+                item.setLength(0);
+                i++;
+                boolean closed = false;
+                while (i < end) {
+                    char d = s.charAt(i++);
+                    if (d == c) {
+                        closed = true;
+                        break;
+                    }
+                    if (d == '\\' && i < end) {
+                        char e = s.charAt(i++);
+                        switch (e) {
+                            case 'n' -> item.append('\n');
+                            case 't' -> item.append('\t');
+                            case 'r' -> item.append('\r');
+                            default -> item.append(e);
+                        }
+                    } else {
+                        item.append(d);
+                    }
+                }
+                if (!closed) {
+                    return Collections.emptyList();
+                }
+                items.add(item.toString());
+            } else {
+                // 따옴표 없는 값 (숫자 등)은 쉼표까지 그대로
+                int comma = s.indexOf(',', i);
+                int stop = comma < 0 || comma > end ? end : comma;
+                String bare = s.substring(i, stop).strip();
+                if (bare.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                items.add(bare);
+                i = stop;
+            }
+            // 다음 쉼표까지 공백만 허용
+            while (i < end && Character.isWhitespace(s.charAt(i))) {
+                i++;
+            }
+            if (i < end) {
+                if (s.charAt(i) != ',') {
+                    return Collections.emptyList();
+                }
+                i++;
+            }
+        }
+        return items;
+    }
+}
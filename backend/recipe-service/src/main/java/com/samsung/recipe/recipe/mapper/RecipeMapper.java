@@ -2,14 +2,25 @@ package com.samsung.recipe.recipe.mapper;
 
 import com.samsung.recipe.recipe.dto.*;
 import com.samsung.recipe.recipe.entity.*;
+import com.samsung.recipe.recipe.service.IngredientTagDictionary;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
 @Component
+@RequiredArgsConstructor
 public class RecipeMapper {
 
+    // stepIndex가 없는 행 (직접 넣은 데이터 등)은 뒤로 보낸다 (DB의 ORDER BY step_index와 같은 순서)
+    private static final Comparator<RecipeStep> STEP_ORDER =
+            Comparator.comparing(RecipeStep::getStepIndex, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    private final IngredientTagDictionary dictionary;
+
     // Request DTO → 엔티티 변환
     public Recipe toEntity(RecipeRequestDto dto) {
         Recipe recipe = Recipe.builder()
@@ -31,63 +42,86 @@ public class RecipeMapper {
 
     public List<RecipeStep> toRecipeStepEntities(List<RecipeStepDto> dtos, Long recipeId) {
         if (dtos == null) return null;
-        return dtos.stream()
-                .map(dto -> RecipeStep.builder()
-                        .recipeId(recipeId)
-                        .stepIndex(dto.getStepIndex())
-                        .description(dto.getDescription())
-                        .imageUrl(dto.getImageUrl())
-                        .build())
-                .collect(Collectors.toList());
+        List<RecipeStep> steps = new ArrayList<>(dtos.size());
+        for (RecipeStepDto dto : dtos) {
+            steps.add(RecipeStep.builder()
+                    .recipeId(recipeId)
+                    .stepIndex(dto.getStepIndex())
+                    .description(dto.getDescription())
+                    .imageUrl(dto.getImageUrl())
+                    .build());
+        }
+        return steps;
     }
 
-    public List<RecipeIngredient> toRecipeIngredientEntities(List<RecipeIngredientDto> dtos, Long recipeId, List<Ingredient> ingredientEntities) {
+    public List<RecipeIngredient> toRecipeIngredientEntities(List<RecipeIngredientDto> dtos, Long recipeId) {
         if (dtos == null) return null;
-        return dtos.stream()
-                .map(dto -> {
-                    Ingredient ingredient = ingredientEntities.stream()
-                            .filter(i -> i.getName().equals(dto.getIngredientName()))
-                            .findFirst().orElse(null);
-                    return RecipeIngredient.builder()
-                            .recipeId(recipeId)
-                            .ingredientId(ingredient != null ? ingredient.getId() : null)
-                            .amount(dto.getAmount())
-                            .build();
-                })
-                .collect(Collectors.toList());
+        List<RecipeIngredient> recipeIngredients = new ArrayList<>(dtos.size());
+        for (RecipeIngredientDto dto : dtos) {
+            recipeIngredients.add(RecipeIngredient.builder()
+                    .recipeId(recipeId)
+                    .ingredientId(dictionary.ingredientId(dto.getIngredientName()))
+                    .amount(dto.getAmount())
+                    .build());
+        }
+        return recipeIngredients;
     }
 
-    public List<RecipeTag> toRecipeTagEntities(List<TagDto> dtos, Long recipeId, List<Tag> tagEntities) {
+    public List<RecipeTag> toRecipeTagEntities(List<TagDto> dtos, Long recipeId) {
         if (dtos == null) return null;
-        return dtos.stream()
-                .map(dto -> {
-                    Tag tag = tagEntities.stream()
-                            .filter(t -> t.getName().equals(dto.getName()))
-                            .findFirst().orElse(null);
-                    return RecipeTag.builder()
-                            .recipeId(recipeId)
-                            .tagId(tag != null ? tag.getId() : null)
-                            .build();
-                })
-                .collect(Collectors.toList());
+        List<RecipeTag> recipeTags = new ArrayList<>(dtos.size());
+        for (TagDto dto : dtos) {
+            recipeTags.add(RecipeTag.builder()
+                    .recipeId(recipeId)
+                    .tagId(dictionary.tagId(dto.getName()))
+                    .build());
+        }
+        return recipeTags;
     }
 
     // 엔티티 → Response DTO 변환
-    public RecipeResponseDto toResponseDto(Recipe recipe, List<RecipeStep> steps, List<RecipeIngredient> recipeIngredients, List<Ingredient> ingredients, List<RecipeTag> recipeTags, List<Tag> tags) {
-        // steps를 instructions와 instructionImages로 변환
+    public RecipeResponseDto toResponseDto(Recipe recipe, List<RecipeStep> steps, List<RecipeIngredient> recipeIngredients, List<RecipeTag> recipeTags) {
+        return toResponseDto(recipe, steps, recipeIngredients, recipeTags, dictionary::ingredientName, dictionary::tagName);
+    }
+
+    /**
+     * 재료/태그 이름을 호출 측이 알려준다 (아직 커밋되지 않아 사전에 없는 새 이름으로 응답을 만들 때).
+     */
+    public RecipeResponseDto toResponseDto(Recipe recipe, List<RecipeStep> steps, List<RecipeIngredient> recipeIngredients, List<RecipeTag> recipeTags,
+                                           Function<Long, String> ingredientNames, Function<Long, String> tagNames) {
+        // steps를 stepIndex 순으로 한 번만 순회하며 steps / instructions / instructionImages를 함께 채운다
+        List<RecipeStepDto> stepDtos = null;
         List<String> instructions = null;
         List<String> instructionImages = null;
         
-        if (steps != null && !steps.isEmpty()) {
-            instructions = steps.stream()
-                    .sorted((s1, s2) -> Integer.compare(s1.getStepIndex(), s2.getStepIndex()))
-                    .map(RecipeStep::getDescription)
-                    .collect(Collectors.toList());
-            
-            instructionImages = steps.stream()
-                    .sorted((s1, s2) -> Integer.compare(s1.getStepIndex(), s2.getStepIndex()))
-                    .map(RecipeStep::getImageUrl)
-                    .collect(Collectors.toList());
+        if (steps != null) {
+            List<RecipeStep> orderedSteps = isOrderedByStepIndex(steps) ? steps : sortedByStepIndex(steps);
+            stepDtos = new ArrayList<>(orderedSteps.size());
+            if (!orderedSteps.isEmpty()) {
+                instructions = new ArrayList<>(orderedSteps.size());
+                instructionImages = new ArrayList<>(orderedSteps.size());
+            }
+            for (RecipeStep step : orderedSteps) {
+                stepDtos.add(toStepDto(step));
+                instructions.add(step.getDescription());
+                instructionImages.add(step.getImageUrl());
+            }
+        }
+        
+        List<RecipeIngredientDetailDto> ingredientDtos = null;
+        if (recipeIngredients != null) {
+            ingredientDtos = new ArrayList<>(recipeIngredients.size());
+            for (RecipeIngredient ri : recipeIngredients) {
+                ingredientDtos.add(toIngredientDetailDto(ri, ingredientNames));
+            }
+        }
+        
+        List<TagDto> tagDtos = null;
+        if (recipeTags != null) {
+            tagDtos = new ArrayList<>(recipeTags.size());
+            for (RecipeTag rt : recipeTags) {
+                tagDtos.add(toTagDto(rt, tagNames));
+            }
         }
         
         return RecipeResponseDto.builder()
@@ -107,9 +141,9 @@ public class RecipeMapper {
                 .viewCount(recipe.getViewCount())
                 .createdAt(recipe.getCreatedAt())
                 .updatedAt(recipe.getUpdatedAt())
-                .steps(steps == null ? null : steps.stream().map(this::toStepDto).collect(Collectors.toList()))
-                .ingredients(recipeIngredients == null ? null : recipeIngredients.stream().map(ri -> toIngredientDetailDto(ri, ingredients)).collect(Collectors.toList()))
-                .tags(recipeTags == null ? null : recipeTags.stream().map(rt -> toTagDto(rt, tags)).collect(Collectors.toList()))
+                .steps(stepDtos)
+                .ingredients(ingredientDtos)
+                .tags(tagDtos)
                 .instructions(instructions)
                 .instructionImages(instructionImages)
                 .build();
@@ -123,23 +157,41 @@ public class RecipeMapper {
                 .build();
     }
 
-    public RecipeIngredientDetailDto toIngredientDetailDto(RecipeIngredient ri, List<Ingredient> ingredients) {
-        Ingredient ingredient = ingredients.stream()
-                .filter(i -> i.getId().equals(ri.getIngredientId()))
-                .findFirst().orElse(null);
+    public RecipeIngredientDetailDto toIngredientDetailDto(RecipeIngredient ri) {
+        return toIngredientDetailDto(ri, dictionary::ingredientName);
+    }
+
+    public TagDto toTagDto(RecipeTag rt) {
+        return toTagDto(rt, dictionary::tagName);
+    }
+
+    private RecipeIngredientDetailDto toIngredientDetailDto(RecipeIngredient ri, Function<Long, String> ingredientNames) {
         return RecipeIngredientDetailDto.builder()
                 .ingredientId(ri.getIngredientId())
-                .ingredientName(ingredient != null ? ingredient.getName() : null)
+                .ingredientName(ingredientNames.apply(ri.getIngredientId()))
                 .amount(ri.getAmount())
                 .build();
     }
 
-    public TagDto toTagDto(RecipeTag rt, List<Tag> tags) {
-        Tag tag = tags.stream()
-                .filter(t -> t.getId().equals(rt.getTagId()))
-                .findFirst().orElse(null);
+    private TagDto toTagDto(RecipeTag rt, Function<Long, String> tagNames) {
         return TagDto.builder()
-                .name(tag != null ? tag.getName() : null)
+                .name(tagNames.apply(rt.getTagId()))
                 .build();
     }
-}
\ No newline at end of file
+
+    // 배치 조회 결과는 이미 정렬되어 오므로 대부분 복사 없이 그대로 사용된다
+    private static boolean isOrderedByStepIndex(List<RecipeStep> steps) {
+        for (int i = 1; i < steps.size(); i++) {
+            if (STEP_ORDER.compare(steps.get(i - 1), steps.get(i)) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<RecipeStep> sortedByStepIndex(List<RecipeStep> steps) {
+        List<RecipeStep> sorted = new ArrayList<>(steps);
+        sorted.sort(STEP_ORDER);
+        return sorted;
+    }
+}
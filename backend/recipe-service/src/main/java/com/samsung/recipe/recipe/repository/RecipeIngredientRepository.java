@@ -1,13 +1,26 @@
 package com.samsung.recipe.recipe.repository;
 
 import com.samsung.recipe.recipe.entity.RecipeIngredient;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface RecipeIngredientRepository extends JpaRepository<RecipeIngredient, Long> {
     List<RecipeIngredient> findByRecipeId(Long recipeId);
+    
+    // 목록 조립용 조회 (수정하지 않으므로 dirty-checking 스냅샷 생략)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<RecipeIngredient> findByRecipeIdIn(List<Long> recipeIds);
-} 
\ No newline at end of file
+    
+    // 재료 → 레시피 색인 구축용 (ingredientId, recipeId) 스트림. 트랜잭션 안에서 소비해야 한다.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+    @Query("SELECT ri.ingredientId, ri.recipeId FROM RecipeIngredient ri ORDER BY ri.ingredientId, ri.recipeId")
+    Stream<Object[]> streamIngredientRecipePairs();
+} 
@@ -1,38 +1,133 @@
 package com.samsung.recipe.recipe.repository;
 
+import com.samsung.recipe.recipe.dto.RecipeSummaryDto;
 import com.samsung.recipe.recipe.entity.Recipe;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     
+    // 목록 조회는 모두 읽기 전용 힌트로 dirty-checking 스냅샷을 만들지 않는다 (findById는 updateRecipe가 읽은 엔티티를 고쳐 저장하므로 제외)
+    
+    // pg_trgm 검색 (recipe.search.mode=postgres). db/migrations/001_search_trgm.sql의 GIN 인덱스가 필요하다.
+    // :pattern 은 '%' + LIKE 이스케이프된 키워드 + '%'
+    String TRIGRAM_MATCHED = "WITH matched AS ("
+            + " SELECT r.id FROM recipes r WHERE r.title ILIKE :pattern OR r.description ILIKE :pattern"
+            + " UNION"
+            + " SELECT rt.recipe_id FROM recipe_tag rt JOIN tag t ON t.id = rt.tag_id WHERE t.name ILIKE :pattern"
+            + ") ";
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<Recipe> findByWriterId(String writerId);
     
+    // NDJSON 전체 스트리밍용 forward-only 커서. 트랜잭션 안에서 소비해야 한다.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT r FROM Recipe r ORDER BY r.id")
+    Stream<Recipe> streamAllOrderById();
+    
+    // id 순 배치 스캔 (검색 색인 구축용)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Recipe> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT r FROM Recipe r WHERE r.title ILIKE %:keyword% OR r.description ILIKE %:keyword%")
     List<Recipe> findByTitleOrDescriptionContainingIgnoreCase(@Param("keyword") String keyword);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(value = TRIGRAM_MATCHED
+            + "SELECT r.* FROM recipes r JOIN matched m ON m.id = r.id"
+            + " ORDER BY GREATEST(similarity(r.title, :keyword) * 2, word_similarity(:keyword, COALESCE(r.description, ''))) DESC,"
+            + " r.view_count DESC, r.id DESC"
+            + " LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Recipe> searchByTrigram(@Param("keyword") String keyword, @Param("pattern") String pattern,
+                                 @Param("limit") int limit, @Param("offset") long offset);
+    
+    @Query(value = TRIGRAM_MATCHED + "SELECT COUNT(*) FROM matched", nativeQuery = true)
+    long countByTrigram(@Param("pattern") String pattern);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT r FROM Recipe r WHERE r.difficulty = :difficulty")
     List<Recipe> findByDifficulty(@Param("difficulty") String difficulty);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT r FROM Recipe r WHERE r.cookingTime <= :maxTime")
     List<Recipe> findByCookingTimeLessThanEqual(@Param("maxTime") Integer maxTime);
     
     @Query("SELECT r FROM Recipe r WHERE r.servings >= :minServings AND r.servings <= :maxServings")
     List<Recipe> findByServingsBetween(@Param("minServings") Integer minServings, @Param("maxServings") Integer maxServings);
     
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     @Query("SELECT r FROM Recipe r ORDER BY r.createdAt DESC")
     Page<Recipe> findAllOrderByCreatedAtDesc(Pageable pageable);
     
+    // 키셋 페이지네이션: (정렬 키, id) 행 비교로 idx_recipes_created_at_id / idx_recipes_view_count_id 를 탄다
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(value = "SELECT * FROM recipes r WHERE (r.created_at, r.id) < (:createdAt, :id)"
+            + " ORDER BY r.created_at DESC, r.id DESC LIMIT :limit", nativeQuery = true)
+    List<Recipe> findLatestBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, @Param("limit") int limit);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(value = "SELECT * FROM recipes r WHERE (r.view_count, r.id) < (:viewCount, :id)"
+            + " ORDER BY r.view_count DESC, r.id DESC LIMIT :limit", nativeQuery = true)
+    List<Recipe> findTopBefore(@Param("viewCount") long viewCount, @Param("id") Long id, @Param("limit") int limit);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(value = "SELECT * FROM recipes r WHERE r.difficulty = :difficulty AND (r.created_at, r.id) < (:createdAt, :id)"
+            + " ORDER BY r.created_at DESC, r.id DESC LIMIT :limit", nativeQuery = true)
+    List<Recipe> findByDifficultyBefore(@Param("difficulty") String difficulty, @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id, @Param("limit") int limit);
+    
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query(value = "SELECT * FROM recipes r WHERE r.cooking_time <= :maxTime AND (r.created_at, r.id) < (:createdAt, :id)"
+            + " ORDER BY r.created_at DESC, r.id DESC LIMIT :limit", nativeQuery = true)
+    List<Recipe> findByCookingTimeBefore(@Param("maxTime") Integer maxTime, @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id, @Param("limit") int limit);
+    
+    long countByDifficulty(String difficulty);
+    
+    long countByCookingTimeLessThanEqual(Integer maxTime);
+    
+    // 카드 목록용 요약 projection: 엔티티를 만들지 않고 필요한 컬럼만 읽는다
+    @Query(value = "SELECT new com.samsung.recipe.recipe.dto.RecipeSummaryDto("
+            + "r.id, r.title, r.imageUrl, r.cookingTime, r.difficulty, r.viewCount)"
+            + " FROM Recipe r ORDER BY r.createdAt DESC",
+            countQuery = "SELECT COUNT(r) FROM Recipe r")
+    Page<RecipeSummaryDto> findSummariesOrderByCreatedAtDesc(Pageable pageable);
+    
+    @Query("SELECT new com.samsung.recipe.recipe.dto.RecipeSummaryDto("
+            + "r.id, r.title, r.imageUrl, r.cookingTime, r.difficulty, r.viewCount)"
+            + " FROM Recipe r ORDER BY r.viewCount DESC, r.id DESC")
+    List<RecipeSummaryDto> findTopSummaries(Pageable pageable);
+    
+    @Query("SELECT new com.samsung.recipe.recipe.dto.RecipeSummaryDto("
+            + "r.id, r.title, r.imageUrl, r.cookingTime, r.difficulty, r.viewCount)"
+            + " FROM Recipe r WHERE r.id IN :ids")
+    List<RecipeSummaryDto> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // 상세 ETag 계산용 버전 조회 (행이 없으면 빈 목록)
+    @Query("SELECT COALESCE(r.updatedAt, r.createdAt) FROM Recipe r WHERE r.id = :id")
+    List<LocalDateTime> findVersionById(@Param("id") Long id);
+    
     @Query("SELECT COUNT(r) FROM Recipe r WHERE r.writerId = :writerId")
     Long countByWriterId(@Param("writerId") String writerId);
     
-    @Query("SELECT r FROM Recipe r ORDER BY r.viewCount DESC, r.createdAt DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT r FROM Recipe r ORDER BY r.viewCount DESC, r.id DESC")
     List<Recipe> findTopRecipes(Pageable pageable);
 }
\ No newline at end of file
@@ -1,7 +1,10 @@
 package com.samsung.recipe.recipe.repository;
 
 import com.samsung.recipe.recipe.entity.RecipeTag;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,5 +12,8 @@ import java.util.List;
 @Repository
 public interface RecipeTagRepository extends JpaRepository<RecipeTag, Long> {
     List<RecipeTag> findByRecipeId(Long recipeId);
+    
+    // 목록 조립용 조회 (수정하지 않으므로 dirty-checking 스냅샷 생략)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<RecipeTag> findByRecipeIdIn(List<Long> recipeIds);
 } 
\ No newline at end of file
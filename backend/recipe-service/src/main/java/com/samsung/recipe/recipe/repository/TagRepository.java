@@ -2,8 +2,12 @@ package com.samsung.recipe.recipe.repository;
 
 import com.samsung.recipe.recipe.entity.Tag;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,4 +19,14 @@ public interface TagRepository extends JpaRepository<Tag, Long> {
     List<Tag> findByNameContainingIgnoreCase(String name);
     
     boolean existsByName(String name);
+    
+    List<Tag> findByNameIn(Collection<String> names);
+    
+    // 없는 이름만 한 번에 넣고 새로 생긴 (id, name)을 돌려준다. 이미 있거나 동시에 만들어진 이름은 건너뛴다.
+    // 쓰기 쿼리지만 @Modifying은 executeUpdate로 실행해 RETURNING 행을 받을 수 없으므로 붙이지 않는다.
+    // 대신 저장소 기본값(readOnly)으로 새 트랜잭션이 열리지 않도록 쓰기 트랜잭션을 명시한다
+    @Transactional
+    @Query(value = "INSERT INTO tag (name) SELECT unnest(CAST(:names AS text[])) ORDER BY 1 "
+            + "ON CONFLICT (name) DO NOTHING RETURNING id, name", nativeQuery = true)
+    List<Object[]> insertMissingNames(@Param("names") String[] names);
 } 
\ No newline at end of file
@@ -0,0 +1,282 @@
+package com.samsung.recipe.recipe.service;
+
+import com.samsung.recipe.recipe.config.SchedulingConfig;
+import com.samsung.recipe.recipe.event.RecipeChangedEvent;
+import com.samsung.recipe.recipe.repository.RecipeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 베스트 레시피 랭킹 (Redis sorted set).
+ * 점수는 view_count 정수부 + id 기반 소수부로, findTopRecipes / findTopBefore (베스트 커서)의
+ * ORDER BY view_count DESC, id DESC 와 같은 순서가 되도록 인코딩한다.
+ * 조회수 flush 때 ZINCRBY로 증분 갱신하고, 주기적으로 DB에서 다시 만들어 드리프트를 바로잡는다.
+ * 키가 사라지면 (Redis 재시작, 메모리 축출 등) 증분 갱신을 멈추고 DB 조회로 돌린 뒤 백그라운드에서 다시 만든다.
+ * 다시 만드는 동안 들어온 증분은 (다른 노드의 flush 포함) Redis의 재구성별 버퍼에도 쌓아 두었다가,
+ * 교체 직전에 새 랭킹에 더한 뒤 같은 스크립트 안에서 RENAME한다.
+ */
+@Component
+@Slf4j
+public class BestRecipeLeaderboard {
+
+    public static final String KEY = "recipes:best";
+
+    private static final int REBUILD_BATCH_SIZE = 1000;
+    // id(100억 미만)를 소수부로 내린다. 조회수가 커질수록 소수부 해상도는 줄지만 동률 정렬용으로는 충분하다
+    private static final double ID_SCALE = 1e10;
+
+    // 진행 중인 재구성의 증분 버퍼 키 → 만료 시각 (Redis 서버 시각, 초). 재구성 중 노드가 죽어도 만료되면 빠진다
+    private static final String REBUILD_BUFFERS = KEY + ":rebuilding";
+    private static final long REBUILD_BUFFER_TTL_SECONDS = 3600;
+
+    // 진행 중인 재구성 버퍼에 먼저 쌓는다 (키가 없어도). 그다음 키가 없으면 -1.
+    // ZINCRBY가 빈 키에 일부 레시피만 든 랭킹을 만들지 않도록 존재할 때만 갱신한다
+    // KEYS = 랭킹, 버퍼 목록. ARGV[1] = 버퍼 TTL, 이후 recipeId, delta 쌍
+    private static final RedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "local now = tonumber(redis.call('TIME')[1]) "
+            + "redis.call('ZREMRANGEBYSCORE', KEYS[2], '-inf', now) "
+            + "for _, buffer in ipairs(redis.call('ZRANGE', KEYS[2], 0, -1)) do "
+            + "  for i = 2, #ARGV, 2 do "
+            + "    redis.call('ZINCRBY', buffer, ARGV[i + 1], ARGV[i]) "
+            + "  end "
+            + "  redis.call('EXPIRE', buffer, ARGV[1]) "
+            + "end "
+            + "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end "
+            + "for i = 2, #ARGV, 2 do "
+            + "  redis.call('ZINCRBY', KEYS[1], ARGV[i + 1], ARGV[i]) "
+            + "end "
+            + "return (#ARGV - 1) / 2", Long.class);
+
+    // 재구성 버퍼 등록. KEYS[1] = 버퍼 목록, ARGV = 버퍼 키, TTL
+    private static final RedisScript<Long> REGISTER_BUFFER_SCRIPT = new DefaultRedisScript<>(
+            "local now = tonumber(redis.call('TIME')[1]) "
+            + "return redis.call('ZADD', KEYS[1], now + tonumber(ARGV[2]), ARGV[1])", Long.class);
+
+    // 버퍼를 등록 해제하고, 쌓인 증분을 새 랭킹에 있는 레시피에만 더한 뒤 교체한다. 되돌려 준 증분 수를 돌려준다
+    // KEYS = 랭킹, 새 랭킹, 버퍼, 버퍼 목록
+    private static final RedisScript<Long> SWAP_SCRIPT = new DefaultRedisScript<>(
+            "redis.call('ZREM', KEYS[4], KEYS[3]) "
+            + "local deltas = redis.call('ZRANGE', KEYS[3], 0, -1, 'WITHSCORES') "
+            + "for i = 1, #deltas, 2 do "
+            + "  if redis.call('ZSCORE', KEYS[2], deltas[i]) then "
+            + "    redis.call('ZINCRBY', KEYS[2], deltas[i + 1], deltas[i]) "
+            + "  end "
+            + "end "
+            + "redis.call('DEL', KEYS[3]) "
+            + "redis.call('RENAME', KEYS[2], KEYS[1]) "
+            + "return #deltas / 2", Long.class);
+
+    // 키가 없으면 -1. ARGV[1]=score, ARGV[2]=recipeId
+    private static final RedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return -1 end "
+            + "return redis.call('ZADD', KEYS[1], 'NX', ARGV[1], ARGV[2])", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final RecipeRepository recipeRepository;
+    private final Executor rebuildExecutor;
+
+    private volatile boolean ready;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    public BestRecipeLeaderboard(StringRedisTemplate stringRedisTemplate,
+                                 JdbcTemplate jdbcTemplate,
+                                 RecipeRepository recipeRepository,
+                                 @Qualifier("cacheRefreshExecutor") Executor rebuildExecutor) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.recipeRepository = recipeRepository;
+        this.rebuildExecutor = rebuildExecutor;
+    }
+
+    @EventListener(value = ApplicationReadyEvent.class, condition = SchedulingConfig.NOT_IMPORTING)
+    public void warmUp() {
+        try {
+            if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(KEY))) {
+                ready = true;
+                return;
+            }
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Failed to initialize best recipe leaderboard: {}", e.getMessage());
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 상위 limit개의 레시피 id (순위 순).
+     * 키가 사라졌으면 null을 돌려주고 (호출자는 DB로 조회) 백그라운드 재구성을 시작한다.
+     */
+    public List<Long> top(int limit) {
+        Set<String> members = stringRedisTemplate.opsForZSet().reverseRange(KEY, 0, limit - 1L);
+        // 결과가 모자라면 레시피 수가 적은 것인지 키가 없어진 것인지 확인한다
+        if ((members == null || members.size() < limit) && !Boolean.TRUE.equals(stringRedisTemplate.hasKey(KEY))) {
+            keyLost();
+            return null;
+        }
+        List<Long> ids = new ArrayList<>(members == null ? 0 : members.size());
+        if (members != null) {
+            for (String member : members) {
+                ids.add(Long.valueOf(member));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * DB에 반영된 조회수 증가분을 랭킹에도 반영한다 (ViewCountAccumulator flush 후 호출).
+     * 준비 전이라도 다시 만드는 중일 수 있으므로 (다른 노드 포함) 스크립트는 항상 실행해 버퍼에 남긴다.
+     */
+    public void incrementAll(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Object[] args = new Object[deltas.size() * 2 + 1];
+        args[0] = Long.toString(REBUILD_BUFFER_TTL_SECONDS);
+        int i = 1;
+        for (Map.Entry<Long, Long> entry : deltas.entrySet()) {
+            args[i++] = entry.getKey().toString();
+            args[i++] = entry.getValue().toString();
+        }
+        try {
+            Long applied = stringRedisTemplate.execute(INCREMENT_SCRIPT, List.of(KEY, REBUILD_BUFFERS), args);
+            // 준비 전에는 이미 재구성 중이거나 DB 조회로 돌고 있다
+            if (applied != null && applied < 0 && ready) {
+                keyLost();
+            }
+        } catch (Exception e) {
+            log.warn("Failed to update best recipe leaderboard: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (!ready || event.isRemote()) {
+            return;
+        }
+        try {
+            String member = event.getRecipeId().toString();
+            if (event.getType() == RecipeChangedEvent.Type.DELETED) {
+                stringRedisTemplate.opsForZSet().remove(KEY, member);
+            } else if (event.getType() == RecipeChangedEvent.Type.CREATED) {
+                recipeRepository.findById(event.getRecipeId()).ifPresent(recipe -> {
+                    double score = score(recipe.getViewCount() == null ? 0 : recipe.getViewCount(), recipe.getId());
+                    Long added = stringRedisTemplate.execute(ADD_SCRIPT, List.of(KEY), Double.toString(score), member);
+                    if (added != null && added < 0) {
+                        keyLost();
+                    }
+                });
+            }
+        } catch (Exception e) {
+            log.warn("Failed to apply {} to best recipe leaderboard: {}", event, e.getMessage());
+        }
+    }
+
+    /**
+     * 키가 사라진 것을 감지했을 때: 준비 상태를 내려 호출자가 DB로 조회하게 하고, 한 번만 백그라운드로 다시 만든다.
+     */
+    private void keyLost() {
+        ready = false;
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        log.warn("Best recipe leaderboard key {} is missing, rebuilding in background", KEY);
+        try {
+            rebuildExecutor.execute(() -> {
+                try {
+                    rebuild();
+                } catch (Exception e) {
+                    log.warn("Failed to rebuild best recipe leaderboard: {}", e.getMessage());
+                } finally {
+                    rebuilding.set(false);
+                }
+            });
+        } catch (Exception e) {
+            // 큐가 차 있으면 다음 감지나 주기적 재구성 때 다시 시도한다
+            rebuilding.set(false);
+            log.warn("Failed to schedule best recipe leaderboard rebuild: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * recipes 테이블에서 랭킹을 다시 만든다. 임시 키에 채운 뒤 RENAME으로 원자적으로 교체한다.
+     * SELECT 전에 증분 버퍼를 등록하므로, 스냅샷 이후에 커밋된 조회수는 교체 직전에 버퍼에서 더해진다.
+     * (SELECT 직전에 커밋됐지만 아직 ZINCRBY 전인 flush는 두 번 더해질 수 있다. 다음 재구성에서 바로잡힌다)
+     */
+    @Scheduled(fixedDelayString = "${recipe.best.rebuild-interval-ms:3600000}",
+            initialDelayString = "${recipe.best.rebuild-interval-ms:3600000}")
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        ZSetOperations<String, String> zSet = stringRedisTemplate.opsForZSet();
+        // 여러 노드가 동시에 다시 만들 수 있으므로 임시 키는 노드마다 다르게 둔다
+        String rebuildKey = KEY + ":rebuild:" + UUID.randomUUID();
+        String bufferKey = rebuildKey + ":deltas";
+        stringRedisTemplate.execute(REGISTER_BUFFER_SCRIPT, List.of(REBUILD_BUFFERS),
+                bufferKey, Long.toString(REBUILD_BUFFER_TTL_SECONDS));
+        try {
+            rebuild(zSet, rebuildKey, bufferKey, started);
+        } finally {
+            // 교체했으면 이미 비어 있다. 실패했으면 버퍼와 임시 키를 치운다
+            zSet.remove(REBUILD_BUFFERS, bufferKey);
+            stringRedisTemplate.delete(List.of(rebuildKey, bufferKey));
+        }
+    }
+
+    private void rebuild(ZSetOperations<String, String> zSet, String rebuildKey, String bufferKey, long started) {
+        Set<ZSetOperations.TypedTuple<String>> batch = new HashSet<>();
+        int[] total = {0};
+        jdbcTemplate.query("SELECT id, view_count FROM recipes", rs -> {
+            batch.add(new DefaultTypedTuple<>(String.valueOf(rs.getLong(1)), score(rs.getLong(2), rs.getLong(1))));
+            if (batch.size() == REBUILD_BATCH_SIZE) {
+                zSet.add(rebuildKey, batch);
+                total[0] += batch.size();
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty()) {
+            zSet.add(rebuildKey, batch);
+            total[0] += batch.size();
+        }
+
+        if (total[0] == 0) {
+            // 빈 카탈로그는 키가 없으므로 준비 상태로 두지 않는다 (호출자는 DB로 조회)
+            stringRedisTemplate.delete(KEY);
+            ready = false;
+        } else {
+            Long replayed = stringRedisTemplate.execute(SWAP_SCRIPT, List.of(KEY, rebuildKey, bufferKey, REBUILD_BUFFERS));
+            ready = true;
+            log.debug("Replayed {} view count deltas received during the leaderboard rebuild", replayed);
+        }
+        log.info("Best recipe leaderboard rebuilt: {} recipes in {} ms", total[0], System.currentTimeMillis() - started);
+    }
+
+    static double score(long viewCount, long id) {
+        return viewCount + id / ID_SCALE;
+    }
+}
@@ -0,0 +1,98 @@
+package com.samsung.recipe.recipe.service;
+
+import com.samsung.recipe.recipe.config.SchedulingConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 레시피 카탈로그 버전 (목록 응답의 weak ETag 용).
+ * 레시피가 생성/수정/삭제될 때마다 Redis 카운터를 INCR 하고, 새 값은 RecipeChangeRelay 메시지에 실려
+ * 다른 노드로 전달된다. 요청 처리 시에는 로컬 값만 읽으므로 추가 비용이 없다.
+ * pub/sub 메시지 유실에 대비해 주기적으로 Redis 값과 맞춘다.
+ * 노드는 큰 값만 받아들이므로 Redis 카운터는 되돌아가면 안 된다. 키가 없어지면 Redis 시각(마이크로초)에서
+ * 다시 시작하고, 예전 스냅샷으로 복구되어 값이 작아졌으면 노드가 아는 값으로 끌어올린다.
+ * 그래서 초기화 후에도 이전에 발급한 ETag와 같은 버전이 다시 나오지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogVersion {
+
+    public static final String KEY = "recipes:catalog:version";
+
+    // 아직 알 수 없음 (Redis 장애 등): 목록 ETag를 발급하지 않는다
+    public static final long UNKNOWN = -1;
+
+    // ARGV[1]=이 노드가 아는 버전 (모르면 -1), ARGV[2]=증가량 (bump 1, sync 0). 결과 버전을 반환한다
+    private static final RedisScript<Long> ADVANCE_SCRIPT = new DefaultRedisScript<>(
+            "local v = tonumber(redis.call('GET', KEYS[1])) "
+            + "local stored = v "
+            + "if not v then local t = redis.call('TIME'); v = tonumber(t[1]) * 1000000 + tonumber(t[2]) end "
+            + "local known = tonumber(ARGV[1]) "
+            + "if v < known then v = known end "
+            + "v = v + tonumber(ARGV[2]) "
+            + "if v ~= stored then redis.call('SET', KEYS[1], string.format('%d', v)) end "
+            + "return v", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private volatile long version = UNKNOWN;
+
+    public long current() {
+        return version;
+    }
+
+    /**
+     * 로컬 변경 커밋 후 호출. 증가된 버전을 반환한다 (실패 시 UNKNOWN).
+     */
+    public long bump() {
+        try {
+            Long next = advance(1);
+            if (next != null) {
+                observe(next);
+                return next;
+            }
+        } catch (Exception e) {
+            log.warn("Failed to bump catalog version: {}", e.getMessage());
+        }
+        // 버전을 올리지 못하면 이전 ETag가 계속 유효한 것처럼 보이지 않도록 목록 ETag를 끈다
+        version = UNKNOWN;
+        return UNKNOWN;
+    }
+
+    /**
+     * 다른 노드가 올린 버전을 반영한다. 순서가 뒤바뀐 메시지로 되돌아가지 않도록 큰 값만 취한다.
+     */
+    public synchronized void observe(long observed) {
+        if (observed > version) {
+            version = observed;
+        }
+    }
+
+    @EventListener(value = ApplicationReadyEvent.class, condition = SchedulingConfig.NOT_IMPORTING)
+    @Scheduled(fixedDelayString = "${recipe.http.catalog-version-sync-ms:30000}")
+    public void sync() {
+        try {
+            Long value = advance(0);
+            if (value != null) {
+                observe(value);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to read catalog version: {}", e.getMessage());
+        }
+    }
+
+    private Long advance(long increment) {
+        return stringRedisTemplate.execute(ADVANCE_SCRIPT, List.of(KEY),
+                Long.toString(version), Long.toString(increment));
+    }
+}
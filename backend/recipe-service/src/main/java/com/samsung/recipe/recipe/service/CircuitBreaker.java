@@ -0,0 +1,145 @@
+package com.samsung.recipe.recipe.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+
+/**
+ * 최근 windowSize번 호출의 실패율로 여는 최소한의 서킷 브레이커.
+ * OPEN 동안은 호출을 바로 거절하고, openDuration이 지나면 HALF_OPEN에서 시험 호출 하나만 통과시켜
+ * 성공하면 닫고 실패하면 다시 연다.
+ *
+ * 사용: if (!breaker.tryAcquire()) { 대체 처리 } → 호출 후 onSuccess() 또는 onFailure().
+ * 메트릭: recipe.circuit.state{name} (0=CLOSED, 1=HALF_OPEN, 2=OPEN)
+ */
+@Slf4j
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final String name;
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+
+    // 최근 호출 결과 링 버퍼 (true = 실패)
+    private final boolean[] outcomes;
+    private int position;
+    private int recorded;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, double failureRateThreshold,
+                          Duration openDuration, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.windowSize = windowSize;
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.outcomes = new boolean[windowSize];
+        Gauge.builder("recipe.circuit.state", this, breaker -> breaker.state().ordinal())
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * 호출해도 되는지. HALF_OPEN에서는 시험 호출 하나만 허용한다.
+     */
+    public synchronized boolean tryAcquire() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.nanoTime() - openedAt < openNanos) {
+                    return false;
+                }
+                transition(State.HALF_OPEN);
+                // fall through
+            case HALF_OPEN:
+            default:
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+                return true;
+        }
+    }
+
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            reset();
+            transition(State.CLOSED);
+            return;
+        }
+        record(false);
+    }
+
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minimumCalls
+                && (double) failures / recorded >= failureRateThreshold) {
+            open();
+        }
+    }
+
+    /**
+     * 결과와 무관하게 허용받은 호출을 돌려준다 (호출 전에 다른 이유로 포기한 경우).
+     */
+    public synchronized void release() {
+        if (state == State.HALF_OPEN) {
+            trialInFlight = false;
+        }
+    }
+
+    private void record(boolean failed) {
+        if (recorded == windowSize) {
+            if (outcomes[position]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[position] = failed;
+        if (failed) {
+            failures++;
+        }
+        position = (position + 1) % windowSize;
+    }
+
+    private void open() {
+        openedAt = System.nanoTime();
+        reset();
+        transition(State.OPEN);
+    }
+
+    private void reset() {
+        position = 0;
+        recorded = 0;
+        failures = 0;
+    }
+
+    private void transition(State next) {
+        if (state != next) {
+            log.warn("Circuit {} {} -> {}", name, state, next);
+            state = next;
+        }
+    }
+}
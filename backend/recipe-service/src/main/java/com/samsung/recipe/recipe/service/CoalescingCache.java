@@ -0,0 +1,218 @@
+package com.samsung.recipe.recipe.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Weigher;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 키 단위 single-flight 로딩을 하는 로컬 캐시.
+ * 같은 키의 동시 미스는 먼저 온 요청 하나만 loader를 실행하고 나머지는 그 결과를 기다린다.
+ * refreshAfterWrite를 주면 그 시간이 지난 항목은 이전 값을 그대로 돌려주면서 (stale-while-revalidate)
+ * 백그라운드에서 한 번만 다시 읽는다. expireAfterWrite가 지나면 항목은 완전히 사라진다.
+ *
+ * 메트릭: recipe.cache.loads{cache, type=originating|coalesced|refresh}, recipe.cache.stale.served{cache}
+ * 및 Caffeine 기본 통계 (cache.gets 등).
+ */
+@Slf4j
+public final class CoalescingCache<K, V> {
+
+    private final String name;
+    private final Cache<K, Entry<V>> cache;
+    private final long refreshAfterNanos;
+    private final Executor refreshExecutor;
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Set<K> refreshing = ConcurrentHashMap.newKeySet();
+    // 로딩 중에 무효화가 일어나면 그 결과는 저장하지 않는다
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private final Counter originatingLoads;
+    private final Counter coalescedLoads;
+    private final Counter refreshLoads;
+    private final Counter staleServed;
+
+    /**
+     * @param maximum          weigher가 있으면 최대 가중치, 없으면 최대 항목 수
+     * @param refreshAfterWrite null 또는 0이면 stale-while-revalidate를 쓰지 않는다
+     */
+    public CoalescingCache(String name, long maximum, Weigher<K, V> weigher,
+                           Duration expireAfterWrite, Duration refreshAfterWrite,
+                           Executor refreshExecutor, MeterRegistry meterRegistry) {
+        this.name = name;
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats();
+        if (weigher != null) {
+            builder.maximumWeight(maximum);
+            this.cache = builder.weigher((K key, Entry<V> entry) -> weigher.weigh(key, entry.value())).build();
+        } else {
+            builder.maximumSize(maximum);
+            this.cache = builder.build();
+        }
+        this.refreshAfterNanos = refreshAfterWrite == null ? 0 : refreshAfterWrite.toNanos();
+        this.refreshExecutor = refreshExecutor;
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, name);
+        this.originatingLoads = loadCounter(meterRegistry, "originating");
+        this.coalescedLoads = loadCounter(meterRegistry, "coalesced");
+        this.refreshLoads = loadCounter(meterRegistry, "refresh");
+        this.staleServed = Counter.builder("recipe.cache.stale.served")
+                .tag("cache", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * loader가 null을 반환하면 캐시하지 않고 null을 돌려준다.
+     */
+    public V get(K key, Function<K, V> loader) {
+        return get(key, loader, loader);
+    }
+
+    /**
+     * 미스는 loader로, refresh-after-write 이후의 백그라운드 갱신은 reloader로 읽는다
+     * (loader가 다른 캐시를 먼저 보는 경우 갱신은 원본으로 바로 가야 하므로).
+     */
+    public V get(K key, Function<K, V> loader, Function<K, V> reloader) {
+        Entry<V> entry = cache.getIfPresent(key);
+        if (entry != null) {
+            if (refreshAfterNanos > 0 && System.nanoTime() - entry.loadedAt() > refreshAfterNanos) {
+                staleServed.increment();
+                refreshAsync(key, reloader);
+            }
+            return entry.value();
+        }
+        return load(key, loader, originatingLoads);
+    }
+
+    /**
+     * 캐시 밖에서 미리 읽은 값을 넣는다. 이미 값이 있으면 그 값을 돌려주고,
+     * generation을 잰 뒤 무효화가 있었으면 저장하지 않고 value를 그대로 돌려준다.
+     */
+    public V putIfAbsent(K key, V value, long generation) {
+        Entry<V> existing = cache.asMap().get(key);
+        if (existing != null) {
+            return existing.value();
+        }
+        if (generation == invalidations.get()) {
+            store(key, value, generation);
+        }
+        return value;
+    }
+
+    /**
+     * 무효화 세대. 캐시 밖에서 값을 읽기 전에 재 두었다가 putIfAbsent나 다른 캐시에 쓰기 전에 비교한다.
+     */
+    public long generation() {
+        return invalidations.get();
+    }
+
+    /**
+     * 로딩이나 갱신 없이 현재 값만 확인한다 (메트릭에도 잡히지 않는다).
+     */
+    public V peek(K key) {
+        Entry<V> entry = cache.asMap().get(key);
+        return entry == null ? null : entry.value();
+    }
+
+    public void invalidate(K key) {
+        invalidations.incrementAndGet();
+        cache.invalidate(key);
+    }
+
+    /**
+     * 값이 조건에 맞는 항목만 지운다 (목록 캐시에서 특정 레시피가 들어 있는 목록만 비울 때).
+     */
+    public void invalidateIf(Predicate<V> predicate) {
+        invalidations.incrementAndGet();
+        cache.asMap().values().removeIf(entry -> predicate.test(entry.value()));
+    }
+
+    public void invalidateAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private V load(K key, Function<K, V> loader, Counter originCounter) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalescedLoads.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+            }
+        }
+
+        originCounter.increment();
+        try {
+            long generation = invalidations.get();
+            V value = loader.apply(key);
+            if (value != null && generation == invalidations.get()) {
+                store(key, value, generation);
+            }
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    // 넣은 뒤 세대를 다시 본다. 확인과 저장 사이에 무효화가 지나갔으면 방금 넣은 항목을 되돌린다
+    private void store(K key, V value, long generation) {
+        Entry<V> entry = new Entry<>(value, System.nanoTime());
+        cache.put(key, entry);
+        if (generation != invalidations.get()) {
+            cache.asMap().remove(key, entry);
+        }
+    }
+
+    private void refreshAsync(K key, Function<K, V> loader) {
+        if (!refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(key, loader, refreshLoads);
+                } catch (Exception e) {
+                    // 갱신에 실패하면 만료될 때까지 이전 값을 계속 제공한다
+                    log.warn("Background refresh failed for {} cache key {}: {}", name, key, e.getMessage());
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+        }
+    }
+
+    private Counter loadCounter(MeterRegistry meterRegistry, String type) {
+        return Counter.builder("recipe.cache.loads")
+                .tag("cache", name)
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
@@ -1,27 +1,63 @@
 package com.samsung.recipe.recipe.service;
 
-import com.google.cloud.storage.Blob;
+import com.google.cloud.WriteChannel;
 import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.BlobInfo;
 import com.google.cloud.storage.Storage;
 import com.samsung.recipe.recipe.config.StorageConfig;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.UUID;
-
+import java.util.concurrent.Semaphore;
+
+/**
+ * 이미지 업로드/삭제 (GCP Cloud Storage).
+ * 업로드는 파일 전체를 힙에 올리지 않고 multipart 파트(작으면 메모리, 크면 임시 파일)에서
+ * 고정 크기 버퍼로 읽어 Storage WriteChannel에 흘려 보낸다. 동시에 진행하는 업로드 수는 세마포어로 제한하며,
+ * 가득 차면 기다리지 않고 TooManyUploadsException으로 바로 거절한다 (컨트롤러에서 429).
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class ImageService {
 
+    private static final long MAX_FILE_SIZE = 10 * 1024 * 1024;
+
     private final StorageConfig storageConfig;
     private final Storage gcpStorage;
+    private final int maxConcurrent;
+    private final Semaphore uploadPermits;
+    private final int bufferSize;
+    private final int chunkSize;
+    private final Counter rejectedUploads;
+
+    public ImageService(StorageConfig storageConfig,
+                        Storage gcpStorage,
+                        MeterRegistry meterRegistry,
+                        @Value("${recipe.image-upload.max-concurrent:8}") int maxConcurrent,
+                        @Value("${recipe.image-upload.buffer-size:64KB}") DataSize bufferSize,
+                        @Value("${recipe.image-upload.chunk-size:1MB}") DataSize chunkSize) {
+        this.storageConfig = storageConfig;
+        this.gcpStorage = gcpStorage;
+        this.maxConcurrent = maxConcurrent;
+        this.uploadPermits = new Semaphore(maxConcurrent);
+        this.bufferSize = (int) bufferSize.toBytes();
+        this.chunkSize = (int) chunkSize.toBytes();
+        Gauge.builder("recipe.image.uploads.active", uploadPermits, permits -> maxConcurrent - permits.availablePermits())
+                .register(meterRegistry);
+        this.rejectedUploads = Counter.builder("recipe.image.uploads.rejected").register(meterRegistry);
+    }
 
     public String uploadImage(MultipartFile file) throws IOException {
         log.info("Starting image upload process");
@@ -32,58 +68,92 @@ public class ImageService {
             throw new IllegalArgumentException("업로드할 파일이 비어있습니다.");
         }
 
-        // 이미지 파일인지 확인
-        String contentType = file.getContentType();
-        if (contentType == null || !contentType.startsWith("image/")) {
-            log.error("Invalid content type: {}", contentType);
-            throw new IllegalArgumentException("이미지 파일만 업로드 가능합니다.");
-        }
-
         // 파일 크기 확인 (10MB 제한)
-        if (file.getSize() > 10 * 1024 * 1024) {
+        if (file.getSize() > MAX_FILE_SIZE) {
             log.error("File size too large: {} bytes", file.getSize());
             throw new IllegalArgumentException("파일 크기는 10MB를 초과할 수 없습니다.");
         }
 
-        // 고유한 파일명 생성
-        String originalFilename = file.getOriginalFilename();
-        String extension = "";
-        if (originalFilename != null && originalFilename.contains(".")) {
-            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        if (!uploadPermits.tryAcquire()) {
+            rejectedUploads.increment();
+            log.warn("Rejecting image upload: {} uploads already in progress", maxConcurrent);
+            throw new TooManyUploadsException("동시에 업로드할 수 있는 이미지 수를 초과했습니다. 잠시 후 다시 시도해주세요.");
         }
+        try (InputStream in = file.getInputStream()) {
+            // 첫 버퍼의 매직 바이트로 형식을 판단한다 (클라이언트가 보낸 Content-Type과 확장자는 믿지 않는다)
+            byte[] buffer = new byte[bufferSize];
+            int read = in.readNBytes(buffer, 0, buffer.length);
+            ImageType type = ImageType.detect(buffer, read);
+            if (type == null) {
+                log.error("Unrecognized image content (declared content type: {})", file.getContentType());
+                throw new IllegalArgumentException("이미지 파일만 업로드 가능합니다.");
+            }
+
+            // 고유한 파일명 생성
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+            String uniqueId = UUID.randomUUID().toString().substring(0, 8);
+            String filename = storageConfig.getGcp().getFolderName() + "/" + timestamp + "_" + uniqueId + type.extension;
+
+            log.info("Generated filename: {}", filename);
+            log.info("Bucket name: {}", storageConfig.getGcp().getBucketName());
 
-        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String uniqueId = UUID.randomUUID().toString().substring(0, 8);
-        String filename = storageConfig.getGcp().getFolderName() + "/" + timestamp + "_" + uniqueId + extension;
+            upload(filename, type.contentType, in, buffer, read);
 
-        log.info("Generated filename: {}", filename);
-        log.info("Bucket name: {}", storageConfig.getGcp().getBucketName());
-        log.info("Project ID: {}", storageConfig.getGcp().getProjectId());
+            // 공개 URL 반환
+            String publicUrl = "https://storage.googleapis.com/" + storageConfig.getGcp().getBucketName() + "/" + filename;
+            log.info("Image uploaded to GCP Storage: {}", publicUrl);
+            
+            return publicUrl;
+        } finally {
+            uploadPermits.release();
+        }
+    }
 
+    // 이미 읽은 첫 버퍼부터 시작해 같은 버퍼로 끝까지 옮긴다. 힙 사용량은 버퍼 + WriteChannel 청크 크기로 고정된다
+    private void upload(String filename, String contentType, InputStream in, byte[] buffer, int firstRead) throws IOException {
         try {
-            // GCP Cloud Storage에 업로드
             BlobId blobId = BlobId.of(storageConfig.getGcp().getBucketName(), filename);
             BlobInfo blobInfo = BlobInfo.newBuilder(blobId)
                     .setContentType(contentType)
                     .build();
 
             log.info("Attempting to upload to GCP Storage...");
-            Blob blob = gcpStorage.create(blobInfo, file.getBytes());
-
-            // 공개 URL 반환
-            String publicUrl = "https://storage.googleapis.com/" + storageConfig.getGcp().getBucketName() + "/" + filename;
-            log.info("Image uploaded to GCP Storage: {}", publicUrl);
-            
-            return publicUrl;
+            WriteChannel writer = gcpStorage.writer(blobInfo);
+            writer.setChunkSize(chunkSize);
+
+            try {
+                long total = 0;
+                int read = firstRead;
+                while (read > 0) {
+                    total += read;
+                    if (total > MAX_FILE_SIZE) {
+                        throw new IllegalArgumentException("파일 크기는 10MB를 초과할 수 없습니다.");
+                    }
+                    ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                    while (chunk.hasRemaining()) {
+                        writer.write(chunk);
+                    }
+                    read = in.read(buffer);
+                }
+            } catch (IOException | RuntimeException e) {
+                // 크기 초과든 읽기/쓰기 실패든 close하면 그때까지 보낸 부분이 잘린 객체로 확정되므로
+                // 닫지 않고 버린다 (미완료 resumable 세션은 GCS가 정리한다)
+                log.warn("Abandoning upload of {}: {}", filename, e.getMessage());
+                throw e;
+            }
+            writer.close();
 
+        } catch (IllegalArgumentException e) {
+            throw e;
         } catch (Exception e) {
             log.error("Failed to upload image to GCP Storage: {}", e.getMessage());
             log.error("Exception details:", e);
             
             // GCP 인증 관련 오류인지 확인
-            if (e.getMessage().contains("authentication") || e.getMessage().contains("credentials")) {
+            String message = String.valueOf(e.getMessage());
+            if (message.contains("authentication") || message.contains("credentials")) {
                 throw new IOException("GCP 인증 실패. 서비스 계정 키를 확인해주세요: " + e.getMessage());
-            } else if (e.getMessage().contains("bucket") || e.getMessage().contains("not found")) {
+            } else if (message.contains("bucket") || message.contains("not found")) {
                 throw new IOException("GCP Storage 버킷을 찾을 수 없습니다. 버킷명을 확인해주세요: " + e.getMessage());
             } else {
                 throw new IOException("GCP Storage 업로드 실패: " + e.getMessage());
@@ -116,4 +186,60 @@ public class ImageService {
             log.error("Failed to delete image from GCP Storage: {}", e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * 업로드 가능한 이미지 형식. 파일 앞부분의 시그니처로 판단한다.
+     */
+    enum ImageType {
+        JPEG("image/jpeg", ".jpg"),
+        PNG("image/png", ".png"),
+        GIF("image/gif", ".gif"),
+        WEBP("image/webp", ".webp");
+
+        private final String contentType;
+        private final String extension;
+
+        ImageType(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        static ImageType detect(byte[] head, int length) {
+            if (startsWith(head, length, 0, 0xFF, 0xD8, 0xFF)) {
+                return JPEG;
+            }
+            if (startsWith(head, length, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+                return PNG;
+            }
+            if (startsWith(head, length, 0, 'G', 'I', 'F', '8') && length >= 6
+                    && (head[4] == '7' || head[4] == '9') && head[5] == 'a') {
+                return GIF;
+            }
+            if (startsWith(head, length, 0, 'R', 'I', 'F', 'F') && startsWith(head, length, 8, 'W', 'E', 'B', 'P')) {
+                return WEBP;
+            }
+            return null;
+        }
+
+        private static boolean startsWith(byte[] head, int length, int offset, int... signature) {
+            if (length < offset + signature.length) {
+                return false;
+            }
+            for (int i = 0; i < signature.length; i++) {
+                if ((head[offset + i] & 0xFF) != signature[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 동시 업로드 상한에 걸려 업로드하지 않은 경우.
+     */
+    public static class TooManyUploadsException extends RuntimeException {
+        public TooManyUploadsException(String message) {
+            super(message);
+        }
+    }
+}
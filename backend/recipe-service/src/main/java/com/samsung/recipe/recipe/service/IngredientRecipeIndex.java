@@ -0,0 +1,251 @@
+package com.samsung.recipe.recipe.service;
+
+import com.samsung.recipe.recipe.config.SchedulingConfig;
+import com.samsung.recipe.recipe.entity.RecipeIngredient;
+import com.samsung.recipe.recipe.event.RecipeChangedEvent;
+import com.samsung.recipe.recipe.repository.RecipeIngredientRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * 재료 → 레시피 역색인 (posting list).
+ * recipe_ingredient 테이블에서 한 번 구축하고 레시피 생성/수정/삭제 이벤트로 증분 갱신한다.
+ * posting list는 정렬된 long[]이며 갱신 시 재료 단위로 copy-on-write 된다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IngredientRecipeIndex {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final RecipeIngredientRepository recipeIngredientRepository;
+    private final IngredientTagDictionary dictionary;
+
+    // ingredientId → 정렬된 recipeId 목록
+    private final Map<Long, long[]> postings = new ConcurrentHashMap<>();
+    // recipeId → 정렬된 ingredientId 목록 (삭제/수정 시 역참조용)
+    private final Map<Long, long[]> recipeIngredients = new ConcurrentHashMap<>();
+
+    private volatile boolean built;
+
+    @EventListener(value = ApplicationReadyEvent.class, condition = SchedulingConfig.NOT_IMPORTING)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        try {
+            ensureBuilt();
+        } catch (Exception e) {
+            log.warn("Failed to build ingredient index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 모든 검색어를 만족하는 (AND) 레시피 id를 최신순(id 내림차순)으로 반환한다.
+     * 각 검색어는 재료 이름의 부분 문자열로 매칭되며, 검색어 하나에 여러 재료가 걸리면 합집합을 취한다.
+     * 호출 측 트랜잭션 안에서 호출해야 한다 (최초 구축 시 스트리밍 조회).
+     */
+    public long[] search(List<String> terms) {
+        ensureBuilt();
+
+        long[] result = null;
+        for (String term : terms) {
+            long[] matches = unionFor(term);
+            result = result == null ? matches : intersect(result, matches);
+            if (result.length == 0) {
+                return EMPTY;
+            }
+        }
+        if (result == null) {
+            return EMPTY;
+        }
+
+        long[] descending = new long[result.length];
+        for (int i = 0; i < result.length; i++) {
+            descending[i] = result[result.length - 1 - i];
+        }
+        return descending;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (!built) {
+            return;
+        }
+        Long recipeId = event.getRecipeId();
+        if (event.getType() == RecipeChangedEvent.Type.DELETED) {
+            reindex(recipeId, EMPTY);
+            return;
+        }
+        long[] ingredientIds = recipeIngredientRepository.findByRecipeId(recipeId).stream()
+                .mapToLong(RecipeIngredient::getIngredientId)
+                .distinct()
+                .sorted()
+                .toArray();
+        reindex(recipeId, ingredientIds);
+    }
+
+    private long[] unionFor(String term) {
+        List<Long> ingredientIds = dictionary.ingredientIdsContaining(term);
+        if (ingredientIds.isEmpty()) {
+            return EMPTY;
+        }
+        if (ingredientIds.size() == 1) {
+            return postings.getOrDefault(ingredientIds.get(0), EMPTY);
+        }
+
+        int total = 0;
+        for (Long ingredientId : ingredientIds) {
+            total += postings.getOrDefault(ingredientId, EMPTY).length;
+        }
+        long[] merged = new long[total];
+        int pos = 0;
+        for (Long ingredientId : ingredientIds) {
+            long[] list = postings.getOrDefault(ingredientId, EMPTY);
+            System.arraycopy(list, 0, merged, pos, list.length);
+            pos += list.length;
+        }
+        Arrays.sort(merged);
+        return dedupe(merged);
+    }
+
+    private void ensureBuilt() {
+        if (built) return;
+        synchronized (this) {
+            if (built) return;
+            long started = System.currentTimeMillis();
+
+            // (ingredientId, recipeId) 정렬 순서로 스트리밍하며 posting list를 채운다
+            Map<Long, LongList> byRecipe = new HashMap<>();
+            try (Stream<Object[]> rows = recipeIngredientRepository.streamIngredientRecipePairs()) {
+                Iterator<Object[]> it = rows.iterator();
+                Long currentIngredient = null;
+                LongList current = new LongList();
+                while (it.hasNext()) {
+                    Object[] row = it.next();
+                    Long ingredientId = (Long) row[0];
+                    long recipeId = (Long) row[1];
+                    if (!ingredientId.equals(currentIngredient)) {
+                        if (currentIngredient != null) {
+                            postings.put(currentIngredient, dedupe(current.toArray()));
+                        }
+                        currentIngredient = ingredientId;
+                        current = new LongList();
+                    }
+                    current.add(recipeId);
+                    byRecipe.computeIfAbsent(recipeId, k -> new LongList()).add(ingredientId);
+                }
+                if (currentIngredient != null) {
+                    postings.put(currentIngredient, dedupe(current.toArray()));
+                }
+            }
+            for (Map.Entry<Long, LongList> entry : byRecipe.entrySet()) {
+                long[] ids = entry.getValue().toArray();
+                Arrays.sort(ids);
+                recipeIngredients.put(entry.getKey(), dedupe(ids));
+            }
+
+            built = true;
+            log.info("Ingredient index built: {} ingredients, {} recipes in {} ms",
+                    postings.size(), recipeIngredients.size(), System.currentTimeMillis() - started);
+        }
+    }
+
+    private void reindex(Long recipeId, long[] newIngredientIds) {
+        long[] oldIngredientIds = newIngredientIds.length == 0
+                ? recipeIngredients.remove(recipeId)
+                : recipeIngredients.put(recipeId, newIngredientIds);
+        if (oldIngredientIds == null) {
+            oldIngredientIds = EMPTY;
+        }
+
+        for (long ingredientId : oldIngredientIds) {
+            if (Arrays.binarySearch(newIngredientIds, ingredientId) < 0) {
+                postings.computeIfPresent(ingredientId, (k, list) -> {
+                    long[] removed = remove(list, recipeId);
+                    return removed.length == 0 ? null : removed;
+                });
+            }
+        }
+        for (long ingredientId : newIngredientIds) {
+            if (Arrays.binarySearch(oldIngredientIds, ingredientId) < 0) {
+                postings.merge(ingredientId, new long[]{recipeId}, (list, single) -> insert(list, recipeId));
+            }
+        }
+    }
+
+    static long[] intersect(long[] a, long[] b) {
+        long[] small = a.length <= b.length ? a : b;
+        long[] large = small == a ? b : a;
+        long[] out = new long[small.length];
+        int n = 0;
+        for (long value : small) {
+            if (Arrays.binarySearch(large, value) >= 0) {
+                out[n++] = value;
+            }
+        }
+        return n == out.length ? out : Arrays.copyOf(out, n);
+    }
+
+    private static long[] insert(long[] sorted, long value) {
+        int idx = Arrays.binarySearch(sorted, value);
+        if (idx >= 0) return sorted;
+        int at = -idx - 1;
+        long[] out = new long[sorted.length + 1];
+        System.arraycopy(sorted, 0, out, 0, at);
+        out[at] = value;
+        System.arraycopy(sorted, at, out, at + 1, sorted.length - at);
+        return out;
+    }
+
+    private static long[] remove(long[] sorted, long value) {
+        int idx = Arrays.binarySearch(sorted, value);
+        if (idx < 0) return sorted;
+        long[] out = new long[sorted.length - 1];
+        System.arraycopy(sorted, 0, out, 0, idx);
+        System.arraycopy(sorted, idx + 1, out, idx, sorted.length - idx - 1);
+        return out;
+    }
+
+    private static long[] dedupe(long[] sorted) {
+        if (sorted.length < 2) return sorted;
+        int n = 1;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i] != sorted[n - 1]) {
+                sorted[n++] = sorted[i];
+            }
+        }
+        return n == sorted.length ? sorted : Arrays.copyOf(sorted, n);
+    }
+
+    // 박싱 없이 long을 모으는 최소한의 가변 배열
+    private static final class LongList {
+        private long[] values = new long[8];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
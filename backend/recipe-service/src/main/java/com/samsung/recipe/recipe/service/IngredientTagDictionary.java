@@ -0,0 +1,324 @@
+package com.samsung.recipe.recipe.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.samsung.recipe.recipe.config.SchedulingConfig;
+import com.samsung.recipe.recipe.entity.Ingredient;
+import com.samsung.recipe.recipe.entity.Tag;
+import com.samsung.recipe.recipe.repository.IngredientRepository;
+import com.samsung.recipe.recipe.repository.TagRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 재료/태그의 id ↔ name 사전 (프로세스 로컬).
+ * 최초 1회 전체 로드 후, 새 이름이 생기면 커밋 시점에 증분 반영하고
+ * Redis pub/sub으로 다른 노드에도 전파한다. 사전에 없는 키는 DB에서 단건 조회해 채운다.
+ * DB에도 없던 키는 miss-ttl 동안 기억해 같은 키로 반복 조회해도 매번 DB에 가지 않는다.
+ * 그 키가 사전에 들어오면 (생성 커밋, 다른 노드의 전파) 기억을 바로 지운다.
+ */
+@Component
+@Slf4j
+public class IngredientTagDictionary implements MessageListener {
+
+    public static final String TOPIC = "recipe:dictionary";
+
+    private static final String INGREDIENT = "I";
+    private static final String TAG = "T";
+
+    private static final long MAX_MISSES = 10_000;
+
+    private final IngredientRepository ingredientRepository;
+    private final TagRepository tagRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final Map<Long, String> ingredientNames = new ConcurrentHashMap<>();
+    private final Map<String, Long> ingredientIds = new ConcurrentHashMap<>();
+    private final Map<Long, String> tagNames = new ConcurrentHashMap<>();
+    private final Map<String, Long> tagIds = new ConcurrentHashMap<>();
+
+    // DB에도 없던 id(Long)/이름(String). 종류별로 하나씩 두고 키 타입으로 구분한다
+    private final Cache<Object, Boolean> ingredientMisses;
+    private final Cache<Object, Boolean> tagMisses;
+
+    private volatile boolean loaded;
+
+    public IngredientTagDictionary(IngredientRepository ingredientRepository,
+                                   TagRepository tagRepository,
+                                   StringRedisTemplate stringRedisTemplate,
+                                   RedisMessageListenerContainer listenerContainer,
+                                   @Value("${recipe.dictionary.miss-ttl:1m}") Duration missTtl) {
+        this.ingredientRepository = ingredientRepository;
+        this.tagRepository = tagRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.ingredientMisses = Caffeine.newBuilder().maximumSize(MAX_MISSES).expireAfterWrite(missTtl).build();
+        this.tagMisses = Caffeine.newBuilder().maximumSize(MAX_MISSES).expireAfterWrite(missTtl).build();
+    }
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(TOPIC));
+    }
+
+    @EventListener(value = ApplicationReadyEvent.class, condition = SchedulingConfig.NOT_IMPORTING)
+    public void warmUp() {
+        try {
+            ensureLoaded();
+        } catch (Exception e) {
+            log.warn("Failed to preload ingredient/tag dictionary: {}", e.getMessage());
+        }
+    }
+
+    public String ingredientName(Long id) {
+        if (id == null) return null;
+        return lookup(id, ingredientNames, ingredientMisses, key -> ingredientRepository.findById(key)
+                .map(ingredient -> {
+                    putIngredient(ingredient.getId(), ingredient.getName());
+                    return ingredient.getName();
+                })
+                .orElse(null));
+    }
+
+    public String tagName(Long id) {
+        if (id == null) return null;
+        return lookup(id, tagNames, tagMisses, key -> tagRepository.findById(key)
+                .map(tag -> {
+                    putTag(tag.getId(), tag.getName());
+                    return tag.getName();
+                })
+                .orElse(null));
+    }
+
+    public Long ingredientId(String name) {
+        if (name == null) return null;
+        return lookup(name, ingredientIds, ingredientMisses, key -> ingredientRepository.findByName(key)
+                .map(ingredient -> {
+                    putIngredient(ingredient.getId(), ingredient.getName());
+                    return ingredient.getId();
+                })
+                .orElse(null));
+    }
+
+    public Long tagId(String name) {
+        if (name == null) return null;
+        return lookup(name, tagIds, tagMisses, key -> tagRepository.findByName(key)
+                .map(tag -> {
+                    putTag(tag.getId(), tag.getName());
+                    return tag.getId();
+                })
+                .orElse(null));
+    }
+
+    /**
+     * 이름에 fragment가 포함된 (대소문자 무시) 재료 id 목록.
+     */
+    public List<Long> ingredientIdsContaining(String fragment) {
+        ensureLoaded();
+        List<Long> ids = new ArrayList<>();
+        for (Map.Entry<Long, String> entry : ingredientNames.entrySet()) {
+            if (containsIgnoreCase(entry.getValue(), fragment)) {
+                ids.add(entry.getKey());
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 재료 이름들을 id로 한 번에 변환한다. 사전에 없는 이름은 INSERT ... ON CONFLICT DO NOTHING 한 번으로 만들고,
+     * 그 사이 다른 트랜잭션이 먼저 만든 이름은 한 번의 IN 조회로 찾는다 (unique 제약 충돌 없음).
+     * 새 항목은 트랜잭션 커밋 후에만 사전에 반영된다 (롤백된 id가 남지 않도록).
+     */
+    public Map<String, Long> resolveIngredientIds(Collection<String> names) {
+        return resolve(names, INGREDIENT, ingredientIds, ingredientRepository::insertMissingNames,
+                missing -> {
+                    Map<String, Long> found = new HashMap<>();
+                    for (Ingredient ingredient : ingredientRepository.findByNameIn(missing)) {
+                        found.put(ingredient.getName(), ingredient.getId());
+                    }
+                    return found;
+                },
+                this::putIngredient);
+    }
+
+    public Map<String, Long> resolveTagIds(Collection<String> names) {
+        return resolve(names, TAG, tagIds, tagRepository::insertMissingNames,
+                missing -> {
+                    Map<String, Long> found = new HashMap<>();
+                    for (Tag tag : tagRepository.findByNameIn(missing)) {
+                        found.put(tag.getName(), tag.getId());
+                    }
+                    return found;
+                },
+                this::putTag);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        // 형식: <I|T>\t<id>\t<name>
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\t", 3);
+        if (parts.length != 3) {
+            log.warn("Ignoring malformed dictionary message");
+            return;
+        }
+        try {
+            Long id = Long.valueOf(parts[1]);
+            if (INGREDIENT.equals(parts[0])) {
+                putIngredient(id, parts[2]);
+            } else if (TAG.equals(parts[0])) {
+                putTag(id, parts[2]);
+            }
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring dictionary message with invalid id: {}", parts[1]);
+        }
+    }
+
+    private Map<String, Long> resolve(Collection<String> names, String kind, Map<String, Long> known,
+                                      Function<String[], List<Object[]>> insertMissing,
+                                      Function<List<String>, Map<String, Long>> findExisting,
+                                      BiConsumer<Long, String> put) {
+        ensureLoaded();
+        Map<String, Long> ids = new HashMap<>();
+        // 정렬해 두면 동시 생성 시 unique 인덱스 잠금 순서가 같아 교착이 생기지 않는다
+        List<String> unknown = new ArrayList<>();
+        for (String name : new TreeSet<>(names)) {
+            Long id = known.get(name);
+            if (id != null) {
+                ids.put(name, id);
+            } else {
+                unknown.add(name);
+            }
+        }
+        if (unknown.isEmpty()) {
+            return ids;
+        }
+
+        Map<Long, String> created = new HashMap<>();
+        for (Object[] row : insertMissing.apply(unknown.toArray(new String[0]))) {
+            Long id = ((Number) row[0]).longValue();
+            String name = (String) row[1];
+            ids.put(name, id);
+            created.put(id, name);
+        }
+        if (created.size() < unknown.size()) {
+            List<String> existing = new ArrayList<>();
+            for (String name : unknown) {
+                if (!ids.containsKey(name)) {
+                    existing.add(name);
+                }
+            }
+            findExisting.apply(existing).forEach((name, id) -> {
+                // 이미 커밋된 행이므로 바로 사전에 넣는다
+                put.accept(id, name);
+                ids.put(name, id);
+            });
+        }
+        if (!created.isEmpty()) {
+            afterCommit(() -> created.forEach((id, name) -> {
+                put.accept(id, name);
+                publish(kind, id, name);
+            }));
+        }
+        return ids;
+    }
+
+    // 사전 → (최근에 없던 키가 아니면) DB 순으로 찾는다. DB에도 없으면 없던 키로 기억한다
+    private <K, V> V lookup(K key, Map<K, V> known, Cache<Object, Boolean> misses, Function<K, V> load) {
+        ensureLoaded();
+        V value = known.get(key);
+        if (value != null || misses.getIfPresent(key) != null) {
+            return value;
+        }
+        value = load.apply(key);
+        if (value == null) {
+            misses.put(key, Boolean.TRUE);
+            // 조회와 기록 사이에 사전에 들어왔으면 (put이 먼저 지우고 지나갔으면) 기록을 되돌린다
+            if (known.containsKey(key)) {
+                misses.invalidate(key);
+            }
+        }
+        return value;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        synchronized (this) {
+            if (loaded) return;
+            for (Ingredient ingredient : ingredientRepository.findAll()) {
+                putIngredient(ingredient.getId(), ingredient.getName());
+            }
+            for (Tag tag : tagRepository.findAll()) {
+                putTag(tag.getId(), tag.getName());
+            }
+            loaded = true;
+            log.info("Ingredient/tag dictionary loaded: {} ingredients, {} tags", ingredientNames.size(), tagNames.size());
+        }
+    }
+
+    private void putIngredient(Long id, String name) {
+        ingredientNames.put(id, name);
+        ingredientIds.put(name, id);
+        ingredientMisses.invalidateAll(List.of(id, name));
+    }
+
+    private void putTag(Long id, String name) {
+        tagNames.put(id, name);
+        tagIds.put(name, id);
+        tagMisses.invalidateAll(List.of(id, name));
+    }
+
+    private void publish(String kind, Long id, String name) {
+        try {
+            stringRedisTemplate.convertAndSend(TOPIC, kind + "\t" + id + "\t" + name);
+        } catch (Exception e) {
+            log.warn("Failed to publish dictionary update {}:{}: {}", kind, id, e.getMessage());
+        }
+    }
+
+    private static boolean containsIgnoreCase(String text, String fragment) {
+        int max = text.length() - fragment.length();
+        for (int i = 0; i <= max; i++) {
+            if (text.regionMatches(true, i, fragment, 0, fragment.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
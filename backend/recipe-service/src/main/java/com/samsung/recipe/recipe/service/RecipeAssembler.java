@@ -0,0 +1,144 @@
+package com.samsung.recipe.recipe.service;
+
+import com.samsung.recipe.recipe.dto.RecipeResponseDto;
+import com.samsung.recipe.recipe.entity.Recipe;
+import com.samsung.recipe.recipe.entity.RecipeIngredient;
+import com.samsung.recipe.recipe.entity.RecipeStep;
+import com.samsung.recipe.recipe.entity.RecipeTag;
+import com.samsung.recipe.recipe.mapper.RecipeMapper;
+import com.samsung.recipe.recipe.repository.RecipeIngredientRepository;
+import com.samsung.recipe.recipe.repository.RecipeRepository;
+import com.samsung.recipe.recipe.repository.RecipeStepRepository;
+import com.samsung.recipe.recipe.repository.RecipeTagRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 레시피 목록을 응답 DTO로 조립하는 공용 컴포넌트.
+ * 스텝/재료/태그를 레시피 ID 청크 단위의 IN 쿼리로 한 번에 가져오므로
+ * 목록 크기와 관계없이 청크당 쿼리 수가 일정하게 유지된다.
+ * 캐시 백그라운드 갱신처럼 트랜잭션 밖에서 호출되어도 한 번의 읽기 트랜잭션으로 조립된다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class RecipeAssembler {
+
+    // PostgreSQL 바인드 파라미터 한도를 넉넉히 밑도는 IN 절 크기
+    static final int BATCH_SIZE = 500;
+
+    private final RecipeMapper recipeMapper;
+    private final RecipeRepository recipeRepository;
+    private final RecipeStepRepository recipeStepRepository;
+    private final RecipeIngredientRepository recipeIngredientRepository;
+    private final RecipeTagRepository recipeTagRepository;
+
+    public List<RecipeResponseDto> assemble(List<Recipe> recipes) {
+        return assemble(recipes, RecipeFields.ALL);
+    }
+    
+    /**
+     * fields에 포함되지 않은 섹션은 조회하지 않고 응답에서도 null로 둔다.
+     */
+    public List<RecipeResponseDto> assemble(List<Recipe> recipes, RecipeFields fields) {
+        if (recipes == null || recipes.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<RecipeResponseDto> result = new ArrayList<>(recipes.size());
+        for (int from = 0; from < recipes.size(); from += BATCH_SIZE) {
+            List<Recipe> chunk = recipes.subList(from, Math.min(from + BATCH_SIZE, recipes.size()));
+            assembleChunk(chunk, fields, result);
+        }
+        log.debug("Assembled {} recipes in {} batch(es)", recipes.size(), (recipes.size() + BATCH_SIZE - 1) / BATCH_SIZE);
+        return result;
+    }
+
+    /**
+     * 주어진 id 순서를 유지한 채 레시피를 조회해 조립한다. 존재하지 않는 id는 건너뛴다.
+     * 인덱스나 랭킹처럼 id 목록만 들고 있는 경로에서 사용한다.
+     */
+    public List<RecipeResponseDto> assembleByIds(List<Long> recipeIds) {
+        return assembleByIds(recipeIds, RecipeFields.ALL);
+    }
+    
+    public List<RecipeResponseDto> assembleByIds(List<Long> recipeIds, RecipeFields fields) {
+        if (recipeIds == null || recipeIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Recipe> byId = new HashMap<>();
+        for (int from = 0; from < recipeIds.size(); from += BATCH_SIZE) {
+            List<Long> chunk = recipeIds.subList(from, Math.min(from + BATCH_SIZE, recipeIds.size()));
+            for (Recipe recipe : recipeRepository.findAllById(chunk)) {
+                byId.put(recipe.getId(), recipe);
+            }
+        }
+
+        List<Recipe> ordered = new ArrayList<>(byId.size());
+        for (Long id : recipeIds) {
+            Recipe recipe = byId.get(id);
+            if (recipe != null) {
+                ordered.add(recipe);
+            }
+        }
+        return assemble(ordered, fields);
+    }
+
+    /**
+     * 단건 상세 조립 (RecipeDetailCache 로더). 없는 레시피면 null.
+     */
+    public RecipeResponseDto assembleById(Long recipeId) {
+        return recipeRepository.findById(recipeId)
+                .map(recipe -> assemble(List.of(recipe)).get(0))
+                .orElse(null);
+    }
+
+    private void assembleChunk(List<Recipe> chunk, RecipeFields fields, List<RecipeResponseDto> out) {
+        List<Long> recipeIds = new ArrayList<>(chunk.size());
+        for (Recipe recipe : chunk) {
+            recipeIds.add(recipe.getId());
+        }
+
+        Map<Long, List<RecipeStep>> stepsMap = null;
+        if (fields.steps()) {
+            stepsMap = new HashMap<>();
+            for (RecipeStep step : recipeStepRepository.findByRecipeIdInOrderByRecipeIdAscStepIndexAsc(recipeIds)) {
+                stepsMap.computeIfAbsent(step.getRecipeId(), k -> new ArrayList<>()).add(step);
+            }
+        }
+
+        Map<Long, List<RecipeIngredient>> ingredientsMap = null;
+        if (fields.ingredients()) {
+            ingredientsMap = new HashMap<>();
+            for (RecipeIngredient ri : recipeIngredientRepository.findByRecipeIdIn(recipeIds)) {
+                ingredientsMap.computeIfAbsent(ri.getRecipeId(), k -> new ArrayList<>()).add(ri);
+            }
+        }
+
+        Map<Long, List<RecipeTag>> tagsMap = null;
+        if (fields.tags()) {
+            tagsMap = new HashMap<>();
+            for (RecipeTag rt : recipeTagRepository.findByRecipeIdIn(recipeIds)) {
+                tagsMap.computeIfAbsent(rt.getRecipeId(), k -> new ArrayList<>()).add(rt);
+            }
+        }
+
+        for (Recipe recipe : chunk) {
+            out.add(recipeMapper.toResponseDto(
+                    recipe,
+                    stepsMap == null ? null : stepsMap.getOrDefault(recipe.getId(), Collections.emptyList()),
+                    ingredientsMap == null ? null : ingredientsMap.getOrDefault(recipe.getId(), Collections.emptyList()),
+                    tagsMap == null ? null : tagsMap.getOrDefault(recipe.getId(), Collections.emptyList())));
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.samsung.recipe.recipe.service;
+
+import com.samsung.recipe.recipe.event.RecipeChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 레시피 변경 이벤트를 Redis pub/sub으로 다른 노드에 전달한다.
+ * 로컬 변경은 커밋 후 발행하고, 다른 노드의 변경은 remote=true 인 RecipeChangedEvent로 다시 발행해
+ * 로컬 캐시와 인메모리 색인이 같은 경로로 갱신되도록 한다.
+ * 메시지에는 로컬 변경 시 올린 카탈로그 버전도 함께 실린다 (CatalogVersion).
+ * 한 트랜잭션에서 발행된 변경은 커밋 후 종류별 메시지 하나로 묶고, 카탈로그 버전도 트랜잭션당 한 번만 올린다
+ * (배치 생성 청크의 레시피마다 INCR + PUBLISH를 하지 않도록).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecipeChangeRelay implements MessageListener {
+
+    public static final String TOPIC = "recipe:changed";
+
+    // 자기 자신이 발행한 메시지를 걸러내기 위한 노드 식별자
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogVersion catalogVersion;
+
+    @PostConstruct
+    void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(TOPIC));
+    }
+
+    @EventListener
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.isRemote()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            broadcast(Map.of(event.getType(), List.of(event.getRecipeId())));
+            return;
+        }
+        // 트랜잭션의 첫 변경에서 모음을 만들어 커밋 후 한 번에 보낸다 (롤백되면 버린다)
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.ids.computeIfAbsent(event.getType(), type -> new ArrayList<>()).add(event.getRecipeId());
+    }
+
+    private void broadcast(Map<RecipeChangedEvent.Type, List<Long>> changes) {
+        // 다른 노드가 이 메시지를 받기 전에 버전이 올라가 있도록 먼저 INCR 하고 값을 함께 보낸다
+        long version = catalogVersion.bump();
+        changes.forEach((type, ids) -> {
+            try {
+                // 형식: <nodeId>\t<TYPE>\t<recipeId>[,<recipeId>...]\t<catalogVersion>
+                stringRedisTemplate.convertAndSend(TOPIC, nodeId + "\t" + type + "\t"
+                        + ids.stream().map(String::valueOf).collect(Collectors.joining(",")) + "\t" + version);
+            } catch (Exception e) {
+                log.warn("Failed to broadcast {} of {} recipes: {}", type, ids.size(), e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\t", 4);
+        if (parts.length != 4) {
+            log.warn("Ignoring malformed recipe change message");
+            return;
+        }
+        if (nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            RecipeChangedEvent.Type type = RecipeChangedEvent.Type.valueOf(parts[1]);
+            List<Long> ids = new ArrayList<>();
+            for (String id : parts[2].split(",")) {
+                ids.add(Long.valueOf(id));
+            }
+            catalogVersion.observe(Long.parseLong(parts[3]));
+            for (Long id : ids) {
+                eventPublisher.publishEvent(new RecipeChangedEvent(id, type, true));
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring recipe change message: {}", e.getMessage());
+        }
+    }
+
+    // 한 트랜잭션에서 모은 변경 (종류별 id). 커밋 후 보내고 완료 시 바인딩을 푼다
+    private class PendingChanges implements TransactionSynchronization {
+
+        private final Map<RecipeChangedEvent.Type, List<Long>> ids = new EnumMap<>(RecipeChangedEvent.Type.class);
+
+        @Override
+        public void afterCommit() {
+            broadcast(ids);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(RecipeChangeRelay.this);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.samsung.recipe.recipe.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+/**
+ * 키셋 페이지네이션용 불투명 커서.
+ * (정렬 키, id) 쌍을 "종류:정렬키:id" 형태로 base64url 인코딩한다.
+ * 정렬 키는 created_at(마이크로초) 또는 view_count 이다.
+ */
+final class RecipeCursor {
+
+    static final char CREATED_AT = 'c';
+    static final char VIEW_COUNT = 'v';
+
+    // 첫 페이지 조회 시 사용하는 상한값 (모든 행보다 큼)
+    static final LocalDateTime MAX_CREATED_AT = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final long sortKey;
+    private final long id;
+
+    private RecipeCursor(long sortKey, long id) {
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    long sortKey() {
+        return sortKey;
+    }
+
+    long id() {
+        return id;
+    }
+
+    LocalDateTime createdAt() {
+        return fromMicros(sortKey);
+    }
+
+    static String encode(char kind, long sortKey, long id) {
+        String raw = kind + ":" + sortKey + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String encode(LocalDateTime createdAt, long id) {
+        return encode(CREATED_AT, toMicros(createdAt), id);
+    }
+
+    /**
+     * 커서를 해석한다. 빈 커서는 첫 페이지를 뜻하므로 null을 반환한다.
+     *
+     * @throws IllegalArgumentException 형식이 잘못되었거나 다른 정렬용 커서인 경우
+     */
+    static RecipeCursor decode(String cursor, char expectedKind) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3 || parts[0].length() != 1 || parts[0].charAt(0) != expectedKind) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new RecipeCursor(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        long seconds = Math.floorDiv(micros, 1_000_000L);
+        int nanos = (int) Math.floorMod(micros, 1_000_000L) * 1_000;
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+}
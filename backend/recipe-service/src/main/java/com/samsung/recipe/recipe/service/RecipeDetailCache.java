@@ -0,0 +1,199 @@
+package com.samsung.recipe.recipe.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.samsung.recipe.recipe.dto.RecipeResponseDto;
+import com.samsung.recipe.recipe.event.RecipeChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * 레시피 상세 응답의 2단 read-through 캐시.
+ * L1은 프로세스 로컬 CoalescingCache로, 조립된 DTO가 아니라 직렬화가 끝난 JSON 바이트(RecipeJson)를 들고 있어
+ * 캐시 히트 시 Jackson 직렬화 없이 그대로 응답에 쓴다. 가중치는 바이트 길이이므로 메모리 상한이 정확하다.
+ * 동시 미스를 합치고 refresh-after-write 이후에는 이전 값을 주면서 갱신한다.
+ * L2는 RedisCacheManager의 "recipes" 캐시다 (DTO). L2의 조회수는 오래될 수 있으므로 JSON에 넣지 않고,
+ * 응답 시 ViewCountAccumulator.currentCount로 붙인다.
+ * 수정/삭제 시 원 노드가 L2를 지우고, 모든 노드가 RecipeChangeRelay를 통해 L1을 비운다.
+ * L2나 DB를 읽기 전에 L1의 무효화 세대를 재 두고, 그 사이 무효화가 있었으면 읽은 값을 L1/L2에 다시 쓰지 않는다
+ * (커밋 전에 읽은 DTO가 지워진 뒤에 되살아나지 않도록). stale-while-revalidate 갱신은 L2를 거치지 않고 loader로 읽는다.
+ */
+@Component
+@Slf4j
+public class RecipeDetailCache {
+
+    public static final String CACHE_NAME = "recipes";
+
+    // 바이트 배열 외 Entry/레코드 객체 등의 대략적인 오버헤드
+    private static final int ENTRY_OVERHEAD = 96;
+
+    private final CoalescingCache<Long, RecipeJson> local;
+    private final org.springframework.cache.Cache shared;
+    private final ObjectWriter fragmentWriter;
+
+    public RecipeDetailCache(CacheManager cacheManager,
+                             ObjectMapper objectMapper,
+                             MeterRegistry meterRegistry,
+                             @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor,
+                             @Value("${recipe.cache.local.max-weight-bytes:67108864}") long maxWeightBytes,
+                             @Value("${recipe.cache.local.expire-after-write:5m}") Duration expireAfterWrite,
+                             @Value("${recipe.cache.local.refresh-after-write:1m}") Duration refreshAfterWrite) {
+        this.local = new CoalescingCache<>("recipe.detail", maxWeightBytes,
+                (Long id, RecipeJson json) -> json.body().length + ENTRY_OVERHEAD,
+                expireAfterWrite, refreshAfterWrite, cacheRefreshExecutor, meterRegistry);
+        this.shared = cacheManager.getCache(CACHE_NAME);
+        // 조회수는 응답 시점에 붙이므로 조각에는 넣지 않는다
+        this.fragmentWriter = objectMapper.copy()
+                .addMixIn(RecipeResponseDto.class, WithoutViewCount.class)
+                .writer();
+    }
+
+    /**
+     * L1 → L2 → loader 순으로 찾는다. loader가 null을 반환하면 (없는 레시피) 캐시하지 않고 null.
+     * 같은 id의 동시 미스는 한 번만 L2/loader를 거친다.
+     */
+    public RecipeJson get(Long id, Function<Long, RecipeResponseDto> loader) {
+        return local.get(id, key -> load(key, loader), key -> reload(key, loader));
+    }
+
+    /**
+     * 여러 건을 id 순서대로 돌려준다 (목록 응답 조립용). 없는 레시피는 건너뛴다.
+     * L1/L2 모두 미스인 id는 batchLoader 한 번으로 조립한다.
+     */
+    public List<RecipeJson> getAll(List<Long> ids, Function<List<Long>, List<RecipeResponseDto>> batchLoader) {
+        long generation = local.generation();
+        Map<Long, RecipeJson> prepared = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            if (local.peek(id) != null || prepared.containsKey(id)) {
+                continue;
+            }
+            RecipeResponseDto dto = getShared(id);
+            if (dto != null) {
+                prepared.put(id, serialize(dto));
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (RecipeResponseDto dto : batchLoader.apply(missing)) {
+                putShared(dto.getId(), dto, generation);
+                prepared.put(dto.getId(), serialize(dto));
+            }
+        }
+
+        // 백그라운드 갱신 등 미리 준비되지 않은 id는 한 건씩 읽는다
+        Function<Long, RecipeResponseDto> single = key -> {
+            List<RecipeResponseDto> loaded = batchLoader.apply(List.of(key));
+            return loaded.isEmpty() ? null : loaded.get(0);
+        };
+        List<RecipeJson> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            // 미리 준비한 값은 L1에 넣기만 한다 (그 사이 다른 요청이 채웠으면 그 값을 쓰고, 무효화가 있었으면 넣지 않는다)
+            RecipeJson json = prepared.containsKey(id)
+                    ? local.putIfAbsent(id, prepared.get(id), generation)
+                    : local.get(id, key -> load(key, single), key -> reload(key, single));
+            if (json != null) {
+                result.add(json);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * L1에 있는 값만 돌려준다 (ETag 계산용).
+     */
+    public RecipeJson peek(Long id) {
+        return local.peek(id);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.getType() == RecipeChangedEvent.Type.CREATED) {
+            return;
+        }
+        local.invalidate(event.getRecipeId());
+        // L2는 공유 캐시이므로 원 노드만 지운다
+        if (!event.isRemote() && shared != null) {
+            try {
+                shared.evict(event.getRecipeId());
+            } catch (Exception e) {
+                log.warn("Failed to evict recipe {} from redis cache: {}", event.getRecipeId(), e.getMessage());
+            }
+        }
+    }
+
+    private RecipeJson load(Long id, Function<Long, RecipeResponseDto> loader) {
+        long generation = local.generation();
+        RecipeResponseDto dto = getShared(id);
+        if (dto == null) {
+            dto = loader.apply(id);
+            if (dto != null) {
+                putShared(id, dto, generation);
+            }
+        }
+        return dto == null ? null : serialize(dto);
+    }
+
+    // 백그라운드 갱신: L2도 같은 시점의 값일 수 있으므로 원본을 읽어 L2까지 새로 쓴다
+    private RecipeJson reload(Long id, Function<Long, RecipeResponseDto> loader) {
+        long generation = local.generation();
+        RecipeResponseDto dto = loader.apply(id);
+        if (dto != null) {
+            putShared(id, dto, generation);
+        }
+        return dto == null ? null : serialize(dto);
+    }
+
+    private RecipeJson serialize(RecipeResponseDto dto) {
+        try {
+            LocalDateTime version = dto.getUpdatedAt() != null ? dto.getUpdatedAt() : dto.getCreatedAt();
+            return new RecipeJson(dto.getId(), fragmentWriter.writeValueAsBytes(dto), version);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize recipe " + dto.getId(), e);
+        }
+    }
+
+    private RecipeResponseDto getShared(Long id) {
+        if (shared == null) return null;
+        try {
+            return shared.get(id, RecipeResponseDto.class);
+        } catch (Exception e) {
+            log.warn("Failed to read recipe {} from redis cache: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    // 읽기 전에 잰 세대 이후 무효화가 있었으면 쓰지 않고, 쓰는 사이에 지나갔으면 방금 쓴 값을 지운다
+    private void putShared(Long id, RecipeResponseDto dto, long generation) {
+        if (shared == null || generation != local.generation()) return;
+        try {
+            shared.put(id, dto);
+            if (generation != local.generation()) {
+                shared.evict(id);
+            }
+        } catch (Exception e) {
+            log.warn("Failed to write recipe {} to redis cache: {}", id, e.getMessage());
+        }
+    }
+
+    @JsonIgnoreProperties("viewCount")
+    private abstract static class WithoutViewCount {
+    }
+}
@@ -0,0 +1,78 @@
+package com.samsung.recipe.recipe.service;
+
+/**
+ * 목록 응답의 sparse fieldset (?fields=steps,ingredients,tags | summary).
+ * 파라미터가 없으면 기존과 같이 모든 섹션을 채운다.
+ * 섹션을 하나도 지정하지 않으면 (fields=summary) recipe_step / recipe_ingredient / recipe_tag 를 조회하지 않는다.
+ */
+public final class RecipeFields {
+
+    public static final RecipeFields ALL = new RecipeFields(true, true, true);
+    public static final RecipeFields SUMMARY = new RecipeFields(false, false, false);
+
+    private final boolean steps;
+    private final boolean ingredients;
+    private final boolean tags;
+
+    private RecipeFields(boolean steps, boolean ingredients, boolean tags) {
+        this.steps = steps;
+        this.ingredients = ingredients;
+        this.tags = tags;
+    }
+
+    /**
+     * @throws IllegalArgumentException 알 수 없는 필드 이름이 포함된 경우
+     */
+    public static RecipeFields parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return ALL;
+        }
+
+        boolean steps = false;
+        boolean ingredients = false;
+        boolean tags = false;
+        for (String field : fields.split(",")) {
+            switch (field.trim().toLowerCase()) {
+                case "steps", "instructions" -> steps = true;
+                case "ingredients" -> ingredients = true;
+                case "tags" -> tags = true;
+                case "summary", "" -> { }
+                default -> throw new IllegalArgumentException("Unknown field: " + field.trim());
+            }
+        }
+        return new RecipeFields(steps, ingredients, tags);
+    }
+
+    public boolean steps() {
+        return steps;
+    }
+
+    public boolean ingredients() {
+        return ingredients;
+    }
+
+    public boolean tags() {
+        return tags;
+    }
+
+    public boolean isSummary() {
+        return !steps && !ingredients && !tags;
+    }
+
+    public boolean isAll() {
+        return steps && ingredients && tags;
+    }
+
+    // 캐시 키 등에 쓰는 정규화된 표현
+    @Override
+    public String toString() {
+        if (isSummary()) {
+            return "summary";
+        }
+        StringBuilder sb = new StringBuilder();
+        if (steps) sb.append("steps,");
+        if (ingredients) sb.append("ingredients,");
+        if (tags) sb.append("tags,");
+        return sb.substring(0, sb.length() - 1);
+    }
+}
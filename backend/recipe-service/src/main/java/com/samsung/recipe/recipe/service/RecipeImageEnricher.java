@@ -0,0 +1,238 @@
+package com.samsung.recipe.recipe.service;
+
+import com.samsung.recipe.recipe.event.RecipeChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 레시피 대표 이미지 자동 채우기 (Unsplash) 비동기 작업.
+ * createRecipe는 같은 트랜잭션에서 recipe_image_job 행만 넣고 바로 커밋하며,
+ * 이 컴포넌트가 주기적으로 (그리고 커밋 직후) FOR UPDATE SKIP LOCKED로 작업을 임대(lease)해
+ * 제한된 워커 풀에서 처리한다. 실패하면 지수 백오프로 다시 시도하고, 작업은 테이블에 있으므로 재시작해도 유지된다.
+ * 처리 도중 노드가 죽으면 임대 시간이 지난 뒤 다른 노드가 다시 가져간다.
+ * 할당량 소진이나 서킷 OPEN처럼 호출하지 않고 막힌 경우는 시도로 세지 않고 deferred-delay 뒤로 미룬다.
+ */
+@Component
+@Slf4j
+public class RecipeImageEnricher {
+
+    private static final String ENQUEUE_SQL =
+            "INSERT INTO recipe_image_job (recipe_id) VALUES (?) ON CONFLICT (recipe_id) DO NOTHING";
+
+    // 실행할 때가 된 작업을 임대하고 시도 횟수를 올린다. 다른 노드가 잡고 있는 행은 건너뛴다
+    private static final String CLAIM_SQL = """
+            UPDATE recipe_image_job
+               SET locked_until = now() + CAST(? AS interval), attempts = attempts + 1
+             WHERE recipe_id IN (
+                   SELECT recipe_id FROM recipe_image_job
+                    WHERE next_attempt_at <= now()
+                      AND (locked_until IS NULL OR locked_until < now())
+                    ORDER BY next_attempt_at
+                    LIMIT ?
+                      FOR UPDATE SKIP LOCKED)
+            RETURNING recipe_id, attempts""";
+
+    private static final String RELEASE_SQL =
+            "UPDATE recipe_image_job SET locked_until = NULL, attempts = attempts - 1 WHERE recipe_id = ?";
+
+    private static final String RETRY_SQL = """
+            UPDATE recipe_image_job
+               SET locked_until = NULL, next_attempt_at = now() + CAST(? AS interval), last_error = ?
+             WHERE recipe_id = ?""";
+
+    // 호출하지 못한 경우: 임대 때 올린 시도 횟수를 되돌리고 미룬다
+    private static final String DEFER_SQL = """
+            UPDATE recipe_image_job
+               SET locked_until = NULL, attempts = attempts - 1, next_attempt_at = now() + CAST(? AS interval), last_error = ?
+             WHERE recipe_id = ?""";
+
+    private static final String DELETE_SQL = "DELETE FROM recipe_image_job WHERE recipe_id = ?";
+
+    // 그 사이 사용자가 이미지를 직접 넣었으면 덮어쓰지 않는다
+    private static final String APPLY_SQL =
+            "UPDATE recipes SET image_url = ?, updated_at = ? WHERE id = ? AND (image_url IS NULL OR image_url = '')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UnsplashService unsplashService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ThreadPoolTaskExecutor workers;
+
+    private final int batchSize;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration backoffInitial;
+    private final Duration backoffMax;
+    private final Duration deferredDelay;
+
+    public RecipeImageEnricher(JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               UnsplashService unsplashService,
+                               ApplicationEventPublisher eventPublisher,
+                               @Qualifier("imageEnrichmentExecutor") ThreadPoolTaskExecutor workers,
+                               @Value("${recipe.image-enrichment.batch-size:10}") int batchSize,
+                               @Value("${recipe.image-enrichment.lease:2m}") Duration lease,
+                               @Value("${recipe.image-enrichment.max-attempts:6}") int maxAttempts,
+                               @Value("${recipe.image-enrichment.backoff-initial:30s}") Duration backoffInitial,
+                               @Value("${recipe.image-enrichment.backoff-max:30m}") Duration backoffMax,
+                               @Value("${recipe.image-enrichment.deferred-delay:1m}") Duration deferredDelay) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.unsplashService = unsplashService;
+        this.eventPublisher = eventPublisher;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+        this.backoffInitial = backoffInitial;
+        this.backoffMax = backoffMax;
+        this.deferredDelay = deferredDelay;
+    }
+
+    /**
+     * 호출 측 트랜잭션에 작업을 넣는다. 레시피 INSERT와 함께 커밋되며, 커밋 직후 한 번 바로 처리를 시도한다.
+     * (recipes FK는 두지 않는다: JPA insert는 커밋 시점에 배치로 flush되므로 이 INSERT가 먼저 나간다.
+     * 레시피가 사라진 작업은 처리할 때 지운다.)
+     */
+    public void enqueue(Long recipeId) {
+        enqueueAll(List.of(recipeId));
+    }
+
+    /**
+     * 여러 작업을 한 번의 JDBC 배치로 넣고, 커밋 후 한 번만 깨운다 (일괄 생성용).
+     */
+    public void enqueueAll(List<Long> recipeIds) {
+        if (recipeIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ENQUEUE_SQL, recipeIds.stream().map(id -> new Object[]{id}).toList());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${recipe.image-enrichment.poll-interval-ms:5000}")
+    public void poll() {
+        // 워커 큐에 남은 자리만큼만 가져온다 (나머지는 다른 노드나 다음 주기에)
+        int capacity = Math.min(batchSize, workers.getThreadPoolExecutor().getQueue().remainingCapacity());
+        if (capacity <= 0) {
+            return;
+        }
+
+        List<long[]> jobs;
+        try {
+            jobs = transactionTemplate.execute(status -> jdbcTemplate.query(CLAIM_SQL,
+                    (rs, rowNum) -> new long[]{rs.getLong("recipe_id"), rs.getInt("attempts")},
+                    toInterval(lease), capacity));
+        } catch (Exception e) {
+            log.warn("Failed to claim image enrichment jobs: {}", e.getMessage());
+            return;
+        }
+        if (jobs == null) {
+            return;
+        }
+
+        for (long[] job : jobs) {
+            long recipeId = job[0];
+            int attempt = (int) job[1];
+            try {
+                workers.execute(() -> process(recipeId, attempt));
+            } catch (RejectedExecutionException e) {
+                // 임대를 풀어 다음 주기에 다시 가져가도록 한다
+                jdbcTemplate.update(RELEASE_SQL, recipeId);
+            }
+        }
+    }
+
+    private void wakeUp() {
+        try {
+            workers.execute(this::poll);
+        } catch (RejectedExecutionException e) {
+            // 주기 실행이 곧 가져간다
+        }
+    }
+
+    private void process(long recipeId, int attempt) {
+        List<String> titles = jdbcTemplate.queryForList(
+                "SELECT title FROM recipes WHERE id = ? AND (image_url IS NULL OR image_url = '')", String.class, recipeId);
+        if (titles.isEmpty()) {
+            // 삭제되었거나 이미 이미지가 있다
+            jdbcTemplate.update(DELETE_SQL, recipeId);
+            return;
+        }
+
+        String imageUrl;
+        try {
+            imageUrl = unsplashService.findRecipeImage(titles.get(0));
+            if (imageUrl == null) {
+                imageUrl = unsplashService.getPlaceholderImage();
+            }
+        } catch (UnsplashService.QuotaExceededException | UnsplashService.UnavailableException e) {
+            Duration delay = jitter(deferredDelay.toMillis());
+            log.debug("Image enrichment for recipe {} deferred for {}: {}", recipeId, delay, e.getMessage());
+            jdbcTemplate.update(DEFER_SQL, toInterval(delay), String.valueOf(e.getMessage()), recipeId);
+            return;
+        } catch (Exception e) {
+            if (attempt >= maxAttempts) {
+                log.warn("Giving up image enrichment for recipe {} after {} attempts: {}", recipeId, attempt, e.getMessage());
+                imageUrl = unsplashService.getPlaceholderImage();
+            } else {
+                Duration delay = backoff(attempt);
+                log.info("Image enrichment for recipe {} failed (attempt {}), retrying in {}: {}",
+                        recipeId, attempt, delay, e.getMessage());
+                jdbcTemplate.update(RETRY_SQL, toInterval(delay), String.valueOf(e.getMessage()), recipeId);
+                return;
+            }
+        }
+
+        String resolved = imageUrl;
+        Integer updated = transactionTemplate.execute(status -> {
+            int rows = jdbcTemplate.update(APPLY_SQL, resolved, LocalDateTime.now(), recipeId);
+            jdbcTemplate.update(DELETE_SQL, recipeId);
+            return rows;
+        });
+        if (updated != null && updated > 0) {
+            // 상세/목록 캐시 무효화와 다른 노드 전파는 기존 변경 이벤트 경로를 그대로 탄다
+            eventPublisher.publishEvent(new RecipeChangedEvent(recipeId, RecipeChangedEvent.Type.UPDATED));
+            log.debug("Applied image for recipe {}", recipeId);
+        }
+    }
+
+    // initial * 2^(attempt-1), 상한 적용 후 ±20% 지터
+    private Duration backoff(int attempt) {
+        long millis = backoffInitial.toMillis() << Math.min(attempt - 1, 20);
+        return jitter(Math.min(millis, backoffMax.toMillis()));
+    }
+
+    private static Duration jitter(long millis) {
+        double jitter = 0.8 + ThreadLocalRandom.current().nextDouble() * 0.4;
+        return Duration.ofMillis((long) (millis * jitter));
+    }
+
+    private static String toInterval(Duration duration) {
+        return duration.toMillis() + " milliseconds";
+    }
+}
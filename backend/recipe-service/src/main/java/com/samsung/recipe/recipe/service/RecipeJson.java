@@ -0,0 +1,33 @@
+package com.samsung.recipe.recipe.service;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * 미리 직렬화된 레시피 상세 JSON (UTF-8).
+ * 조회수는 요청마다 달라지므로 body에서 빼 두고, 응답할 때 앞에 붙여 완성한다.
+ *
+ * @param id        레시피 id
+ * @param body      viewCount를 제외한 RecipeResponseDto JSON 객체 ('{'로 시작)
+ * @param version   updatedAt (없으면 createdAt), ETag 계산용
+ */
+public record RecipeJson(Long id, byte[] body, LocalDateTime version) {
+
+    /**
+     * 주어진 조회수를 넣은 완성된 JSON 객체를 out에 쓴다.
+     */
+    public void writeTo(ByteArrayOutputStream out, int currentViewCount) {
+        out.writeBytes(("{\"viewCount\":" + currentViewCount).getBytes(StandardCharsets.US_ASCII));
+        if (body.length > 2) {
+            out.write(',');
+        }
+        out.write(body, 1, body.length - 1);
+    }
+
+    public byte[] toBytes(int currentViewCount) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length + 24);
+        writeTo(out, currentViewCount);
+        return out.toByteArray();
+    }
+}
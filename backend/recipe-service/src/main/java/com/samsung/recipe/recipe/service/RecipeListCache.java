@@ -0,0 +1,57 @@
+package com.samsung.recipe.recipe.service;
+
+import com.samsung.recipe.recipe.dto.RecipeResponseDto;
+import com.samsung.recipe.recipe.dto.RecipeSummaryDto;
+import com.samsung.recipe.recipe.event.RecipeChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * 홈 화면 베스트 목록처럼 여러 요청이 같은 결과를 공유하는 목록 응답의 로컬 캐시.
+ * 만료 시점의 동시 미스는 한 번만 계산하고, refresh-after-write 이후에는 이전 목록을 주면서 갱신한다.
+ * 레시피가 수정/삭제되면 (다른 노드의 변경 포함) 그 레시피가 들어 있는 목록만 비운다.
+ * 수정/삭제는 조회수를 바꾸지 않으므로 그 레시피가 없는 목록의 순위에는 영향이 없다.
+ */
+@Component
+public class RecipeListCache {
+
+    private final CoalescingCache<String, List<RecipeResponseDto>> bestRecipes;
+    private final CoalescingCache<String, List<RecipeSummaryDto>> bestSummaries;
+
+    public RecipeListCache(MeterRegistry meterRegistry,
+                           @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor,
+                           @Value("${recipe.cache.best.expire-after-write:5m}") Duration expireAfterWrite,
+                           @Value("${recipe.cache.best.refresh-after-write:30s}") Duration refreshAfterWrite) {
+        // 키는 limit × fields 조합이라 몇 개 되지 않는다
+        this.bestRecipes = new CoalescingCache<>("recipe.best", 64, null,
+                expireAfterWrite, refreshAfterWrite, cacheRefreshExecutor, meterRegistry);
+        this.bestSummaries = new CoalescingCache<>("recipe.best.summary", 64, null,
+                expireAfterWrite, refreshAfterWrite, cacheRefreshExecutor, meterRegistry);
+    }
+
+    public List<RecipeResponseDto> best(int limit, RecipeFields fields, Function<String, List<RecipeResponseDto>> loader) {
+        return bestRecipes.get(limit + ":" + fields, loader);
+    }
+
+    public List<RecipeSummaryDto> bestSummaries(int limit, Function<String, List<RecipeSummaryDto>> loader) {
+        return bestSummaries.get(Integer.toString(limit), loader);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.getType() == RecipeChangedEvent.Type.CREATED) {
+            return;
+        }
+        Long recipeId = event.getRecipeId();
+        bestRecipes.invalidateIf(recipes -> recipes.stream().anyMatch(recipe -> recipeId.equals(recipe.getId())));
+        bestSummaries.invalidateIf(summaries -> summaries.stream().anyMatch(summary -> recipeId.equals(summary.getId())));
+    }
+}
@@ -0,0 +1,594 @@
+package com.samsung.recipe.recipe.service;
+
+import com.samsung.recipe.recipe.config.SchedulingConfig;
+import com.samsung.recipe.recipe.entity.Recipe;
+import com.samsung.recipe.recipe.entity.RecipeStep;
+import com.samsung.recipe.recipe.entity.RecipeTag;
+import com.samsung.recipe.recipe.event.RecipeChangedEvent;
+import com.samsung.recipe.recipe.repository.RecipeRepository;
+import com.samsung.recipe.recipe.repository.RecipeStepRepository;
+import com.samsung.recipe.recipe.repository.RecipeTagRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 레시피 전문 검색용 인메모리 역색인.
+ * 제목/설명/조리 단계/태그를 문자 unigram + bigram으로 색인하므로 형태소 분석기 없이도 한글 부분 문자열 검색이 된다
+ * (한 글자 질의 "국"은 unigram으로 "된장국"을, 두 글자 이상은 bigram으로 찾는다).
+ * 점수는 필드 가중치를 반영한 BM25에 조회수 부스트를 곱한 값이다. 조회수는 주기적으로 DB에서 다시 읽는다.
+ * recipe.search.mode=memory 일 때만 구축되며, 구축 전에는 RecipeService가 DB 검색으로 대체한다.
+ * 구축 중에 들어온 변경 이벤트는 모아 두었다가 구축이 끝난 뒤 다시 반영한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RecipeSearchIndex {
+
+    public static final String MODE = "memory";
+
+    private static final float TITLE_WEIGHT = 3.0f;
+    private static final float TAG_WEIGHT = 2.0f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float STEP_WEIGHT = 0.5f;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    // 질의 gram 중 이 비율 이상을 포함한 문서만 결과로 인정 (부분 문자열 검색에 가깝게)
+    private static final double MIN_MATCH_RATIO = 0.75;
+
+    private static final int BUILD_BATCH_SIZE = 500;
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeStepRepository recipeStepRepository;
+    private final RecipeTagRepository recipeTagRepository;
+    private final IngredientTagDictionary dictionary;
+    private final PlatformTransactionManager transactionManager;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${recipe.search.mode:memory}")
+    private String searchMode;
+
+    @Value("${recipe.search.view-count-boost:0.1}")
+    private double viewCountBoost;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 아래 필드는 모두 lock으로 보호된다
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> docByRecipe = new HashMap<>();
+    private long[] docRecipeIds = new long[1024];
+    private float[] docLengths = new float[1024];
+    private int[] docViewCounts = new int[1024];
+    private final BitSet deadDocs = new BitSet();
+    private int docCount;
+    private int liveDocs;
+    private double totalLength;
+
+    private volatile boolean ready;
+
+    // 구축 중일 때만 null이 아니다: 그동안 바뀐 레시피 id (rebuildMonitor로 보호)
+    private final Object rebuildMonitor = new Object();
+    private Set<Long> changedDuringRebuild;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Hits {
+        private final List<Long> recipeIds;
+        private final int total;
+    }
+
+    public boolean isEnabled() {
+        return MODE.equalsIgnoreCase(searchMode);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(value = ApplicationReadyEvent.class, condition = SchedulingConfig.NOT_IMPORTING)
+    public void warmUp() {
+        if (!isEnabled()) {
+            return;
+        }
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Failed to build recipe search index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * DB 전체를 id 순으로 훑어 색인을 다시 만든다. 배치마다 별도 읽기 전용 트랜잭션을 사용해
+     * 영속성 컨텍스트가 카탈로그 크기만큼 커지지 않도록 한다.
+     */
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        ready = false;
+        synchronized (rebuildMonitor) {
+            changedDuringRebuild = ConcurrentHashMap.newKeySet();
+        }
+        try {
+            build(started);
+        } finally {
+            // 실패했으면 버퍼를 치워 이후 이벤트가 쌓이지 않게 한다 (ready는 false로 남아 DB 검색으로 대체)
+            synchronized (rebuildMonitor) {
+                changedDuringRebuild = null;
+            }
+        }
+    }
+
+    private void build(long started) {
+        lock.writeLock().lock();
+        try {
+            clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setReadOnly(true);
+
+        long lastId = 0;
+        int indexed = 0;
+        while (true) {
+            final long after = lastId;
+            List<Document> batch = tx.execute(status -> loadBatch(after));
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            lock.writeLock().lock();
+            try {
+                for (Document document : batch) {
+                    addDocument(document);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            indexed += batch.size();
+            lastId = batch.get(batch.size() - 1).recipeId;
+        }
+
+        // 이미 지나간 id 구간의 변경은 배치에 반영되지 않았을 수 있으므로 모아 둔 id를 DB에서 다시 읽는다.
+        // 비었을 때 버퍼를 치우고 ready를 올리는 것은 onRecipeChanged의 버퍼 확인과 같은 모니터 안에서 한다
+        int replayed = 0;
+        while (true) {
+            List<Long> changed;
+            synchronized (rebuildMonitor) {
+                if (changedDuringRebuild.isEmpty()) {
+                    changedDuringRebuild = null;
+                    ready = true;
+                    break;
+                }
+                changed = new ArrayList<>(changedDuringRebuild);
+                changedDuringRebuild.clear();
+            }
+            for (Long recipeId : changed) {
+                Document document = tx.execute(status -> loadDocument(recipeId));
+                apply(recipeId, document);
+            }
+            replayed += changed.size();
+        }
+
+        log.info("Recipe search index built: {} recipes ({} changed during build), {} grams in {} ms",
+                indexed, replayed, postings.size(), System.currentTimeMillis() - started);
+    }
+
+    /**
+     * 색인에 든 조회수를 DB 값으로 맞춘다 (조회수 부스트용). 모든 노드의 조회가 반영된 값이다.
+     */
+    @Scheduled(fixedDelayString = "${recipe.search.view-count-refresh-ms:300000}",
+            initialDelayString = "${recipe.search.view-count-refresh-ms:300000}")
+    public void refreshViewCounts() {
+        if (!isEnabled() || !ready) {
+            return;
+        }
+        Map<Long, Integer> viewCounts = new HashMap<>();
+        jdbcTemplate.query("SELECT id, view_count FROM recipes", rs -> {
+            viewCounts.put(rs.getLong(1), rs.getInt(2));
+        });
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Long, Integer> entry : viewCounts.entrySet()) {
+                Integer doc = docByRecipe.get(entry.getKey());
+                if (doc != null) {
+                    docViewCounts[doc] = entry.getValue();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("Refreshed view counts of {} indexed recipes", viewCounts.size());
+    }
+
+
+    /**
+     * 질의와 관련도가 높은 순으로 [offset, offset + limit) 구간의 레시피 id와 전체 적중 수를 반환한다.
+     */
+    public Hits search(String query, int offset, int limit) {
+        List<String> queryGrams = new ArrayList<>(queryGrams(query));
+        if (queryGrams.isEmpty() || limit <= 0) {
+            return new Hits(Collections.emptyList(), 0);
+        }
+        int minMatch = Math.max(1, (int) Math.ceil(queryGrams.size() * MIN_MATCH_RATIO));
+
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0) {
+                return new Hits(Collections.emptyList(), 0);
+            }
+            float avgLength = (float) (totalLength / liveDocs);
+            float[] scores = new float[docCount];
+            short[] matched = new short[docCount];
+            int[] touched = new int[64];
+            int touchedCount = 0;
+
+            for (String gram : queryGrams) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (liveDocs - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.docs[i];
+                    if (deadDocs.get(doc)) {
+                        continue;
+                    }
+                    if (matched[doc] == 0) {
+                        if (touchedCount == touched.length) {
+                            touched = Arrays.copyOf(touched, touchedCount * 2);
+                        }
+                        touched[touchedCount++] = doc;
+                    }
+                    matched[doc]++;
+                    float tf = list.tfs[i];
+                    float norm = K1 * (1 - B + B * docLengths[doc] / avgLength);
+                    scores[doc] += (float) (idf * tf * (K1 + 1) / (tf + norm));
+                }
+            }
+
+            // 상위 offset + limit 개만 유지하는 최소 힙
+            int k = offset + limit;
+            PriorityQueue<Integer> heap = new PriorityQueue<>(Math.min(k, Math.max(touchedCount, 1)),
+                    (a, b) -> Float.compare(scores[a], scores[b]));
+            int total = 0;
+            for (int i = 0; i < touchedCount; i++) {
+                int doc = touched[i];
+                if (matched[doc] < minMatch) {
+                    continue;
+                }
+                total++;
+                scores[doc] *= (float) (1 + viewCountBoost * Math.log1p(Math.max(0, docViewCounts[doc])));
+                if (heap.size() < k) {
+                    heap.add(doc);
+                } else if (scores[doc] > scores[heap.peek()]) {
+                    heap.poll();
+                    heap.add(doc);
+                }
+            }
+
+            int[] ranked = new int[heap.size()];
+            for (int i = ranked.length - 1; i >= 0; i--) {
+                ranked[i] = heap.poll();
+            }
+            List<Long> recipeIds = new ArrayList<>(Math.max(0, ranked.length - offset));
+            for (int i = offset; i < ranked.length; i++) {
+                recipeIds.add(docRecipeIds[ranked[i]]);
+            }
+            return new Hits(recipeIds, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (!isEnabled()) {
+            return;
+        }
+        Long recipeId = event.getRecipeId();
+        synchronized (rebuildMonitor) {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(recipeId);
+                return;
+            }
+        }
+        if (!ready) {
+            return;
+        }
+        Document document = event.getType() == RecipeChangedEvent.Type.DELETED ? null : loadDocument(recipeId);
+        apply(recipeId, document);
+    }
+
+    // 레시피가 없으면 null (삭제됨)
+    private Document loadDocument(Long recipeId) {
+        Recipe recipe = recipeRepository.findById(recipeId).orElse(null);
+        if (recipe == null) {
+            return null;
+        }
+        List<String> steps = new ArrayList<>();
+        for (RecipeStep step : recipeStepRepository.findByRecipeIdOrderByStepIndex(recipeId)) {
+            steps.add(step.getDescription());
+        }
+        List<String> tags = new ArrayList<>();
+        for (RecipeTag recipeTag : recipeTagRepository.findByRecipeId(recipeId)) {
+            tags.add(dictionary.tagName(recipeTag.getTagId()));
+        }
+        return new Document(recipe, steps, tags);
+    }
+
+    private void apply(Long recipeId, Document document) {
+        lock.writeLock().lock();
+        try {
+            if (document == null) {
+                removeDocument(recipeId);
+            } else {
+                addDocument(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<Document> loadBatch(long afterId) {
+        List<Recipe> recipes = recipeRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, BUILD_BATCH_SIZE));
+        if (recipes.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> recipeIds = new ArrayList<>(recipes.size());
+        for (Recipe recipe : recipes) {
+            recipeIds.add(recipe.getId());
+        }
+
+        Map<Long, List<String>> stepsByRecipe = new HashMap<>();
+        for (RecipeStep step : recipeStepRepository.findByRecipeIdInOrderByRecipeIdAscStepIndexAsc(recipeIds)) {
+            stepsByRecipe.computeIfAbsent(step.getRecipeId(), key -> new ArrayList<>()).add(step.getDescription());
+        }
+        Map<Long, List<String>> tagsByRecipe = new HashMap<>();
+        for (RecipeTag recipeTag : recipeTagRepository.findByRecipeIdIn(recipeIds)) {
+            tagsByRecipe.computeIfAbsent(recipeTag.getRecipeId(), key -> new ArrayList<>())
+                    .add(dictionary.tagName(recipeTag.getTagId()));
+        }
+
+        List<Document> documents = new ArrayList<>(recipes.size());
+        for (Recipe recipe : recipes) {
+            documents.add(new Document(recipe,
+                    stepsByRecipe.getOrDefault(recipe.getId(), Collections.emptyList()),
+                    tagsByRecipe.getOrDefault(recipe.getId(), Collections.emptyList())));
+        }
+        return documents;
+    }
+
+    private void clear() {
+        postings.clear();
+        docByRecipe.clear();
+        deadDocs.clear();
+        docCount = 0;
+        liveDocs = 0;
+        totalLength = 0;
+    }
+
+    private void addDocument(Document document) {
+        removeDocument(document.recipeId);
+
+        Map<String, Float> termFrequencies = new HashMap<>();
+        float length = 0;
+        length += accumulate(document.title, TITLE_WEIGHT, termFrequencies);
+        length += accumulate(document.description, DESCRIPTION_WEIGHT, termFrequencies);
+        for (String tag : document.tags) {
+            length += accumulate(tag, TAG_WEIGHT, termFrequencies);
+        }
+        for (String step : document.steps) {
+            length += accumulate(step, STEP_WEIGHT, termFrequencies);
+        }
+
+        int doc = docCount++;
+        ensureDocCapacity(docCount);
+        docRecipeIds[doc] = document.recipeId;
+        docLengths[doc] = length;
+        docViewCounts[doc] = document.viewCount;
+        docByRecipe.put(document.recipeId, doc);
+        liveDocs++;
+        totalLength += length;
+
+        for (Map.Entry<String, Float> entry : termFrequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), key -> new Postings()).add(doc, entry.getValue());
+        }
+    }
+
+    private void removeDocument(long recipeId) {
+        Integer doc = docByRecipe.remove(recipeId);
+        if (doc == null) {
+            return;
+        }
+        deadDocs.set(doc);
+        liveDocs--;
+        totalLength -= docLengths[doc];
+
+        // 삭제된 문서가 많이 쌓이면 posting list에서 걷어내고 문서 번호를 다시 매긴다
+        int dead = deadDocs.cardinality();
+        if (dead > 1000 && dead > liveDocs / 4) {
+            compact();
+        }
+    }
+
+    private void compact() {
+        int[] remap = new int[docCount];
+        int next = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deadDocs.get(doc)) {
+                remap[doc] = -1;
+                continue;
+            }
+            remap[doc] = next;
+            docRecipeIds[next] = docRecipeIds[doc];
+            docLengths[next] = docLengths[doc];
+            docViewCounts[next] = docViewCounts[doc];
+            docByRecipe.put(docRecipeIds[next], next);
+            next++;
+        }
+
+        postings.values().removeIf(list -> {
+            list.remap(remap);
+            return list.size == 0;
+        });
+        docCount = next;
+        deadDocs.clear();
+        log.debug("Recipe search index compacted to {} documents", docCount);
+    }
+
+    private void ensureDocCapacity(int capacity) {
+        if (capacity <= docRecipeIds.length) {
+            return;
+        }
+        int newLength = Math.max(capacity, docRecipeIds.length * 2);
+        docRecipeIds = Arrays.copyOf(docRecipeIds, newLength);
+        docLengths = Arrays.copyOf(docLengths, newLength);
+        docViewCounts = Arrays.copyOf(docViewCounts, newLength);
+    }
+
+    private static float accumulate(String text, float weight, Map<String, Float> termFrequencies) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int count = 0;
+        for (String gram : grams(text)) {
+            termFrequencies.merge(gram, weight, Float::sum);
+            count++;
+        }
+        return count * weight;
+    }
+
+    /**
+     * 질의 gram (중복 제거, 순서 유지). 두 글자 이상 단어는 bigram만, 한 글자 단어는 그 글자(unigram)를 쓴다.
+     * 색인에는 둘 다 들어 있으므로 "국"은 "된장국"에, "김치"는 "김치볶음밥"에 걸린다.
+     */
+    static Set<String> queryGrams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        if (text != null) {
+            for (String word : words(text)) {
+                if (word.length() == 1) {
+                    grams.add(word);
+                } else {
+                    addBigrams(word, grams);
+                }
+            }
+        }
+        return grams;
+    }
+
+    /**
+     * 색인 gram. 문자/숫자 연속 구간을 단어로 보고 단어마다 글자 unigram과 bigram을 모두 만든다.
+     */
+    static List<String> grams(String text) {
+        List<String> grams = new ArrayList<>();
+        for (String word : words(text)) {
+            for (int j = 0; j < word.length(); j++) {
+                grams.add(word.substring(j, j + 1));
+            }
+            addBigrams(word, grams);
+        }
+        return grams;
+    }
+
+    private static void addBigrams(String word, Collection<String> grams) {
+        for (int j = 0; j + 2 <= word.length(); j++) {
+            grams.add(word.substring(j, j + 2));
+        }
+    }
+
+    // 소문자로 바꾼 문자/숫자 연속 구간
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+                continue;
+            }
+            if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        return words;
+    }
+
+    private static final class Document {
+        private final long recipeId;
+        private final int viewCount;
+        private final String title;
+        private final String description;
+        private final List<String> steps;
+        private final List<String> tags;
+
+        private Document(Recipe recipe, List<String> steps, List<String> tags) {
+            this.recipeId = recipe.getId();
+            this.viewCount = recipe.getViewCount() != null ? recipe.getViewCount() : 0;
+            this.title = recipe.getTitle();
+            this.description = recipe.getDescription();
+            this.steps = steps;
+            this.tags = tags;
+        }
+    }
+
+    // 문서 번호 오름차순으로 쌓이는 (doc, 가중 tf) 목록
+    private static final class Postings {
+        private int[] docs = new int[4];
+        private float[] tfs = new float[4];
+        private int size;
+
+        void add(int doc, float tf) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            docs[size] = doc;
+            tfs[size] = tf;
+            size++;
+        }
+
+        void remap(int[] remap) {
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                int mapped = remap[docs[i]];
+                if (mapped >= 0) {
+                    docs[n] = mapped;
+                    tfs[n] = tfs[i];
+                    n++;
+                }
+            }
+            size = n;
+        }
+    }
+}
@@ -1,38 +1,62 @@
 package com.samsung.recipe.recipe.service;
 
+import com.samsung.recipe.recipe.dto.RecipeBatchResultDto;
+import com.samsung.recipe.recipe.dto.RecipeCursorPageDto;
+import com.samsung.recipe.recipe.dto.RecipeIngredientDto;
 import com.samsung.recipe.recipe.dto.RecipeRequestDto;
 import com.samsung.recipe.recipe.dto.RecipeResponseDto;
+import com.samsung.recipe.recipe.dto.RecipeSummaryDto;
+import com.samsung.recipe.recipe.dto.TagDto;
 import com.samsung.recipe.recipe.entity.Recipe;
+import com.samsung.recipe.recipe.event.RecipeChangedEvent;
 import com.samsung.recipe.recipe.entity.RecipeStep;
 import com.samsung.recipe.recipe.entity.RecipeIngredient;
-import com.samsung.recipe.recipe.entity.Ingredient;
 import com.samsung.recipe.recipe.entity.RecipeTag;
-import com.samsung.recipe.recipe.entity.Tag;
 import com.samsung.recipe.recipe.mapper.RecipeMapper;
 import com.samsung.recipe.recipe.repository.RecipeRepository;
 import com.samsung.recipe.recipe.repository.RecipeStepRepository;
 import com.samsung.recipe.recipe.repository.RecipeIngredientRepository;
-import com.samsung.recipe.recipe.repository.IngredientRepository;
 import com.samsung.recipe.recipe.repository.RecipeTagRepository;
-import com.samsung.recipe.recipe.repository.TagRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -42,72 +66,256 @@ public class RecipeService {
     
     private final RecipeRepository recipeRepository;
     private final RecipeMapper recipeMapper;
-    private final RedisTemplate<String, Object> redisTemplate;
-    private final UnsplashService unsplashService;
+    private final RecipeImageEnricher recipeImageEnricher;
     private final RecipeStepRepository recipeStepRepository;
     private final RecipeIngredientRepository recipeIngredientRepository;
-    private final IngredientRepository ingredientRepository;
-    private final TagRepository tagRepository;
     private final RecipeTagRepository recipeTagRepository;
+    private final RecipeAssembler recipeAssembler;
+    private final IngredientTagDictionary dictionary;
+    private final IngredientRecipeIndex ingredientRecipeIndex;
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final ViewCountAccumulator viewCountAccumulator;
+    private final BestRecipeLeaderboard bestRecipeLeaderboard;
+    private final TrendingRecipes trendingRecipes;
+    private final RecipeDetailCache recipeDetailCache;
+    private final RecipeListCache recipeListCache;
+    private final PlatformTransactionManager transactionManager;
+    private final Validator validator;
+    
+    private static final String POSTGRES_SEARCH_MODE = "postgres";
+    
+    @Value("${recipe.search.mode:memory}")
+    private String searchMode;
+    
+    @Value("${recipe.batch.max-size:500}")
+    private int batchMaxSize;
     
-    private static final String RECIPE_CACHE_KEY = "recipe:";
-    private static final String RECIPES_LIST_CACHE_KEY = "recipes:list";
-    private static final long CACHE_TTL_HOURS = 12;
+    @Value("${recipe.batch.chunk-size:100}")
+    private int batchChunkSize;
     
     @Transactional
     public RecipeResponseDto createRecipe(RecipeRequestDto recipeRequestDto) {
         log.info("Creating new recipe: {}", recipeRequestDto.getTitle());
         
-        // 1. Recipe 저장 (기본 정보)
+        // 1. 재료/태그 이름 → id (사전에 없는 이름만 upsert 한 번 + 조회 한 번)
+        Map<String, Long> ingredientIds = recipeRequestDto.getIngredients() == null ? Map.of()
+                : dictionary.resolveIngredientIds(recipeRequestDto.getIngredients().stream()
+                        .map(RecipeIngredientDto::getIngredientName)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()));
+        Map<String, Long> tagIds = recipeRequestDto.getTags() == null ? Map.of()
+                : dictionary.resolveTagIds(recipeRequestDto.getTags().stream()
+                        .map(TagDto::getName)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()));
+        
+        // 2. Recipe 저장 (기본 정보)
         Recipe recipe = recipeMapper.toEntity(recipeRequestDto);
+        // 시퀀스 id라 INSERT는 커밋 시 하위 테이블과 함께 JDBC 배치로 나간다
         Recipe savedRecipe = recipeRepository.save(recipe);
 
         Long recipeId = savedRecipe.getId();
+        
+        // 이미지 자동 생성 (옵션): 외부 API를 트랜잭션 안에서 기다리지 않고 작업만 넣는다
+        if (savedRecipe.getImageUrl() == null || savedRecipe.getImageUrl().isEmpty()) {
+            recipeImageEnricher.enqueue(recipeId);
+        }
 
-        // 2. 재료 저장 및 연결
-        if (recipeRequestDto.getIngredients() != null && !recipeRequestDto.getIngredients().isEmpty()) {
-            List<Ingredient> ingredientEntities = recipeRequestDto.getIngredients().stream()
-                    .map(dto -> ingredientRepository.findByName(dto.getIngredientName())
-                            .orElseGet(() -> ingredientRepository.save(Ingredient.builder().name(dto.getIngredientName()).build())))
-                    .collect(Collectors.toList());
-            
-            List<RecipeIngredient> recipeIngredients = recipeRequestDto.getIngredients().stream()
-                    .map(dto -> {
-                        Ingredient ingredient = ingredientEntities.stream()
-                                .filter(ing -> ing.getName().equals(dto.getIngredientName()))
-                                .findFirst()
-                                .orElse(null);
-                        return RecipeIngredient.builder()
-                                .recipeId(recipeId)
-                                .ingredientId(ingredient.getId())
-                                .amount(dto.getAmount())
-                                .build();
-                    })
-                    .collect(Collectors.toList());
-            
+        // 3. 재료 연결
+        List<RecipeIngredient> recipeIngredients = toRecipeIngredients(recipeId, recipeRequestDto, ingredientIds);
+        if (!recipeIngredients.isEmpty()) {
             recipeIngredientRepository.saveAll(recipeIngredients);
         }
 
-        // 3. 조리법 저장 (instructions 필드를 steps로 변환)
+        // 4. 조리법 저장 (instructions 필드를 steps로 변환)
+        List<RecipeStep> steps = toRecipeSteps(recipeId, recipeRequestDto);
+        if (!steps.isEmpty()) {
+            recipeStepRepository.saveAll(steps);
+        }
+
+        // 5. 태그 연결
+        List<RecipeTag> recipeTags = toRecipeTags(recipeId, recipeRequestDto, tagIds);
+        if (!recipeTags.isEmpty()) {
+            recipeTagRepository.saveAll(recipeTags);
+        }
+
+        eventPublisher.publishEvent(new RecipeChangedEvent(recipeId, RecipeChangedEvent.Type.CREATED));
+
+        // 6. 응답은 다시 읽지 않고 메모리의 데이터로 만든다 (새 재료/태그 이름은 아직 사전에 없으므로 직접 넘긴다)
+        return recipeMapper.toResponseDto(savedRecipe, steps, recipeIngredients, recipeTags,
+                namesById(ingredientIds), namesById(tagIds));
+    }
+    
+    /**
+     * 여러 레시피를 한 번에 만든다 (POST /recipes/batch). 결과는 요청 순서대로 항목마다 하나씩 돌려준다.
+     * 입력은 먼저 모두 검증하고, 통과한 항목을 batch.chunk-size개씩 별도 트랜잭션으로 저장한다
+     * (Hibernate JDBC 배치, 항목마다 트랜잭션을 열지 않는다). 재료/태그 이름은 청크마다 모아 같은 트랜잭션에서 id로 바꾼다.
+     * 청크가 실패하면 그 청크만 항목별 트랜잭션으로 다시 시도해 실패한 항목만 골라낸다.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<RecipeBatchResultDto> createRecipes(List<RecipeRequestDto> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new IllegalArgumentException("At least one recipe is required");
+        }
+        if (requests.size() > batchMaxSize) {
+            throw new IllegalArgumentException("At most " + batchMaxSize + " recipes can be created at once");
+        }
+        log.info("Creating {} recipes in batch", requests.size());
+        
+        RecipeBatchResultDto[] results = new RecipeBatchResultDto[requests.size()];
+        List<Integer> valid = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validate(requests.get(i));
+            if (error == null) {
+                valid.add(i);
+            } else {
+                results[i] = RecipeBatchResultDto.builder().index(i).success(false).message(error).build();
+            }
+        }
+        
+        if (!valid.isEmpty()) {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            for (int from = 0; from < valid.size(); from += batchChunkSize) {
+                List<Integer> chunk = valid.subList(from, Math.min(from + batchChunkSize, valid.size()));
+                try {
+                    List<Long> ids = saveRecipes(transactionTemplate, chunk.stream().map(requests::get).toList());
+                    for (int j = 0; j < chunk.size(); j++) {
+                        results[chunk.get(j)] = RecipeBatchResultDto.builder()
+                                .index(chunk.get(j)).success(true).recipeId(ids.get(j)).build();
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Batch chunk of {} recipes failed, retrying one by one: {}", chunk.size(), e.getMessage());
+                    for (int i : chunk) {
+                        try {
+                            List<Long> ids = saveRecipes(transactionTemplate, List.of(requests.get(i)));
+                            results[i] = RecipeBatchResultDto.builder().index(i).success(true).recipeId(ids.get(0)).build();
+                        } catch (RuntimeException itemError) {
+                            results[i] = RecipeBatchResultDto.builder()
+                                    .index(i).success(false).message(itemError.getMessage()).build();
+                        }
+                    }
+                }
+            }
+        }
+        
+        return Arrays.asList(results);
+    }
+    
+    // Bean Validation 결과를 "필드: 메시지" 목록으로. 문제가 없으면 null
+    private String validate(RecipeRequestDto request) {
+        if (request == null) {
+            return "Recipe is required";
+        }
+        Set<ConstraintViolation<RecipeRequestDto>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+    
+    private List<Long> saveRecipes(TransactionTemplate transactionTemplate, List<RecipeRequestDto> requests) {
+        try {
+            return transactionTemplate.execute(status -> saveRecipes(requests));
+        } finally {
+            // open-in-view로 요청 전체가 EntityManager 하나를 공유하므로, 롤백된 엔티티가 다음 청크에서 다시 flush되지 않도록 비운다
+            entityManager.clear();
+        }
+    }
+    
+    // 호출 측 트랜잭션 안에서 레시피와 하위 행을 저장하고 id를 요청 순서대로 돌려준다.
+    // 새 재료/태그 이름도 같은 트랜잭션에서 만들어, 청크가 롤백되면 함께 사라진다
+    private List<Long> saveRecipes(List<RecipeRequestDto> requests) {
+        // 재료/태그 이름 → id를 청크 전체에 대해 한 번에 (사전에 없는 이름만 upsert 한 번 + 조회 한 번)
+        Set<String> ingredientNames = new LinkedHashSet<>();
+        Set<String> tagNames = new LinkedHashSet<>();
+        for (RecipeRequestDto request : requests) {
+            if (request.getIngredients() != null) {
+                request.getIngredients().stream()
+                        .map(RecipeIngredientDto::getIngredientName)
+                        .filter(Objects::nonNull)
+                        .forEach(ingredientNames::add);
+            }
+            if (request.getTags() != null) {
+                request.getTags().stream()
+                        .map(TagDto::getName)
+                        .filter(Objects::nonNull)
+                        .forEach(tagNames::add);
+            }
+        }
+        Map<String, Long> ingredientIds = dictionary.resolveIngredientIds(ingredientNames);
+        Map<String, Long> tagIds = dictionary.resolveTagIds(tagNames);
+        
+        List<Recipe> recipes = recipeRepository.saveAll(requests.stream().map(recipeMapper::toEntity).toList());
+        
+        List<Long> ids = new ArrayList<>(recipes.size());
+        List<Long> withoutImage = new ArrayList<>();
+        List<RecipeIngredient> recipeIngredients = new ArrayList<>();
         List<RecipeStep> steps = new ArrayList<>();
+        List<RecipeTag> recipeTags = new ArrayList<>();
+        for (int i = 0; i < recipes.size(); i++) {
+            Recipe recipe = recipes.get(i);
+            Long recipeId = recipe.getId();
+            ids.add(recipeId);
+            if (recipe.getImageUrl() == null || recipe.getImageUrl().isEmpty()) {
+                withoutImage.add(recipeId);
+            }
+            recipeIngredients.addAll(toRecipeIngredients(recipeId, requests.get(i), ingredientIds));
+            steps.addAll(toRecipeSteps(recipeId, requests.get(i)));
+            recipeTags.addAll(toRecipeTags(recipeId, requests.get(i), tagIds));
+        }
+        
+        recipeIngredientRepository.saveAll(recipeIngredients);
+        recipeStepRepository.saveAll(steps);
+        recipeTagRepository.saveAll(recipeTags);
+        recipeImageEnricher.enqueueAll(withoutImage);
         
-        // steps 필드가 있으면 사용
-        if (recipeRequestDto.getSteps() != null && !recipeRequestDto.getSteps().isEmpty()) {
-            steps = recipeRequestDto.getSteps().stream()
-                    .map(dto -> RecipeStep.builder()
+        for (Long recipeId : ids) {
+            eventPublisher.publishEvent(new RecipeChangedEvent(recipeId, RecipeChangedEvent.Type.CREATED));
+        }
+        return ids;
+    }
+    
+    private static Function<Long, String> namesById(Map<String, Long> idsByName) {
+        Map<Long, String> names = new HashMap<>(idsByName.size());
+        idsByName.forEach((name, id) -> names.put(id, name));
+        return names::get;
+    }
+    
+    private static List<RecipeIngredient> toRecipeIngredients(Long recipeId, RecipeRequestDto dto, Map<String, Long> ingredientIds) {
+        if (dto.getIngredients() == null || dto.getIngredients().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return dto.getIngredients().stream()
+                .map(ingredient -> RecipeIngredient.builder()
+                        .recipeId(recipeId)
+                        .ingredientId(ingredientIds.get(ingredient.getIngredientName()))
+                        .amount(ingredient.getAmount())
+                        .build())
+                .collect(Collectors.toList());
+    }
+    
+    // steps 필드가 있으면 그대로, 없으면 instructions (프론트엔드 호환) 를 steps로 변환
+    private static List<RecipeStep> toRecipeSteps(Long recipeId, RecipeRequestDto dto) {
+        if (dto.getSteps() != null && !dto.getSteps().isEmpty()) {
+            return dto.getSteps().stream()
+                    .map(step -> RecipeStep.builder()
                             .recipeId(recipeId)
-                            .stepIndex(dto.getStepIndex())
-                            .description(dto.getDescription())
-                            .imageUrl(dto.getImageUrl())
+                            .stepIndex(step.getStepIndex())
+                            .description(step.getDescription())
+                            .imageUrl(step.getImageUrl())
                             .build())
                     .collect(Collectors.toList());
         }
-        // instructions 필드가 있으면 steps로 변환
-        else if (recipeRequestDto.getInstructions() != null && !recipeRequestDto.getInstructions().isEmpty()) {
-            List<String> instructionImages = recipeRequestDto.getInstructionImages();
-            steps = IntStream.range(0, recipeRequestDto.getInstructions().size())
+        if (dto.getInstructions() != null && !dto.getInstructions().isEmpty()) {
+            List<String> instructionImages = dto.getInstructionImages();
+            return IntStream.range(0, dto.getInstructions().size())
                     .mapToObj(index -> {
-                        String instruction = recipeRequestDto.getInstructions().get(index);
+                        String instruction = dto.getInstructions().get(index);
                         String imageUrl = instructionImages != null && index < instructionImages.size() ? instructionImages.get(index) : null;
                         return RecipeStep.builder()
                                 .recipeId(recipeId)
@@ -118,288 +326,399 @@ public class RecipeService {
                     })
                     .collect(Collectors.toList());
         }
-        
-        if (!steps.isEmpty()) {
-            recipeStepRepository.saveAll(steps);
-        }
-
-        // 4. 태그 저장 및 연결
-        if (recipeRequestDto.getTags() != null && !recipeRequestDto.getTags().isEmpty()) {
-            List<Tag> tagEntities = recipeRequestDto.getTags().stream()
-                    .map(dto -> tagRepository.findByName(dto.getName())
-                            .orElseGet(() -> tagRepository.save(Tag.builder().name(dto.getName()).build())))
-                    .collect(Collectors.toList());
-            
-            List<RecipeTag> recipeTags = recipeRequestDto.getTags().stream()
-                    .map(dto -> {
-                        Tag tag = tagEntities.stream()
-                                .filter(t -> t.getName().equals(dto.getName()))
-                                .findFirst()
-                                .orElse(null);
-                        return RecipeTag.builder()
-                                .recipeId(recipeId)
-                                .tagId(tag.getId())
-                                .build();
-                    })
-                    .collect(Collectors.toList());
-            
-            recipeTagRepository.saveAll(recipeTags);
-        }
-
-        // 5. 이미지 자동 생성 (옵션)
-        if (savedRecipe.getImageUrl() == null || savedRecipe.getImageUrl().isEmpty()) {
-            String imageUrl = unsplashService.getRecipeImage(savedRecipe.getTitle());
-            savedRecipe.setImageUrl(imageUrl);
-            recipeRepository.save(savedRecipe);
+        return new ArrayList<>();
+    }
+    
+    private static List<RecipeTag> toRecipeTags(Long recipeId, RecipeRequestDto dto, Map<String, Long> tagIds) {
+        if (dto.getTags() == null || dto.getTags().isEmpty()) {
+            return new ArrayList<>();
         }
-
-        // 6. 응답용 데이터 조회 및 매핑
-        List<RecipeStep> savedSteps = recipeStepRepository.findByRecipeIdOrderByStepIndex(recipeId);
-        List<RecipeIngredient> savedRecipeIngredients = recipeIngredientRepository.findByRecipeId(recipeId);
-        List<Ingredient> allIngredients = ingredientRepository.findAll();
-        List<RecipeTag> savedRecipeTags = recipeTagRepository.findByRecipeId(recipeId);
-        List<Tag> allTags = tagRepository.findAll();
-
-        return recipeMapper.toResponseDto(savedRecipe, savedSteps, savedRecipeIngredients, allIngredients, savedRecipeTags, allTags);
+        return dto.getTags().stream()
+                .map(tag -> RecipeTag.builder()
+                        .recipeId(recipeId)
+                        .tagId(tagIds.get(tag.getName()))
+                        .build())
+                .collect(Collectors.toList());
     }
     
-    public RecipeResponseDto getRecipeById(Long id) {
+    // 캐시 적중 시 DB 커넥션을 잡지 않도록 트랜잭션 없이 실행하고, 미스일 때만 assembleById가 읽기 트랜잭션을 연다
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public byte[] getRecipeJson(Long id) {
         log.info("Fetching recipe by ID: {}", id);
         
-        Recipe recipe = recipeRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Recipe not found with id: " + id));
-        
-        // 조회수 증가
-        recipe.setViewCount(recipe.getViewCount() + 1);
-        recipeRepository.save(recipe);
-        log.info("View count increased for recipe {}: {}", id, recipe.getViewCount());
+        RecipeJson cached = recipeDetailCache.get(id, recipeAssembler::assembleById);
+        if (cached == null) {
+            throw new RuntimeException("Recipe not found with id: " + id);
+        }
         
-        List<RecipeStep> steps = recipeStepRepository.findByRecipeIdOrderByStepIndex(id);
-        List<RecipeIngredient> recipeIngredients = recipeIngredientRepository.findByRecipeId(id);
-        List<Ingredient> allIngredients = ingredientRepository.findAll();
-        List<RecipeTag> recipeTags = recipeTagRepository.findByRecipeId(id);
-        List<Tag> allTags = tagRepository.findAll();
+        // 캐시된 JSON에는 조회수가 없으므로 저장된 값 + 미반영분을 붙인다.
+        // ETag와 같은 값이 되도록 이번 조회를 기록하기 전에 읽는다 (304 응답도 검사 후에 기록한다)
+        byte[] json = cached.toBytes(viewCountAccumulator.currentCount(id));
         
-        return recipeMapper.toResponseDto(recipe, steps, recipeIngredients, allIngredients, recipeTags, allTags);
+        // 조회수 증가 (write-behind: 행을 갱신하지 않고 누적기에 기록)
+        viewCountAccumulator.increment(id);
+        return json;
+    }
+    
+    /**
+     * 상세 응답의 strong ETag (id + updatedAt + 현재 조회수). 응답 본문에 조회수가 들어가므로 조회수가 바뀌면 ETag도 바뀐다.
+     * 캐시에 있으면 레시피 행을 조회하지 않는다. 레시피가 없으면 null.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public String getRecipeETag(Long id) {
+        RecipeJson cached = recipeDetailCache.peek(id);
+        LocalDateTime version;
+        if (cached != null) {
+            version = cached.version();
+        } else {
+            List<LocalDateTime> versions = recipeRepository.findVersionById(id);
+            if (versions.isEmpty()) {
+                return null;
+            }
+            version = versions.get(0);
+        }
+        long micros = version == null ? 0 : ChronoUnit.MICROS.between(LocalDateTime.of(1970, 1, 1, 0, 0), version);
+        return "\"" + id + "-" + Long.toString(micros, 36) + "-" + viewCountAccumulator.currentCount(id) + "\"";
+    }
+    
+    /**
+     * 본문 없이 (304) 응답한 상세 조회도 조회수에는 포함한다.
+     */
+    public void recordView(Long id) {
+        viewCountAccumulator.increment(id);
     }
     
     public void incrementViewCount(Long id) {
         log.info("Incrementing view count for recipe: {}", id);
         
-        Recipe recipe = recipeRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Recipe not found with id: " + id));
-        
-        recipe.setViewCount(recipe.getViewCount() + 1);
-        recipeRepository.save(recipe);
-        
-        log.info("View count incremented for recipe {}: {}", id, recipe.getViewCount());
+        if (!recipeRepository.existsById(id)) {
+            throw new RuntimeException("Recipe not found with id: " + id);
+        }
+        viewCountAccumulator.increment(id);
     }
     
-    public List<RecipeResponseDto> getAllRecipes() {
+    public List<RecipeResponseDto> getAllRecipes(RecipeFields fields) {
         log.info("Fetching all recipes");
         
         // 페이징 없이 모든 레시피를 가져오는 경우 (기존 방식 유지)
         List<Recipe> recipes = recipeRepository.findAll();
-        
-        // 모든 재료와 태그를 한 번에 가져오기
-        List<Ingredient> allIngredients = ingredientRepository.findAll();
-        List<Tag> allTags = tagRepository.findAll();
-        
-        // 배치 처리를 위한 레시피 ID 목록
-        List<Long> recipeIds = recipes.stream()
-                .map(Recipe::getId)
-                .collect(Collectors.toList());
-        
-        // 모든 관련 데이터를 한 번에 가져와서 맵으로 구성 (final로 선언)
-        final Map<Long, List<RecipeStep>> stepsMap;
-        final Map<Long, List<RecipeIngredient>> ingredientsMap;
-        final Map<Long, List<RecipeTag>> tagsMap;
-        
-        if (!recipeIds.isEmpty()) {
-            // 모든 스텝을 한 번에 가져와서 맵으로 구성
-            List<RecipeStep> allSteps = recipeStepRepository.findByRecipeIdInOrderByRecipeIdAscStepIndexAsc(recipeIds);
-            stepsMap = allSteps.stream()
-                    .collect(Collectors.groupingBy(RecipeStep::getRecipeId));
-            
-            // 모든 재료 연결을 한 번에 가져와서 맵으로 구성
-            List<RecipeIngredient> allRecipeIngredients = recipeIngredientRepository.findByRecipeIdIn(recipeIds);
-            ingredientsMap = allRecipeIngredients.stream()
-                    .collect(Collectors.groupingBy(RecipeIngredient::getRecipeId));
-            
-            // 모든 태그 연결을 한 번에 가져와서 맵으로 구성
-            List<RecipeTag> allRecipeTags = recipeTagRepository.findByRecipeIdIn(recipeIds);
-            tagsMap = allRecipeTags.stream()
-                    .collect(Collectors.groupingBy(RecipeTag::getRecipeId));
-        } else {
-            // 빈 맵으로 초기화
-            stepsMap = new HashMap<>();
-            ingredientsMap = new HashMap<>();
-            tagsMap = new HashMap<>();
-        }
-        
-        return recipes.stream()
-                .map(recipe -> {
-                    List<RecipeStep> steps = stepsMap.getOrDefault(recipe.getId(), new ArrayList<>());
-                    List<RecipeIngredient> recipeIngredients = ingredientsMap.getOrDefault(recipe.getId(), new ArrayList<>());
-                    List<RecipeTag> recipeTags = tagsMap.getOrDefault(recipe.getId(), new ArrayList<>());
-                    return recipeMapper.toResponseDto(recipe, steps, recipeIngredients, allIngredients, recipeTags, allTags);
-                })
-                .collect(Collectors.toList());
+        return recipeAssembler.assemble(recipes, fields);
+    }
+    
+    /**
+     * 전체 레시피를 id 순 커서로 읽어 BATCH_SIZE 단위로 조립해 넘긴다 (GET /recipes NDJSON).
+     * 창마다 영속성 컨텍스트를 비우므로 카탈로그 크기와 무관하게 메모리 사용량이 일정하다.
+     */
+    public void streamAllRecipes(RecipeFields fields, Consumer<List<RecipeResponseDto>> sink) {
+        log.info("Streaming all recipes");
+        
+        int count = 0;
+        try (Stream<Recipe> recipes = recipeRepository.streamAllOrderById()) {
+            Iterator<Recipe> it = recipes.iterator();
+            List<Recipe> window = new ArrayList<>(RecipeAssembler.BATCH_SIZE);
+            while (it.hasNext()) {
+                window.add(it.next());
+                if (window.size() == RecipeAssembler.BATCH_SIZE || !it.hasNext()) {
+                    sink.accept(recipeAssembler.assemble(window, fields));
+                    count += window.size();
+                    window.clear();
+                    entityManager.clear();
+                }
+            }
+        }
+        log.info("Streamed {} recipes", count);
     }
     
-    public Page<RecipeResponseDto> getAllRecipesPaged(int page, int size) {
+    public Page<RecipeResponseDto> getAllRecipesPaged(int page, int size, RecipeFields fields) {
         log.info("Fetching recipes with pagination: page={}, size={}", page, size);
         
         Pageable pageable = PageRequest.of(page, size);
         Page<Recipe> recipePage = recipeRepository.findAllOrderByCreatedAtDesc(pageable);
-        
-        // 모든 재료와 태그를 한 번에 가져오기
-        List<Ingredient> allIngredients = ingredientRepository.findAll();
-        List<Tag> allTags = tagRepository.findAll();
-        
-        // 배치 처리를 위한 레시피 ID 목록
-        List<Long> recipeIds = recipePage.getContent().stream()
-                .map(Recipe::getId)
-                .collect(Collectors.toList());
-        
-        // 모든 관련 데이터를 한 번에 가져와서 맵으로 구성 (final로 선언)
-        final Map<Long, List<RecipeStep>> stepsMap;
-        final Map<Long, List<RecipeIngredient>> ingredientsMap;
-        final Map<Long, List<RecipeTag>> tagsMap;
-        
-        if (!recipeIds.isEmpty()) {
-            // 모든 스텝을 한 번에 가져와서 맵으로 구성
-            List<RecipeStep> allSteps = recipeStepRepository.findByRecipeIdInOrderByRecipeIdAscStepIndexAsc(recipeIds);
-            stepsMap = allSteps.stream()
-                    .collect(Collectors.groupingBy(RecipeStep::getRecipeId));
-            
-            // 모든 재료 연결을 한 번에 가져와서 맵으로 구성
-            List<RecipeIngredient> allRecipeIngredients = recipeIngredientRepository.findByRecipeIdIn(recipeIds);
-            ingredientsMap = allRecipeIngredients.stream()
-                    .collect(Collectors.groupingBy(RecipeIngredient::getRecipeId));
-            
-            // 모든 태그 연결을 한 번에 가져와서 맵으로 구성
-            List<RecipeTag> allRecipeTags = recipeTagRepository.findByRecipeIdIn(recipeIds);
-            tagsMap = allRecipeTags.stream()
-                    .collect(Collectors.groupingBy(RecipeTag::getRecipeId));
-        } else {
-            // 빈 맵으로 초기화
-            stepsMap = new HashMap<>();
-            ingredientsMap = new HashMap<>();
-            tagsMap = new HashMap<>();
-        }
-        
-        return recipePage.map(recipe -> {
-            List<RecipeStep> steps = stepsMap.getOrDefault(recipe.getId(), new ArrayList<>());
-            List<RecipeIngredient> recipeIngredients = ingredientsMap.getOrDefault(recipe.getId(), new ArrayList<>());
-            List<RecipeTag> recipeTags = tagsMap.getOrDefault(recipe.getId(), new ArrayList<>());
-            return recipeMapper.toResponseDto(recipe, steps, recipeIngredients, allIngredients, recipeTags, allTags);
-        });
+        return toDtoPage(recipePage, fields);
     }
     
-    public List<RecipeResponseDto> getBestRecipes(int limit) {
+    // 캐시 적중 시 트랜잭션을 열지 않는다 (로더는 RecipeAssembler의 읽기 트랜잭션에서 실행)
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<RecipeResponseDto> getBestRecipes(int limit, RecipeFields fields) {
         log.info("Fetching best recipes with limit: {}", limit);
         
+        return recipeListCache.best(limit, fields, key -> loadBestRecipes(limit, fields));
+    }
+    
+    private List<RecipeResponseDto> loadBestRecipes(int limit, RecipeFields fields) {
+        // 랭킹 sorted set에서 id만 읽고 한 번에 조립한다. 랭킹이 준비되지 않았거나 Redis 장애 시 DB 정렬로 대체
+        List<Long> rankedIds = bestRecipeIds(limit);
+        if (rankedIds != null) {
+            return recipeAssembler.assembleByIds(rankedIds, fields);
+        }
+        
         Pageable pageable = PageRequest.of(0, limit);
         List<Recipe> recipes = recipeRepository.findTopRecipes(pageable);
-        List<Ingredient> allIngredients = ingredientRepository.findAll();
-        List<Tag> allTags = tagRepository.findAll();
-        
-        return recipes.stream()
-                .map(recipe -> {
-                    List<RecipeStep> steps = recipeStepRepository.findByRecipeIdOrderByStepIndex(recipe.getId());
-                    List<RecipeIngredient> recipeIngredients = recipeIngredientRepository.findByRecipeId(recipe.getId());
-                    List<RecipeTag> recipeTags = recipeTagRepository.findByRecipeId(recipe.getId());
-                    return recipeMapper.toResponseDto(recipe, steps, recipeIngredients, allIngredients, recipeTags, allTags);
-                })
-                .collect(Collectors.toList());
+        return recipeAssembler.assemble(recipes, fields);
+    }
+    
+    /**
+     * 전체 필드 베스트 목록을 레시피별로 미리 직렬화된 JSON 조각으로 돌려준다 (조회수는 현재 값).
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<byte[]> getBestRecipesJson(int limit) {
+        log.info("Fetching best recipes (json) with limit: {}", limit);
+        
+        List<Long> rankedIds = bestRecipeIds(limit);
+        if (rankedIds == null) {
+            rankedIds = recipeRepository.findTopRecipes(PageRequest.of(0, limit)).stream()
+                    .map(Recipe::getId)
+                    .collect(Collectors.toList());
+        }
+        return recipesJson(rankedIds);
     }
     
-    public List<RecipeResponseDto> getRecipesByWriter(String writerId) {
+    private List<byte[]> recipesJson(List<Long> ids) {
+        List<RecipeJson> jsons = recipeDetailCache.getAll(ids, recipeAssembler::assembleByIds);
+        Map<Long, Integer> viewCounts = viewCountAccumulator.currentCounts(
+                jsons.stream().map(RecipeJson::id).collect(Collectors.toList()));
+        List<byte[]> fragments = new ArrayList<>(jsons.size());
+        for (RecipeJson json : jsons) {
+            fragments.add(json.toBytes(viewCounts.get(json.id())));
+        }
+        return fragments;
+    }
+    
+    private List<Long> bestRecipeIds(int limit) {
+        if (!bestRecipeLeaderboard.isReady()) {
+            return null;
+        }
+        try {
+            return bestRecipeLeaderboard.top(limit);
+        } catch (Exception e) {
+            log.warn("Best recipe leaderboard unavailable: {}", e.getMessage());
+            return null;
+        }
+    }
+    
+    public List<RecipeResponseDto> getRecipesByWriter(String writerId, RecipeFields fields) {
         log.info("Fetching recipes by writer: {}", writerId);
         
-        return recipeRepository.findByWriterId(writerId)
-                .stream()
-                .map(recipe -> {
-                    List<RecipeStep> steps = recipeStepRepository.findByRecipeIdOrderByStepIndex(recipe.getId());
-                    List<RecipeIngredient> recipeIngredients = recipeIngredientRepository.findByRecipeId(recipe.getId());
-                    List<Ingredient> allIngredients = ingredientRepository.findAll();
-                    List<RecipeTag> recipeTags = recipeTagRepository.findByRecipeId(recipe.getId());
-                    List<Tag> allTags = tagRepository.findAll();
-                    return recipeMapper.toResponseDto(recipe, steps, recipeIngredients, allIngredients, recipeTags, allTags);
-                })
-                .collect(Collectors.toList());
+        List<Recipe> recipes = recipeRepository.findByWriterId(writerId);
+        return recipeAssembler.assemble(recipes, fields);
     }
     
-    public List<RecipeResponseDto> searchRecipes(String keyword) {
-        log.info("Searching recipes with keyword: {}", keyword);
+    public Page<RecipeResponseDto> searchRecipes(String keyword, int page, int size, RecipeFields fields) {
+        log.info("Searching recipes with keyword: {}, page={}, size={}", keyword, page, size);
+        
+        Pageable pageable = PageRequest.of(page, size);
+        
+        // memory: 인메모리 색인 (구축 전에는 DB 부분 일치 검색), postgres: pg_trgm 인덱스 검색, like: DB 부분 일치 검색
+        if (recipeSearchIndex.isEnabled() && recipeSearchIndex.isReady()) {
+            RecipeSearchIndex.Hits hits = recipeSearchIndex.search(keyword, (int) pageable.getOffset(), size);
+            List<RecipeResponseDto> content = recipeAssembler.assembleByIds(hits.getRecipeIds(), fields);
+            return new PageImpl<>(content, pageable, hits.getTotal());
+        }
+        
+        if (POSTGRES_SEARCH_MODE.equalsIgnoreCase(searchMode)) {
+            String pattern = "%" + escapeLike(keyword) + "%";
+            List<Recipe> recipes = recipeRepository.searchByTrigram(keyword, pattern, size, pageable.getOffset());
+            return new PageImpl<>(recipeAssembler.assemble(recipes, fields), pageable, recipeRepository.countByTrigram(pattern));
+        }
         
         List<Recipe> recipes = recipeRepository.findByTitleOrDescriptionContainingIgnoreCase(keyword);
-        List<Ingredient> allIngredients = ingredientRepository.findAll();
-        List<Tag> allTags = tagRepository.findAll();
-        
-        return recipes.stream()
-                .map(recipe -> {
-                    List<RecipeStep> steps = recipeStepRepository.findByRecipeIdOrderByStepIndex(recipe.getId());
-                    List<RecipeIngredient> recipeIngredients = recipeIngredientRepository.findByRecipeId(recipe.getId());
-                    List<RecipeTag> recipeTags = recipeTagRepository.findByRecipeId(recipe.getId());
-                    return recipeMapper.toResponseDto(recipe, steps, recipeIngredients, allIngredients, recipeTags, allTags);
-                })
-                .collect(Collectors.toList());
+        int from = (int) Math.min(pageable.getOffset(), recipes.size());
+        int to = Math.min(from + size, recipes.size());
+        return new PageImpl<>(recipeAssembler.assemble(recipes.subList(from, to), fields), pageable, recipes.size());
     }
     
-    public List<RecipeResponseDto> getRecipesByDifficulty(String difficulty) {
+    public List<RecipeResponseDto> getRecipesByDifficulty(String difficulty, RecipeFields fields) {
         log.info("Fetching recipes by difficulty: {}", difficulty);
         
         List<Recipe> recipes = recipeRepository.findByDifficulty(difficulty);
-        List<Ingredient> allIngredients = ingredientRepository.findAll();
-        List<Tag> allTags = tagRepository.findAll();
-        
-        return recipes.stream()
-                .map(recipe -> {
-                    List<RecipeStep> steps = recipeStepRepository.findByRecipeIdOrderByStepIndex(recipe.getId());
-                    List<RecipeIngredient> recipeIngredients = recipeIngredientRepository.findByRecipeId(recipe.getId());
-                    List<RecipeTag> recipeTags = recipeTagRepository.findByRecipeId(recipe.getId());
-                    return recipeMapper.toResponseDto(recipe, steps, recipeIngredients, allIngredients, recipeTags, allTags);
-                })
-                .collect(Collectors.toList());
+        return recipeAssembler.assemble(recipes, fields);
     }
     
-    public List<RecipeResponseDto> getRecipesByCookingTime(Integer maxTime) {
+    public List<RecipeResponseDto> getRecipesByCookingTime(Integer maxTime, RecipeFields fields) {
         log.info("Fetching recipes with cooking time <= {}", maxTime);
         
         List<Recipe> recipes = recipeRepository.findByCookingTimeLessThanEqual(maxTime);
-        List<Ingredient> allIngredients = ingredientRepository.findAll();
-        List<Tag> allTags = tagRepository.findAll();
-        
-        return recipes.stream()
-                .map(recipe -> {
-                    List<RecipeStep> steps = recipeStepRepository.findByRecipeIdOrderByStepIndex(recipe.getId());
-                    List<RecipeIngredient> recipeIngredients = recipeIngredientRepository.findByRecipeId(recipe.getId());
-                    List<RecipeTag> recipeTags = recipeTagRepository.findByRecipeId(recipe.getId());
-                    return recipeMapper.toResponseDto(recipe, steps, recipeIngredients, allIngredients, recipeTags, allTags);
-                })
-                .collect(Collectors.toList());
+        return recipeAssembler.assemble(recipes, fields);
     }
     
-    public Page<RecipeResponseDto> getRecentRecipes(int page, int size) {
+    public Page<RecipeResponseDto> getRecentRecipes(int page, int size, RecipeFields fields) {
         log.info("Fetching recent recipes: page={}, size={}", page, size);
         
         Pageable pageable = PageRequest.of(page, size);
         Page<Recipe> recipePage = recipeRepository.findAllOrderByCreatedAtDesc(pageable);
-        List<Ingredient> allIngredients = ingredientRepository.findAll();
-        List<Tag> allTags = tagRepository.findAll();
+        return toDtoPage(recipePage, fields);
+    }
+    
+    /**
+     * 카드 목록용 요약 (fields=summary). recipes 테이블 컬럼만 projection으로 읽는다.
+     */
+    public Page<RecipeSummaryDto> getRecipeSummariesPaged(int page, int size) {
+        log.info("Fetching recipe summaries: page={}, size={}", page, size);
+        
+        return recipeRepository.findSummariesOrderByCreatedAtDesc(PageRequest.of(page, size));
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<RecipeSummaryDto> getBestRecipeSummaries(int limit) {
+        log.info("Fetching best recipe summaries with limit: {}", limit);
+        
+        return recipeListCache.bestSummaries(limit, key -> loadBestRecipeSummaries(limit));
+    }
+    
+    private List<RecipeSummaryDto> loadBestRecipeSummaries(int limit) {
+        List<Long> rankedIds = bestRecipeIds(limit);
+        if (rankedIds == null) {
+            return recipeRepository.findTopSummaries(PageRequest.of(0, limit));
+        }
+        
+        return summariesByIds(rankedIds);
+    }
+    
+    /**
+     * 시간 감쇠 조회수 기준 트렌딩 레시피. 랭킹 sorted set에서 id를 읽어 한 번에 조립한다.
+     */
+    public List<RecipeResponseDto> getTrendingRecipes(int limit, Duration halfLife, RecipeFields fields) {
+        log.info("Fetching trending recipes: limit={}, halfLife={}", limit, halfLife);
+        
+        return recipeAssembler.assembleByIds(trendingRecipes.top(halfLife, limit), fields);
+    }
+    
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<byte[]> getTrendingRecipesJson(int limit, Duration halfLife) {
+        log.info("Fetching trending recipes (json): limit={}, halfLife={}", limit, halfLife);
+        
+        return recipesJson(trendingRecipes.top(halfLife, limit));
+    }
+    
+    public List<RecipeSummaryDto> getTrendingRecipeSummaries(int limit, Duration halfLife) {
+        log.info("Fetching trending recipe summaries: limit={}, halfLife={}", limit, halfLife);
+        
+        return summariesByIds(trendingRecipes.top(halfLife, limit));
+    }
+    
+    // 주어진 id 순서를 유지한 요약 목록 (없는 id는 건너뜀)
+    private List<RecipeSummaryDto> summariesByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, RecipeSummaryDto> byId = new HashMap<>();
+        for (RecipeSummaryDto summary : recipeRepository.findSummariesByIdIn(ids)) {
+            byId.put(summary.getId(), summary);
+        }
+        List<RecipeSummaryDto> summaries = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            RecipeSummaryDto summary = byId.get(id);
+            if (summary != null) {
+                summaries.add(summary);
+            }
+        }
+        return summaries;
+    }
+    
+    /**
+     * 최신순 키셋 페이지 (/paged, /recent 의 cursor 모드). 빈 커서는 첫 페이지.
+     */
+    public RecipeCursorPageDto getLatestRecipesAfter(String cursor, int size, boolean withTotal, RecipeFields fields) {
+        log.info("Fetching latest recipes by cursor: size={}", size);
+        
+        checkCursorPageSize(size);
+        RecipeCursor after = RecipeCursor.decode(cursor, RecipeCursor.CREATED_AT);
+        List<Recipe> recipes = after == null
+                ? recipeRepository.findLatestBefore(RecipeCursor.MAX_CREATED_AT, Long.MAX_VALUE, size + 1)
+                : recipeRepository.findLatestBefore(after.createdAt(), after.id(), size + 1);
+        return toCursorPage(recipes, size, fields,
+                last -> RecipeCursor.encode(last.getCreatedAt(), last.getId()),
+                withTotal ? recipeRepository::count : null);
+    }
+    
+    public RecipeCursorPageDto getBestRecipesAfter(String cursor, int size, boolean withTotal, RecipeFields fields) {
+        log.info("Fetching best recipes by cursor: size={}", size);
+        
+        checkCursorPageSize(size);
+        RecipeCursor after = RecipeCursor.decode(cursor, RecipeCursor.VIEW_COUNT);
+        List<Recipe> recipes = after == null
+                ? recipeRepository.findTopBefore(Long.MAX_VALUE, Long.MAX_VALUE, size + 1)
+                : recipeRepository.findTopBefore(after.sortKey(), after.id(), size + 1);
+        return toCursorPage(recipes, size, fields,
+                last -> RecipeCursor.encode(RecipeCursor.VIEW_COUNT, last.getViewCount(), last.getId()),
+                withTotal ? recipeRepository::count : null);
+    }
+    
+    public RecipeCursorPageDto getRecipesByDifficultyAfter(String difficulty, String cursor, int size, boolean withTotal, RecipeFields fields) {
+        log.info("Fetching recipes by difficulty by cursor: {}, size={}", difficulty, size);
+        
+        checkCursorPageSize(size);
+        RecipeCursor after = RecipeCursor.decode(cursor, RecipeCursor.CREATED_AT);
+        List<Recipe> recipes = after == null
+                ? recipeRepository.findByDifficultyBefore(difficulty, RecipeCursor.MAX_CREATED_AT, Long.MAX_VALUE, size + 1)
+                : recipeRepository.findByDifficultyBefore(difficulty, after.createdAt(), after.id(), size + 1);
+        return toCursorPage(recipes, size, fields,
+                last -> RecipeCursor.encode(last.getCreatedAt(), last.getId()),
+                withTotal ? () -> recipeRepository.countByDifficulty(difficulty) : null);
+    }
+    
+    public RecipeCursorPageDto getRecipesByCookingTimeAfter(Integer maxTime, String cursor, int size, boolean withTotal, RecipeFields fields) {
+        log.info("Fetching recipes with cooking time <= {} by cursor: size={}", maxTime, size);
+        
+        checkCursorPageSize(size);
+        RecipeCursor after = RecipeCursor.decode(cursor, RecipeCursor.CREATED_AT);
+        List<Recipe> recipes = after == null
+                ? recipeRepository.findByCookingTimeBefore(maxTime, RecipeCursor.MAX_CREATED_AT, Long.MAX_VALUE, size + 1)
+                : recipeRepository.findByCookingTimeBefore(maxTime, after.createdAt(), after.id(), size + 1);
+        return toCursorPage(recipes, size, fields,
+                last -> RecipeCursor.encode(last.getCreatedAt(), last.getId()),
+                withTotal ? () -> recipeRepository.countByCookingTimeLessThanEqual(maxTime) : null);
+    }
+    
+    private static void checkCursorPageSize(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive");
+        }
+    }
+    
+    // size + 1 건을 조회해 다음 페이지 존재 여부를 판단한다
+    private RecipeCursorPageDto toCursorPage(List<Recipe> fetched, int size, RecipeFields fields, Function<Recipe, String> cursorOf, Supplier<Long> total) {
+        boolean hasNext = fetched.size() > size;
+        List<Recipe> recipes = hasNext ? fetched.subList(0, size) : fetched;
+        
+        return RecipeCursorPageDto.builder()
+                .recipes(recipeAssembler.assemble(recipes, fields))
+                .nextCursor(hasNext ? cursorOf.apply(recipes.get(recipes.size() - 1)) : null)
+                .hasNext(hasNext)
+                .totalElements(total != null ? total.get() : null)
+                .build();
+    }
+    
+    /**
+     * 재료 이름으로 레시피 검색. 모든 검색어가 (부분 문자열로) 재료에 포함된 레시피만 최신순으로 반환한다.
+     */
+    public Page<RecipeResponseDto> searchRecipesByIngredients(List<String> terms, int page, int size, RecipeFields fields) {
+        log.info("Searching recipes by ingredients: {}, page={}, size={}", terms, page, size);
+        
+        Pageable pageable = PageRequest.of(page, size);
+        long[] recipeIds = terms.isEmpty() ? new long[0] : ingredientRecipeIndex.search(terms);
         
-        return recipePage.map(recipe -> {
-            List<RecipeStep> steps = recipeStepRepository.findByRecipeIdOrderByStepIndex(recipe.getId());
-            List<RecipeIngredient> recipeIngredients = recipeIngredientRepository.findByRecipeId(recipe.getId());
-            List<RecipeTag> recipeTags = recipeTagRepository.findByRecipeId(recipe.getId());
-            return recipeMapper.toResponseDto(recipe, steps, recipeIngredients, allIngredients, recipeTags, allTags);
-        });
+        int from = (int) Math.min(pageable.getOffset(), recipeIds.length);
+        int to = Math.min(from + size, recipeIds.length);
+        List<Long> pageIds = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            pageIds.add(recipeIds[i]);
+        }
+        
+        List<RecipeResponseDto> content = recipeAssembler.assembleByIds(pageIds, fields);
+        return new PageImpl<>(content, pageable, recipeIds.length);
+    }
+    
+    private static String escapeLike(String keyword) {
+        return keyword.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+    
+    private Page<RecipeResponseDto> toDtoPage(Page<Recipe> recipePage, RecipeFields fields) {
+        List<RecipeResponseDto> content = recipeAssembler.assemble(recipePage.getContent(), fields);
+        return new PageImpl<>(content, recipePage.getPageable(), recipePage.getTotalElements());
     }
     
     @Transactional
-    @CacheEvict(value = "recipes", key = "#id")
     public RecipeResponseDto updateRecipe(Long id, RecipeRequestDto recipeRequestDto) {
         log.info("Updating recipe: {}", id);
         
@@ -419,24 +738,102 @@ public class RecipeService {
         recipe.setMainIngredient(recipeRequestDto.getMainIngredient());
         recipe.setCookingMethod(recipeRequestDto.getCookingMethod());
         
+        // 하위 행만 바뀐 경우에도 상세 ETag가 바뀌도록 직접 올린다
+        recipe.setUpdatedAt(LocalDateTime.now());
         Recipe updatedRecipe = recipeRepository.save(recipe);
         
-        // Update related entities (steps, ingredients, tags)
-        // This would require more complex logic to handle updates
-        // For now, we'll return the updated recipe with existing related data
+        // 하위 목록은 요청에 들어온 것만 현재 행과 비교해 바뀐 행만 INSERT/UPDATE/DELETE 한다 (null이면 그대로 둔다)
+        Map<String, Long> ingredientIds = recipeRequestDto.getIngredients() == null ? Map.of()
+                : dictionary.resolveIngredientIds(recipeRequestDto.getIngredients().stream()
+                        .map(RecipeIngredientDto::getIngredientName)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()));
+        Map<String, Long> tagIds = recipeRequestDto.getTags() == null ? Map.of()
+                : dictionary.resolveTagIds(recipeRequestDto.getTags().stream()
+                        .map(TagDto::getName)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toList()));
         
         List<RecipeStep> steps = recipeStepRepository.findByRecipeIdOrderByStepIndex(id);
+        if (recipeRequestDto.getSteps() != null || recipeRequestDto.getInstructions() != null) {
+            steps = mergeRows(steps, toRecipeSteps(id, recipeRequestDto), RecipeStep::getStepIndex, RecipeStep::getId,
+                    (current, incoming) -> {
+                        current.setDescription(incoming.getDescription());
+                        current.setImageUrl(incoming.getImageUrl());
+                    }, recipeStepRepository);
+            steps.sort(Comparator.comparing(RecipeStep::getStepIndex, Comparator.nullsLast(Comparator.naturalOrder())));
+        }
+        
         List<RecipeIngredient> recipeIngredients = recipeIngredientRepository.findByRecipeId(id);
-        List<Ingredient> allIngredients = ingredientRepository.findAll();
+        if (recipeRequestDto.getIngredients() != null) {
+            recipeIngredients = mergeRows(recipeIngredients, toRecipeIngredients(id, recipeRequestDto, ingredientIds),
+                    RecipeIngredient::getIngredientId, RecipeIngredient::getId,
+                    (current, incoming) -> current.setAmount(incoming.getAmount()), recipeIngredientRepository);
+        }
+        
         List<RecipeTag> recipeTags = recipeTagRepository.findByRecipeId(id);
-        List<Tag> allTags = tagRepository.findAll();
+        if (recipeRequestDto.getTags() != null) {
+            recipeTags = mergeRows(recipeTags, toRecipeTags(id, recipeRequestDto, tagIds),
+                    RecipeTag::getTagId, RecipeTag::getId, (current, incoming) -> { }, recipeTagRepository);
+        }
+        
+        eventPublisher.publishEvent(new RecipeChangedEvent(id, RecipeChangedEvent.Type.UPDATED));
         
         log.info("Recipe updated successfully: {}", id);
-        return recipeMapper.toResponseDto(updatedRecipe, steps, recipeIngredients, allIngredients, recipeTags, allTags);
+        // 이번에 새로 생긴 재료/태그 이름은 커밋 전이라 사전에 아직 없다
+        Function<Long, String> newIngredientNames = namesById(ingredientIds);
+        Function<Long, String> newTagNames = namesById(tagIds);
+        // 사전에도 없으면 (다른 노드에서 막 지워진 경우 등) 이름은 null로 둔다
+        return recipeMapper.toResponseDto(updatedRecipe, steps, recipeIngredients, recipeTags,
+                ingredientId -> {
+                    String name = newIngredientNames.apply(ingredientId);
+                    return name != null ? name : dictionary.ingredientName(ingredientId);
+                },
+                tagId -> {
+                    String name = newTagNames.apply(tagId);
+                    return name != null ? name : dictionary.tagName(tagId);
+                });
+    }
+    
+    /**
+     * 현재 행과 요청 행을 key로 짝지어 바뀐 만큼만 반영하고 최종 행 목록을 돌려준다.
+     * 짝이 있으면 관리 상태인 현재 엔티티에 값을 옮겨 값이 달라진 행만 flush 때 UPDATE되고,
+     * 짝이 없는 요청 행은 saveAll (JDBC 배치 INSERT), 남은 현재 행은 DELETE 한 번으로 지운다.
+     * 같은 key가 여러 번 나오면 순서대로 짝짓는다.
+     */
+    static <E, K> List<E> mergeRows(List<E> currentRows, List<E> incomingRows, Function<E, K> key,
+                                    Function<E, Long> id, BiConsumer<E, E> copy, JpaRepository<E, Long> repository) {
+        Map<K, Deque<E>> unmatched = new HashMap<>();
+        for (E row : currentRows) {
+            unmatched.computeIfAbsent(key.apply(row), k -> new ArrayDeque<>()).add(row);
+        }
+        
+        List<E> result = new ArrayList<>(incomingRows.size());
+        List<E> inserts = new ArrayList<>();
+        for (E incoming : incomingRows) {
+            Deque<E> candidates = unmatched.get(key.apply(incoming));
+            E current = candidates == null ? null : candidates.poll();
+            if (current == null) {
+                inserts.add(incoming);
+                result.add(incoming);
+            } else {
+                copy.accept(current, incoming);
+                result.add(current);
+            }
+        }
+        
+        List<E> deletes = new ArrayList<>();
+        unmatched.values().forEach(deletes::addAll);
+        if (!deletes.isEmpty()) {
+            repository.deleteAllByIdInBatch(deletes.stream().map(id).toList());
+        }
+        if (!inserts.isEmpty()) {
+            repository.saveAll(inserts);
+        }
+        return result;
     }
     
     @Transactional
-    @CacheEvict(value = "recipes", key = "#id")
     public void deleteRecipe(Long id) {
         log.info("Deleting recipe: {}", id);
         
@@ -445,10 +842,8 @@ public class RecipeService {
         }
         
         recipeRepository.deleteById(id);
-        
-        // Remove from cache
-        evictRecipeFromCache(id);
-        evictListCache();
+        // 상세 캐시(L1/L2)는 커밋 후 RecipeDetailCache가 이 이벤트로 비운다
+        eventPublisher.publishEvent(new RecipeChangedEvent(id, RecipeChangedEvent.Type.DELETED));
         
         log.info("Recipe deleted successfully: {}", id);
     }
@@ -456,33 +851,4 @@ public class RecipeService {
     public Long getRecipeCountByWriter(String writerId) {
         return recipeRepository.countByWriterId(writerId);
     }
-    
-    private void cacheRecipe(Recipe recipe) {
-        try {
-            String cacheKey = RECIPE_CACHE_KEY + recipe.getId();
-            redisTemplate.opsForValue().set(cacheKey, recipe, CACHE_TTL_HOURS, TimeUnit.HOURS);
-            log.debug("Recipe cached: {}", recipe.getId());
-        } catch (Exception e) {
-            log.warn("Failed to cache recipe {}: {}", recipe.getId(), e.getMessage());
-        }
-    }
-    
-    private void evictRecipeFromCache(Long recipeId) {
-        try {
-            String cacheKey = RECIPE_CACHE_KEY + recipeId;
-            redisTemplate.delete(cacheKey);
-            log.debug("Recipe evicted from cache: {}", recipeId);
-        } catch (Exception e) {
-            log.warn("Failed to evict recipe {} from cache: {}", recipeId, e.getMessage());
-        }
-    }
-    
-    private void evictListCache() {
-        try {
-            redisTemplate.delete(RECIPES_LIST_CACHE_KEY);
-            log.debug("Recipe list cache evicted");
-        } catch (Exception e) {
-            log.warn("Failed to evict recipe list cache: {}", e.getMessage());
-        }
-    }
-}
\ No newline at end of file
+}
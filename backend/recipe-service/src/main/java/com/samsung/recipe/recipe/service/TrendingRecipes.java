@@ -0,0 +1,192 @@
+package com.samsung.recipe.recipe.service;
+
+import com.samsung.recipe.recipe.event.RecipeChangedEvent;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 시간 감쇠 트렌딩 랭킹 (forward decay).
+ * 조회 한 건의 가중치를 2^((t - landmark) / halfLife) 로 두면 누적 점수의 순위가
+ * 현재 시점 기준 지수 감쇠 점수의 순위와 같으므로, 기존 점수를 건드리지 않고 ZINCRBY만으로 갱신할 수 있다.
+ * t는 bucket 단위로 내림하고, 주기적으로 landmark를 앞당기며 점수를 재조정해 값이 커지지 않게 한다.
+ * half-life마다 sorted set을 하나씩 둔다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TrendingRecipes {
+
+    private static final String KEY_PREFIX = "recipes:trending:";
+
+    // KEYS[1]=zset, KEYS[2]=landmark / ARGV[1]=now, ARGV[2]=halfLife(초), ARGV[3..]=recipeId, delta 쌍
+    private static final RedisScript<Long> RECORD_SCRIPT = new DefaultRedisScript<>(
+            "local now = tonumber(ARGV[1]) "
+            + "local landmark = tonumber(redis.call('GET', KEYS[2])) "
+            + "if not landmark then landmark = now; redis.call('SET', KEYS[2], ARGV[1]) end "
+            + "local weight = 2 ^ ((now - landmark) / tonumber(ARGV[2])) "
+            + "for i = 3, #ARGV, 2 do "
+            + "  redis.call('ZINCRBY', KEYS[1], string.format('%.17g', weight * tonumber(ARGV[i + 1])), ARGV[i]) "
+            + "end "
+            + "return (#ARGV - 2) / 2", Long.class);
+
+    // 지난 half-life 수만큼 점수를 2^-n 배로 줄이고 landmark를 옮긴 뒤 꼬리를 잘라낸다
+    // ARGV[1]=now, ARGV[2]=halfLife(초), ARGV[3]=최대 보관 수, ARGV[4]=최소 점수
+    private static final RedisScript<Long> RESCALE_SCRIPT = new DefaultRedisScript<>(
+            "local landmark = tonumber(redis.call('GET', KEYS[2])) "
+            + "if not landmark then return 0 end "
+            + "local halfLife = tonumber(ARGV[2]) "
+            + "local n = math.floor((tonumber(ARGV[1]) - landmark) / halfLife) "
+            + "if n >= 1 then "
+            + "  redis.call('ZUNIONSTORE', KEYS[1], 1, KEYS[1], 'WEIGHTS', string.format('%.17g', 2 ^ (-n))) "
+            + "  redis.call('SET', KEYS[2], string.format('%d', landmark + n * halfLife)) "
+            + "end "
+            + "redis.call('ZREMRANGEBYSCORE', KEYS[1], '-inf', '(' .. ARGV[4]) "
+            + "redis.call('ZREMRANGEBYRANK', KEYS[1], 0, -(tonumber(ARGV[3]) + 1)) "
+            + "return n", Long.class);
+
+    // 1회 조회가 이 값 아래로 감쇠한 항목은 랭킹에서 제외 (약 10 half-life)
+    private static final String MIN_SCORE = "0.001";
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Value("${recipe.trending.half-lives:6h,24h,7d}")
+    private String halfLivesProperty;
+
+    @Value("${recipe.trending.default-half-life:24h}")
+    private String defaultHalfLifeProperty;
+
+    @Value("${recipe.trending.bucket-seconds:60}")
+    private long bucketSeconds;
+
+    @Value("${recipe.trending.max-size:1000}")
+    private int maxSize;
+
+    private List<Duration> halfLives;
+    private Duration defaultHalfLife;
+
+    @PostConstruct
+    void init() {
+        List<Duration> parsed = new ArrayList<>();
+        for (String value : halfLivesProperty.split(",")) {
+            if (!value.isBlank()) {
+                parsed.add(DurationStyle.detectAndParse(value.trim()));
+            }
+        }
+        halfLives = List.copyOf(parsed);
+        defaultHalfLife = DurationStyle.detectAndParse(defaultHalfLifeProperty.trim());
+        if (!halfLives.contains(defaultHalfLife)) {
+            throw new IllegalStateException("recipe.trending.default-half-life must be one of recipe.trending.half-lives");
+        }
+    }
+
+    /**
+     * 요청 파라미터의 half-life를 해석한다. 비어 있으면 기본값.
+     *
+     * @throws IllegalArgumentException 설정되지 않은 half-life인 경우
+     */
+    public Duration resolveHalfLife(String halfLife) {
+        if (halfLife == null || halfLife.isBlank()) {
+            return defaultHalfLife;
+        }
+        Duration duration = DurationStyle.detectAndParse(halfLife.trim());
+        if (!halfLives.contains(duration)) {
+            throw new IllegalArgumentException("Unsupported halfLife: " + halfLife + " (supported: " + halfLivesProperty + ")");
+        }
+        return duration;
+    }
+
+    /**
+     * 현재 감쇠 점수 기준 상위 limit개의 레시피 id. ZREVRANGE 한 번으로 끝난다.
+     */
+    public List<Long> top(Duration halfLife, int limit) {
+        Set<String> members = stringRedisTemplate.opsForZSet().reverseRange(key(halfLife), 0, limit - 1L);
+        List<Long> ids = new ArrayList<>(members == null ? 0 : members.size());
+        if (members != null) {
+            for (String member : members) {
+                ids.add(Long.valueOf(member));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * flush된 조회수 증가분을 현재 bucket 시각의 가중치로 반영한다 (ViewCountAccumulator에서 호출).
+     */
+    public void record(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        String[] args = new String[2 + deltas.size() * 2];
+        args[0] = Long.toString(currentBucket());
+        int i = 2;
+        for (Map.Entry<Long, Long> entry : deltas.entrySet()) {
+            args[i++] = entry.getKey().toString();
+            args[i++] = entry.getValue().toString();
+        }
+
+        for (Duration halfLife : halfLives) {
+            args[1] = Long.toString(halfLife.getSeconds());
+            try {
+                stringRedisTemplate.execute(RECORD_SCRIPT, keys(halfLife), (Object[]) args);
+            } catch (Exception e) {
+                log.warn("Failed to record trending views (halfLife={}): {}", halfLife, e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${recipe.trending.rescale-interval-ms:600000}")
+    public void rescale() {
+        String now = Long.toString(currentBucket());
+        for (Duration halfLife : halfLives) {
+            try {
+                stringRedisTemplate.execute(RESCALE_SCRIPT, keys(halfLife),
+                        now, Long.toString(halfLife.getSeconds()), Integer.toString(maxSize), MIN_SCORE);
+            } catch (Exception e) {
+                log.warn("Failed to rescale trending scores (halfLife={}): {}", halfLife, e.getMessage());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.getType() != RecipeChangedEvent.Type.DELETED || event.isRemote()) {
+            return;
+        }
+        for (Duration halfLife : halfLives) {
+            try {
+                stringRedisTemplate.opsForZSet().remove(key(halfLife), event.getRecipeId().toString());
+            } catch (Exception e) {
+                log.warn("Failed to remove recipe {} from trending: {}", event.getRecipeId(), e.getMessage());
+            }
+        }
+    }
+
+    private long currentBucket() {
+        long now = System.currentTimeMillis() / 1000;
+        return now - now % bucketSeconds;
+    }
+
+    private static String key(Duration halfLife) {
+        return KEY_PREFIX + halfLife.getSeconds();
+    }
+
+    private static List<String> keys(Duration halfLife) {
+        return Arrays.asList(key(halfLife), key(halfLife) + ":landmark");
+    }
+}
@@ -0,0 +1,61 @@
+package com.samsung.recipe.recipe.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Unsplash API 호출용 토큰 버킷. 할당량은 access key 단위라 모든 노드가 Redis의 버킷 하나를 공유한다.
+ * 토큰이 없으면 기다리지 않고 바로 false를 돌려준다 (호출 측은 placeholder로 대체하거나 나중에 다시 시도).
+ * Redis에 접근할 수 없으면 할당량을 지키는 쪽으로 거절한다.
+ */
+@Component
+@Slf4j
+public class UnsplashRateLimiter {
+
+    private static final String KEY = "unsplash:ratelimit";
+
+    // KEYS[1]=bucket hash / ARGV[1]=capacity, ARGV[2]=ms당 충전량, ARGV[3]=now(ms)
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "local capacity = tonumber(ARGV[1]) "
+            + "local rate = tonumber(ARGV[2]) "
+            + "local now = tonumber(ARGV[3]) "
+            + "local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts') "
+            + "local tokens = tonumber(state[1]) "
+            + "local ts = tonumber(state[2]) "
+            + "if not tokens then tokens = capacity; ts = now end "
+            + "tokens = math.min(capacity, tokens + math.max(0, now - ts) * rate) "
+            + "local allowed = 0 "
+            + "if tokens >= 1 then tokens = tokens - 1; allowed = 1 end "
+            + "redis.call('HSET', KEYS[1], 'tokens', string.format('%.17g', tokens), 'ts', ARGV[3]) "
+            + "redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / rate) + 1000) "
+            + "return allowed", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final String capacity;
+    private final String refillPerMilli;
+
+    public UnsplashRateLimiter(StringRedisTemplate stringRedisTemplate,
+                               @Value("${unsplash.rate-limit.requests-per-hour:50}") int requestsPerHour,
+                               @Value("${unsplash.rate-limit.burst:10}") int burst) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.capacity = String.valueOf(Math.max(1, burst));
+        this.refillPerMilli = String.format("%.17g", requestsPerHour / 3_600_000.0);
+    }
+
+    public boolean tryAcquire() {
+        try {
+            Long allowed = stringRedisTemplate.execute(ACQUIRE_SCRIPT, List.of(KEY),
+                    capacity, refillPerMilli, String.valueOf(System.currentTimeMillis()));
+            return allowed != null && allowed == 1L;
+        } catch (Exception e) {
+            log.warn("Unsplash rate limiter unavailable, rejecting request: {}", e.getMessage());
+            return false;
+        }
+    }
+}
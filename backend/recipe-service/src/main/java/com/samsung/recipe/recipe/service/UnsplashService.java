@@ -1,46 +1,203 @@
 package com.samsung.recipe.recipe.service;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Semaphore;
 
+/**
+ * Unsplash 검색으로 레시피 대표 이미지를 찾는다.
+ * 결과는 정규화한 검색어 단위로 캐시하고 (결과 없음도 짧은 TTL로 캐시),
+ * 실제 API 호출은 서킷 브레이커가 닫혀 있고, 공유 토큰 버킷(UnsplashRateLimiter)과
+ * 동시 호출 상한(bulkhead)을 통과한 경우에만 공유 WebClient(unsplashWebClient)로 한다.
+ * 어느 단계에서든 막히면 기다리지 않고 바로 예외를 던지며, getRecipeImage는 placeholder로 대체한다.
+ *
+ * 메트릭: unsplash.lookups{result=hit|negative_hit|miss|throttled|rejected|error},
+ * unsplash.requests{outcome} 지연시간 히스토그램, recipe.circuit.state{name=unsplash}
+ * 및 Caffeine 통계 (cache=unsplash.search)
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class UnsplashService {
     
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient unsplashWebClient;
+    private final UnsplashRateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    // 동시 외부 호출 상한. 자리가 없으면 기다리지 않는다
+    private final Semaphore bulkhead;
+    private final MeterRegistry meterRegistry;
     
     @Value("${unsplash.access.key:}")
     private String unsplashAccessKey;
     
-    @Value("${unsplash.api.url:https://api.unsplash.com}")
-    private String unsplashApiUrl;
+    // 커넥션/읽기 타임아웃과 별개로 호출 전체에 거는 상한
+    @Value("${unsplash.api.timeout:5s}")
+    private Duration timeout;
+    
+    // 정규화한 검색어 → 이미지 URL (Optional.empty()는 검색 결과 없음).
+    // 로드 중인 검색어는 완료 전 future로 들어 있어 동시 요청이 합쳐지고, 실패한 future는 Caffeine이 제거한다
+    private final AsyncCache<String, Optional<String>> searchCache;
+    
+    private final Counter hits;
+    private final Counter negativeHits;
+    private final Counter misses;
+    private final Counter throttled;
+    private final Counter rejected;
+    private final Counter errors;
+    
+    public UnsplashService(@Qualifier("unsplashWebClient") WebClient unsplashWebClient,
+                           UnsplashRateLimiter rateLimiter,
+                           MeterRegistry meterRegistry,
+                           @Value("${unsplash.cache.max-size:10000}") long maxSize,
+                           @Value("${unsplash.cache.ttl:24h}") Duration ttl,
+                           @Value("${unsplash.cache.negative-ttl:1h}") Duration negativeTtl,
+                           @Value("${unsplash.api.max-concurrent-calls:4}") int maxConcurrentCalls,
+                           @Value("${unsplash.circuit-breaker.window-size:20}") int windowSize,
+                           @Value("${unsplash.circuit-breaker.minimum-calls:5}") int minimumCalls,
+                           @Value("${unsplash.circuit-breaker.failure-rate-threshold:0.5}") double failureRateThreshold,
+                           @Value("${unsplash.circuit-breaker.open-duration:60s}") Duration openDuration) {
+        this.unsplashWebClient = unsplashWebClient;
+        this.rateLimiter = rateLimiter;
+        this.meterRegistry = meterRegistry;
+        this.bulkhead = new Semaphore(maxConcurrentCalls);
+        this.circuitBreaker = new CircuitBreaker("unsplash", windowSize, minimumCalls, failureRateThreshold,
+                openDuration, meterRegistry);
+        this.searchCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Optional<String>>() {
+                    @Override
+                    public long expireAfterCreate(String query, Optional<String> imageUrl, long currentTime) {
+                        return (imageUrl.isPresent() ? ttl : negativeTtl).toNanos();
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(String query, Optional<String> imageUrl, long currentTime, long currentDuration) {
+                        return expireAfterCreate(query, imageUrl, currentTime);
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(String query, Optional<String> imageUrl, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, searchCache, "unsplash.search");
+        this.hits = lookupCounter(meterRegistry, "hit");
+        this.negativeHits = lookupCounter(meterRegistry, "negative_hit");
+        this.misses = lookupCounter(meterRegistry, "miss");
+        this.throttled = lookupCounter(meterRegistry, "throttled");
+        this.rejected = lookupCounter(meterRegistry, "rejected");
+        this.errors = lookupCounter(meterRegistry, "error");
+    }
     
     public String getRecipeImage(String recipeName) {
+        try {
+            String imageUrl = findRecipeImage(recipeName);
+            return imageUrl != null ? imageUrl : getPlaceholderImage();
+            
+        } catch (QuotaExceededException | UnavailableException e) {
+            // 할당량 초과, 서킷 OPEN, 동시 호출 초과는 기다리지 않고 바로 placeholder로 대체한다
+            log.debug("{}", e.getMessage());
+            return getPlaceholderImage();
+        } catch (WebClientResponseException e) {
+            log.error("Error fetching image from Unsplash: {}", e.getMessage());
+            return getPlaceholderImage();
+        } catch (Exception e) {
+            log.error("Unexpected error fetching image: {}", e.getMessage());
+            return getPlaceholderImage();
+        }
+    }
+    
+    /**
+     * 검색 결과 첫 이미지 URL. 결과가 없거나 키가 설정되지 않았으면 placeholder를 쓰도록 null을 반환한다.
+     * 할당량을 넘었으면 QuotaExceededException을, 서킷이 열렸거나 동시 호출이 가득 찼으면 UnavailableException을
+     * 기다리지 않고 던지며, 네트워크 오류/타임아웃/오류 응답도 그대로 예외를 던진다
+     * (재시도 판단은 호출 측, RecipeImageEnricher). 예외는 캐시하지 않는다.
+     */
+    public String findRecipeImage(String recipeName) {
         if (unsplashAccessKey == null || unsplashAccessKey.isEmpty()) {
             log.warn("Unsplash access key not configured, using placeholder image");
-            return getPlaceholderImage();
+            return null;
+        }
+        
+        String query = normalizeQuery(recipeName);
+        // 외부 호출을 Caffeine compute 안에서 하지 않도록 빈 future만 넣고, 호출은 자리를 차지한 요청이 밖에서 한다
+        CompletableFuture<Optional<String>> loading = new CompletableFuture<>();
+        CompletableFuture<Optional<String>> cached = searchCache.get(query, (key, executor) -> loading);
+        if (cached == loading) {
+            try {
+                Optional<String> imageUrl = search(query);
+                loading.complete(imageUrl);
+                return imageUrl.orElse(null);
+            } catch (RuntimeException | Error e) {
+                // 기다리는 요청이 멈추지 않도록 어떤 실패든 future를 끝낸다
+                loading.completeExceptionally(e);
+                throw e;
+            }
         }
         
+        // 같은 검색어를 로드 중이면 그 결과를 기다린다 (실패하면 같은 예외)
+        boolean loaded = cached.isDone();
+        Optional<String> imageUrl;
+        try {
+            imageUrl = cached.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : e;
+        }
+        if (loaded) {
+            (imageUrl.isPresent() ? hits : negativeHits).increment();
+        }
+        return imageUrl.orElse(null);
+    }
+    
+    private Optional<String> search(String query) {
+        // 열린 서킷에서는 토큰도 쓰지 않는다
+        if (!circuitBreaker.tryAcquire()) {
+            rejected.increment();
+            throw new UnavailableException("Unsplash circuit open");
+        }
+        if (!rateLimiter.tryAcquire()) {
+            circuitBreaker.release();
+            throttled.increment();
+            throw new QuotaExceededException("Unsplash quota exhausted for query: " + query);
+        }
+        if (!bulkhead.tryAcquire()) {
+            circuitBreaker.release();
+            rejected.increment();
+            throw new UnavailableException("Too many concurrent Unsplash calls");
+        }
+        
+        misses.increment();
+        log.info("Fetching image for query: {}", query);
+        
+        String searchQuery = query + " food recipe";
+        
+        Map<String, Object> response;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
         try {
-            log.info("Fetching image for recipe: {}", recipeName);
-            
-            WebClient webClient = webClientBuilder
-                .baseUrl(unsplashApiUrl)
-                .defaultHeader(HttpHeaders.AUTHORIZATION, "Client-ID " + unsplashAccessKey)
-                .build();
-            
-            String searchQuery = recipeName + " food recipe";
-            
             @SuppressWarnings("unchecked")
-            Map<String, Object> response = webClient.get()
+            Map<String, Object> body = unsplashWebClient.get()
                 .uri(uriBuilder -> uriBuilder
                     .path("/search/photos")
                     .queryParam("query", searchQuery)
@@ -49,37 +206,92 @@ public class UnsplashService {
                     .build())
                 .retrieve()
                 .bodyToMono(Map.class)
-                .block();
+                .block(timeout);
+            response = body;
+            circuitBreaker.onSuccess();
+        } catch (WebClientResponseException e) {
+            errors.increment();
+            // 요청 자체가 잘못된 4xx는 API 장애가 아니므로 서킷에 실패로 세지 않는다 (429 제외)
+            boolean clientError = e.getStatusCode().is4xxClientError() && e.getStatusCode().value() != 429;
+            outcome = clientError ? "client_error" : "server_error";
+            if (clientError) {
+                circuitBreaker.onSuccess();
+            } else {
+                circuitBreaker.onFailure();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            errors.increment();
+            outcome = "error";
+            circuitBreaker.onFailure();
+            throw e;
+        } finally {
+            bulkhead.release();
+            sample.stop(Timer.builder("unsplash.requests")
+                    .description("Unsplash search API call latency")
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        
+        if (response != null && response.containsKey("results")) {
+            @SuppressWarnings("unchecked")
+            var results = (java.util.List<Map<String, Object>>) response.get("results");
             
-            if (response != null && response.containsKey("results")) {
+            if (!results.isEmpty()) {
                 @SuppressWarnings("unchecked")
-                var results = (java.util.List<Map<String, Object>>) response.get("results");
+                Map<String, Object> firstResult = results.get(0);
+                @SuppressWarnings("unchecked")
+                Map<String, String> urls = (Map<String, String>) firstResult.get("urls");
                 
-                if (!results.isEmpty()) {
-                    @SuppressWarnings("unchecked")
-                    Map<String, Object> firstResult = results.get(0);
-                    @SuppressWarnings("unchecked")
-                    Map<String, String> urls = (Map<String, String>) firstResult.get("urls");
-                    
-                    String imageUrl = urls.get("regular");
-                    log.info("Found image for recipe: {} -> {}", recipeName, imageUrl);
-                    return imageUrl;
-                }
+                String imageUrl = urls.get("regular");
+                log.info("Found image for query: {} -> {}", query, imageUrl);
+                return Optional.ofNullable(imageUrl);
+            }
+        }
+        
+        log.warn("No images found for query: {}", query);
+        return Optional.empty();
+    }
+    
+    // 대소문자, 전각/반각, 구두점, 공백, 단어 순서 차이를 무시한다 ("김치 볶음밥!" == "볶음밥  김치")
+    static String normalizeQuery(String recipeName) {
+        String normalized = Normalizer.normalize(recipeName == null ? "" : recipeName, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT);
+        TreeSet<String> tokens = new TreeSet<>();
+        for (String token : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
             }
-            
-            log.warn("No images found for recipe: {}", recipeName);
-            return getPlaceholderImage();
-            
-        } catch (WebClientResponseException e) {
-            log.error("Error fetching image from Unsplash: {}", e.getMessage());
-            return getPlaceholderImage();
-        } catch (Exception e) {
-            log.error("Unexpected error fetching image: {}", e.getMessage());
-            return getPlaceholderImage();
         }
+        return String.join(" ", tokens);
     }
     
-    private String getPlaceholderImage() {
+    private static Counter lookupCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("unsplash.lookups")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+    
+    public String getPlaceholderImage() {
         return "https://images.unsplash.com/photo-1546549032-9571cd6b27df?w=400&h=300&fit=crop";
     }
-}
\ No newline at end of file
+    
+    /**
+     * 서킷이 열려 있거나 동시 호출 상한에 걸려 호출하지 않은 경우.
+     */
+    public static class UnavailableException extends RuntimeException {
+        public UnavailableException(String message) {
+            super(message);
+        }
+    }
+    
+    /**
+     * 토큰 버킷이 비어 호출하지 않은 경우.
+     */
+    public static class QuotaExceededException extends RuntimeException {
+        public QuotaExceededException(String message) {
+            super(message);
+        }
+    }
+}
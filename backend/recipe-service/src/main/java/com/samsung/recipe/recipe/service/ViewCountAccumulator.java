@@ -0,0 +1,179 @@
+package com.samsung.recipe.recipe.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 조회수 write-behind 누적기.
+ * 상세 조회마다 행을 갱신하는 대신 레시피별 LongAdder에 모아 두고,
+ * 주기적으로 (그리고 종료 시) view_count = view_count + delta 배치 UPDATE로 반영한다.
+ * 응답에 쓰는 조회수는 DB에 저장된 값 + 이 노드의 미반영분이다. 저장된 값은 상세 캐시(L2 TTL 30분)가 아니라
+ * 짧은 TTL의 로컬 캐시로 따로 읽어, 다른 노드의 flush도 곧 반영되고 이 노드의 flush 후에 값이 줄지 않는다.
+ */
+@Component
+@Slf4j
+public class ViewCountAccumulator {
+
+    private static final String FLUSH_SQL = "UPDATE recipes SET view_count = view_count + ? WHERE id = ?";
+    private static final String SELECT_SQL = "SELECT view_count FROM recipes WHERE id = ?";
+    private static final String SELECT_ALL_SQL = "SELECT id, view_count FROM recipes WHERE id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final BestRecipeLeaderboard leaderboard;
+    private final TrendingRecipes trendingRecipes;
+
+    // 반영이 끝나 0이 된 엔트리는 flush가 지운다 (한 번 조회된 레시피마다 엔트리가 남지 않도록)
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    // DB에 저장된 조회수. 이 노드의 flush 직후에는 해당 id를 지워 다시 읽게 한다
+    private final Cache<Long, Integer> persisted;
+
+    public ViewCountAccumulator(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                BestRecipeLeaderboard leaderboard,
+                                TrendingRecipes trendingRecipes,
+                                @Value("${recipe.view-count.persisted-ttl:5s}") Duration persistedTtl,
+                                @Value("${recipe.view-count.persisted-max-size:100000}") long persistedMaxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionManager = transactionManager;
+        this.leaderboard = leaderboard;
+        this.trendingRecipes = trendingRecipes;
+        this.persisted = Caffeine.newBuilder()
+                .maximumSize(persistedMaxSize)
+                .expireAfterWrite(persistedTtl)
+                .build();
+    }
+
+    public void increment(Long recipeId) {
+        // 집은 adder가 증가 전에 flush에서 지워졌다면 (합이 0일 때만 지운다) 그 증가분은 버려지므로 새 엔트리에 다시 센다.
+        // 증가 후에도 맵에 남아 있으면 합이 1 이상이라 이후에 지워지지 않는다
+        while (true) {
+            LongAdder adder = pending.computeIfAbsent(recipeId, k -> new LongAdder());
+            adder.increment();
+            if (pending.get(recipeId) == adder) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 아직 DB에 반영되지 않은 증가분.
+     */
+    public long pendingCount(Long recipeId) {
+        LongAdder adder = pending.get(recipeId);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * 응답에 보여 줄 조회수 (저장된 값 + 미반영분). 없는 레시피는 0.
+     */
+    public int currentCount(Long recipeId) {
+        // 인덱스 단건 조회라 로드 중 잠금을 잡아도 짧다. 로드 중인 키의 invalidate는 로드가 끝날 때까지 기다리므로
+        // flush 전에 읽은 값이 flush 후에 남지 않는다
+        Integer stored = persisted.get(recipeId, this::loadPersisted);
+        return withPending(stored, recipeId);
+    }
+
+    /**
+     * 여러 레시피의 현재 조회수. 캐시에 없는 id는 한 번의 쿼리로 읽는다.
+     */
+    public Map<Long, Integer> currentCounts(Collection<Long> recipeIds) {
+        Map<Long, Integer> stored = persisted.getAll(recipeIds, this::loadPersisted);
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Long id : recipeIds) {
+            counts.put(id, withPending(stored.get(id), id));
+        }
+        return counts;
+    }
+
+    private int withPending(Integer stored, Long recipeId) {
+        long count = (stored != null ? stored : 0) + pendingCount(recipeId);
+        return (int) Math.min(Integer.MAX_VALUE, count);
+    }
+
+    private Integer loadPersisted(Long recipeId) {
+        List<Integer> rows = jdbcTemplate.queryForList(SELECT_SQL, Integer.class, recipeId);
+        return rows.isEmpty() || rows.get(0) == null ? 0 : rows.get(0);
+    }
+
+    private Map<Long, Integer> loadPersisted(Set<? extends Long> recipeIds) {
+        Map<Long, Integer> counts = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SELECT_ALL_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", recipeIds.toArray()));
+            return statement;
+        }, rs -> {
+            counts.put(rs.getLong(1), rs.getInt(2));
+        });
+        return counts;
+    }
+
+    // 종료 시 flush와 스케줄 flush가 겹쳐 같은 증가분을 두 번 반영하지 않도록 직렬화한다
+    @Scheduled(fixedDelayString = "${recipe.view-count.flush-interval-ms:5000}")
+    public synchronized void flush() {
+        // id 순으로 갱신해 여러 노드가 동시에 flush 해도 행 잠금 순서가 같도록 한다
+        Map<Long, Long> deltas = new TreeMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long delta = entry.getValue().sum();
+            if (delta != 0) {
+                deltas.put(entry.getKey(), delta);
+            }
+        }
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        for (Map.Entry<Long, Long> entry : deltas.entrySet()) {
+            args.add(new Object[]{entry.getValue(), entry.getKey()});
+        }
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(FLUSH_SQL, args));
+        } catch (Exception e) {
+            // 반영 실패 시 누적분을 그대로 두고 다음 주기에 다시 시도한다
+            log.warn("Failed to flush {} view count deltas: {}", deltas.size(), e.getMessage());
+            return;
+        }
+
+        // 저장된 값을 먼저 지우고 나서 차감한다. 순서가 반대면 그 사이 응답이 반영분만큼 줄어 보인다
+        persisted.invalidateAll(deltas.keySet());
+        // flush 도중 들어온 증가분은 남기고 반영한 만큼만 차감한다. 남은 것이 없으면 엔트리를 지운다
+        for (Map.Entry<Long, Long> entry : deltas.entrySet()) {
+            pending.computeIfPresent(entry.getKey(), (id, adder) -> {
+                adder.add(-entry.getValue());
+                return adder.sum() == 0 ? null : adder;
+            });
+        }
+        leaderboard.incrementAll(deltas);
+        trendingRecipes.record(deltas);
+        log.debug("Flushed view counts for {} recipes", deltas.size());
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
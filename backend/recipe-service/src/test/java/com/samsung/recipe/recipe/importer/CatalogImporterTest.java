@@ -0,0 +1,145 @@
+package com.samsung.recipe.recipe.importer;
+
+import com.samsung.recipe.recipe.service.IngredientTagDictionary;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * db/init.sql로 만든 빈 스키마에 실제로 적재해 본다. PostgreSQL이 있어야 하므로
+ * RECIPE_TEST_DATABASE_URL (예: jdbc:postgresql://localhost:5432/recipe_db?user=postgres)이 있을 때만 돈다.
+ * 테스트마다 새 스키마를 만들고 끝나면 지운다.
+ */
+@EnabledIfEnvironmentVariable(named = "RECIPE_TEST_DATABASE_URL", matches = ".+")
+class CatalogImporterTest {
+
+    private static final Path INIT_SQL = Path.of("../../db/init.sql");
+
+    private static final String HEADER = "RCP_SNO,RCP_TTL,CKG_MTRL_CN,RCP_STEP_DESC,RCP_STEP_IMG,RCP_HASHTAG,RGTR_ID\n";
+
+    @TempDir
+    Path tempDir;
+
+    private final String schema = "catalog_importer_test_" + System.nanoTime();
+    private HikariDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private CatalogImporter importer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(System.getenv("RECIPE_TEST_DATABASE_URL"));
+        dataSource.setMaximumPoolSize(4);
+        dataSource.setConnectionInitSql("CREATE SCHEMA IF NOT EXISTS " + schema + "; SET search_path TO " + schema);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String statement : Files.readString(INIT_SQL).split(";\\s*(\\n|$)")) {
+            if (!statement.lines().allMatch(line -> line.isBlank() || line.strip().startsWith("--"))) {
+                jdbcTemplate.execute(statement);
+            }
+        }
+
+        importer = new CatalogImporter(dataSource, new DataSourceTransactionManager(dataSource), dictionary(),
+                mock(ApplicationEventPublisher.class), 50, 0.5);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA " + schema + " CASCADE");
+        dataSource.close();
+    }
+
+    @Test
+    void importIntoFreshSequencesAllocatesPositiveIdsThatJpaWillNotReuse() throws IOException {
+        // 청크 크기 50, 시퀀스 증가폭 50이라 첫 nextval(1)이 만드는 구간과 그 다음 구간을 모두 거친다
+        CatalogImporter.Result result = importer.importCsv(csv(120));
+
+        assertThat(result.recipes()).isEqualTo(120);
+        for (String table : new String[]{"recipes", "recipe_step", "recipe_ingredient", "recipe_tag"}) {
+            Map<String, Object> ids = jdbcTemplate.queryForMap(
+                    "SELECT min(id) AS min, max(id) AS max, count(*) AS rows, count(DISTINCT id) AS ids FROM " + table);
+            assertThat((Long) ids.get("min")).as(table).isPositive();
+            assertThat(ids.get("ids")).as(table).isEqualTo(ids.get("rows"));
+
+            // 애플리케이션(JPA pooled, allocationSize 50)이 다음에 받을 구간 (v - 50, v]는 적재한 id와 겹치지 않는다
+            Long next = jdbcTemplate.queryForObject("SELECT nextval('" + table + "_id_seq')", Long.class);
+            assertThat(next - 50).as(table).isGreaterThanOrEqualTo((Long) ids.get("max"));
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM recipe_step", Long.class)).isEqualTo(240);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM recipe_source", Long.class)).isEqualTo(120);
+    }
+
+    @Test
+    void syncAdoptsOnlyUntrackedRecipesAtOrBelowTheLegacyWatermark() throws IOException {
+        // 추적 이전에 적재된 레시피, 워터마크를 기록한 뒤 사용자가 같은 제목/작성자로 만든 레시피
+        Long legacy = jdbcTemplate.queryForObject(
+                "INSERT INTO recipes (title, writer_id) VALUES ('레시피 1', 'writer') RETURNING id", Long.class);
+        jdbcTemplate.update("UPDATE recipe_source_legacy SET max_recipe_id = ?", legacy);
+        Long own = jdbcTemplate.queryForObject(
+                "INSERT INTO recipes (title, writer_id, description) VALUES ('레시피 2', 'writer', '내 레시피') RETURNING id",
+                Long.class);
+
+        CatalogImporter.SyncResult result = importer.sync(csv(2));
+
+        assertThat(result.updated()).isEqualTo(1);
+        assertThat(result.created()).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("SELECT recipe_id FROM recipe_source WHERE source_key = 'sno:1'", Long.class))
+                .isEqualTo(legacy);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM recipe_source WHERE recipe_id = ?", Long.class, own))
+                .isZero();
+        assertThat(jdbcTemplate.queryForObject("SELECT description FROM recipes WHERE id = ?", String.class, own))
+                .isEqualTo("내 레시피");
+    }
+
+    private Path csv(int recipes) throws IOException {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 1; i <= recipes; i++) {
+            csv.append(i).append(",레시피 ").append(i)
+                    .append(",\"['재료").append(i % 7).append(": 1개', '소금: 약간']\"")
+                    .append(",\"['썰기', '끓이기']\"")
+                    .append(",\"['', '']\"")
+                    .append(",\"['태그").append(i % 3).append("']\"")
+                    .append(",writer").append('\n');
+        }
+        Path file = tempDir.resolve("recipes.csv");
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    // 사전은 저장소 대신 같은 upsert + 조회를 JDBC로 한다
+    private IngredientTagDictionary dictionary() {
+        IngredientTagDictionary dictionary = mock(IngredientTagDictionary.class);
+        when(dictionary.resolveIngredientIds(anyCollection()))
+                .thenAnswer(invocation -> resolve("ingredient", invocation.getArgument(0)));
+        when(dictionary.resolveTagIds(anyCollection()))
+                .thenAnswer(invocation -> resolve("tag", invocation.getArgument(0)));
+        return dictionary;
+    }
+
+    private Map<String, Long> resolve(String table, Collection<String> names) {
+        Map<String, Long> ids = new HashMap<>();
+        for (String name : names) {
+            jdbcTemplate.update("INSERT INTO " + table + " (name) VALUES (?) ON CONFLICT (name) DO NOTHING", name);
+            ids.put(name, jdbcTemplate.queryForObject("SELECT id FROM " + table + " WHERE name = ?", Long.class, name));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,91 @@
+package com.samsung.recipe.recipe.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    @Test
+    void quotedFieldKeepsCommasAndNewlines() throws IOException {
+        List<String[]> records = readAll("1,\"a, b\nc\",d\n2,e,f\n");
+
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0)).containsExactly("1", "a, b\nc", "d");
+        assertThat(records.get(1)).containsExactly("2", "e", "f");
+    }
+
+    @Test
+    void doubledQuoteIsAnEscapedQuote() throws IOException {
+        assertThat(readAll("\"say \"\"hi\"\"\",\"\"\"\"\n").get(0)).containsExactly("say \"hi\"", "\"");
+    }
+
+    @Test
+    void crlfAndLfEndRecordsAlike() throws IOException {
+        List<String[]> records = readAll("a,b\r\nc,d\ne,f\r\n");
+
+        assertThat(records).hasSize(3);
+        assertThat(records.get(0)).containsExactly("a", "b");
+        assertThat(records.get(1)).containsExactly("c", "d");
+        assertThat(records.get(2)).containsExactly("e", "f");
+    }
+
+    @Test
+    void crlfInsideQuotesIsPartOfTheField() throws IOException {
+        assertThat(readAll("\"line1\r\nline2\",x\r\n").get(0)).containsExactly("line1\r\nline2", "x");
+    }
+
+    @Test
+    void emptyFieldsAndMissingFinalNewline() throws IOException {
+        List<String[]> records = readAll(",,\nlast,\"\"");
+
+        assertThat(records.get(0)).containsExactly("", "", "");
+        assertThat(records.get(1)).containsExactly("last", "");
+    }
+
+    @Test
+    void recordSpanningTheReadBufferIsReadWhole() throws IOException {
+        // 내부 버퍼(64K 문자)보다 긴 인용 필드
+        String longField = "가".repeat(70_000) + "\n" + "나".repeat(10);
+
+        List<String[]> records = readAll("\"" + longField + "\",end\r\nnext,row\n");
+
+        assertThat(records.get(0)).containsExactly(longField, "end");
+        assertThat(records.get(1)).containsExactly("next", "row");
+    }
+
+    @Test
+    void unterminatedQuoteFails() {
+        assertThatThrownBy(() -> readAll("1,\"open\n2,3\n"))
+                .isInstanceOf(IOException.class)
+                .hasMessage("Unterminated quoted field");
+    }
+
+    private static List<String[]> readAll(String csv) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        try (CsvReader reader = new CsvReader(shortReads(csv))) {
+            String[] record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    // 실제 파일처럼 read가 요청보다 적게 돌려줄 수 있다
+    private static Reader shortReads(String csv) {
+        return new StringReader(csv) {
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                return super.read(buffer, offset, Math.min(length, 4096));
+            }
+        };
+    }
+}
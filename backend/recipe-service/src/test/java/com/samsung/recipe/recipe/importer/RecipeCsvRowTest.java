@@ -0,0 +1,133 @@
+package com.samsung.recipe.recipe.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecipeCsvRowTest {
+
+    @Test
+    void contentHashIsStableForEqualContent() {
+        assertThat(row("김치찌개", List.of("김치"), 10).contentHash())
+                .isEqualTo(row("김치찌개", List.of("김치"), 10).contentHash())
+                .hasSize(32);
+    }
+
+    @Test
+    void contentHashIgnoresViewCount() {
+        assertThat(row("김치찌개", List.of("김치"), 10).contentHash())
+                .isEqualTo(row("김치찌개", List.of("김치"), 99_999).contentHash());
+    }
+
+    @Test
+    void contentHashChangesWithAnyIndexedField() {
+        byte[] base = row("김치찌개", List.of("김치"), 0).contentHash();
+
+        assertThat(row("김치찌게", List.of("김치"), 0).contentHash()).isNotEqualTo(base);
+        assertThat(row("김치찌개", List.of("김치", "찌개"), 0).contentHash()).isNotEqualTo(base);
+        assertThat(row("김치찌개", List.of(), 0).contentHash()).isNotEqualTo(base);
+    }
+
+    @Test
+    void contentHashKeepsFieldBoundaries() {
+        // 길이를 앞에 붙이므로 이웃한 값끼리 글자를 주고받아도 같아지지 않는다
+        assertThat(row("김치찌개", List.of("ab", "c"), 0).contentHash())
+                .isNotEqualTo(row("김치찌개", List.of("a", "bc"), 0).contentHash());
+        assertThat(row("김치찌개", List.of(""), 0).contentHash())
+                .isNotEqualTo(row("김치찌개", List.of(), 0).contentHash());
+    }
+
+    @Test
+    void parseReadsEveryColumnByHeaderName() {
+        RecipeCsvRow row = parse(Map.of(
+                "RCP_SNO", "6909678",
+                "RCP_TTL", "김치찌개",
+                "CKG_MTRL_CN", "['김치: 1컵', ' 돼지고기 :200g', '소금', '  ']",
+                "RCP_STEP_DESC", "[' 김치를 썬다 ', '끓인다', '남는 설명']",
+                "RCP_STEP_IMG", "['http://img/1.jpg', '']",
+                "RCP_HASHTAG", "['찌개', ' ', '한식 ']",
+                "RCP_VIEW_CNT", "1234.0",
+                "CKG_TIME_NM", "30분이내",
+                "CKG_INBUN_NM", "2인분",
+                "CKG_DODF_NM", "초급"));
+
+        assertThat(row.sourceNo()).isEqualTo("6909678");
+        assertThat(row.title()).isEqualTo("김치찌개");
+        assertThat(row.cookingTime()).isEqualTo(30);
+        assertThat(row.servings()).isEqualTo(2);
+        assertThat(row.difficulty()).isEqualTo("초급");
+        assertThat(row.viewCount()).isEqualTo(1234);
+        // 설명과 이미지 중 짧은 쪽에 맞춘다
+        assertThat(row.steps()).containsExactly(
+                new RecipeCsvRow.Step("김치를 썬다", "http://img/1.jpg"),
+                new RecipeCsvRow.Step("끓인다", ""));
+        assertThat(row.ingredients()).containsExactly(
+                new RecipeCsvRow.Ingredient("김치", "1컵"),
+                new RecipeCsvRow.Ingredient("돼지고기", "200g"),
+                new RecipeCsvRow.Ingredient("소금", null));
+        // 빈 재료도 원본 개수에는 들어간다
+        assertThat(row.ingredientsCount()).isEqualTo(4);
+        assertThat(row.tags()).containsExactly("찌개", "한식");
+    }
+
+    @Test
+    void parseFillsDefaultsForMissingColumns() {
+        RecipeCsvRow row = parse(Map.of("RCP_SNO", "1", "RCP_TTL", "", "RCP_VIEW_CNT", "조회 12회"));
+
+        assertThat(row.title()).isNull();
+        assertThat(row.writerId()).isEqualTo("1");
+        assertThat(row.viewCount()).isEqualTo(12);
+        assertThat(row.cookingTime()).isZero();
+        assertThat(row.imageUrl()).isNull();
+        assertThat(row.steps()).isEmpty();
+        assertThat(row.ingredients()).isEmpty();
+        assertThat(row.tags()).isEmpty();
+    }
+
+    @Test
+    void literalListHandlesQuotesAndEscapes() {
+        assertThat(RecipeCsvRow.literalList("['a', \"b, c\", 'it\\'s', \"x\\ny\"]"))
+                .containsExactly("a", "b, c", "it's", "x\ny");
+        assertThat(RecipeCsvRow.literalList("[1, 2.5 ,none]")).containsExactly("1", "2.5", "none");
+        assertThat(RecipeCsvRow.literalList("[]")).isEmpty();
+    }
+
+    @Test
+    void literalListRejectsMalformedInput() {
+        assertThat(RecipeCsvRow.literalList(null)).isEmpty();
+        assertThat(RecipeCsvRow.literalList("a, b")).isEmpty();
+        assertThat(RecipeCsvRow.literalList("['a', 'b")).isEmpty();
+        assertThat(RecipeCsvRow.literalList("['a' 'b']")).isEmpty();
+    }
+
+    @Test
+    void firstNumberTakesTheLeadingDigits() {
+        assertThat(RecipeCsvRow.firstNumber("2인분")).isEqualTo(2);
+        assertThat(RecipeCsvRow.firstNumber("6인분 이상")).isEqualTo(6);
+        assertThat(RecipeCsvRow.firstNumber("2시간이상")).isEqualTo(2);
+        assertThat(RecipeCsvRow.firstNumber("아무거나")).isZero();
+        assertThat(RecipeCsvRow.firstNumber(null)).isZero();
+        assertThat(RecipeCsvRow.firstNumber("99999999999분")).isZero();
+    }
+
+    private static RecipeCsvRow parse(Map<String, String> cells) {
+        Map<String, Integer> columns = new HashMap<>();
+        String[] record = new String[cells.size()];
+        int i = 0;
+        for (Map.Entry<String, String> cell : cells.entrySet()) {
+            columns.put(cell.getKey(), i);
+            record[i++] = cell.getValue();
+        }
+        return RecipeCsvRow.parse(record, columns);
+    }
+
+    private static RecipeCsvRow row(String title, List<String> tags, int viewCount) {
+        return new RecipeCsvRow("1", title, 20, 2, "초급", 1, "찌개", "일상", "김치", "끓이기", "writer", viewCount,
+                null, List.of(new RecipeCsvRow.Step("끓인다", null)), List.of(new RecipeCsvRow.Ingredient("김치", "1컵")),
+                tags);
+    }
+}
@@ -0,0 +1,279 @@
+package com.samsung.recipe.recipe.mapper;
+
+import com.samsung.recipe.recipe.dto.RecipeIngredientDetailDto;
+import com.samsung.recipe.recipe.dto.RecipeResponseDto;
+import com.samsung.recipe.recipe.dto.RecipeStepDto;
+import com.samsung.recipe.recipe.dto.TagDto;
+import com.samsung.recipe.recipe.entity.Ingredient;
+import com.samsung.recipe.recipe.entity.Recipe;
+import com.samsung.recipe.recipe.entity.RecipeIngredient;
+import com.samsung.recipe.recipe.entity.RecipeStep;
+import com.samsung.recipe.recipe.entity.RecipeTag;
+import com.samsung.recipe.recipe.entity.Tag;
+import com.samsung.recipe.recipe.service.IngredientTagDictionary;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 레시피 100건 한 페이지를 RecipeResponseDto로 만드는 비용 (RecipeMapper.toResponseDto).
+ * baseline은 변경 전 방식 (재료/태그 행마다 전체 목록을 선형 탐색, steps를 두 번 정렬한 스트림)이고,
+ * current는 id 색인 조회 + stepIndex 순 단일 순회를 하는 현재 RecipeMapper다.
+ * 재료/태그 이름은 미리 채운 HashMap에서 찾는다 (current는 DB 조회 없이 메모리 사전만 쓰는 IngredientTagDictionary).
+ *
+ * 실행 (할당량은 GC 프로파일러의 gc.alloc.rate.norm, 페이지당 바이트):
+ * <pre>
+ * mvn -q test-compile dependency:build-classpath -Dmdep.includeScope=test -Dmdep.outputFile=target/test-cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/test-cp.txt) \
+ *     org.openjdk.jmh.Main RecipeMapperBenchmark -prof gc
+ * </pre>
+ * 또는 IDE에서 main을 실행한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecipeMapperBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final int STEPS_PER_RECIPE = 8;
+    private static final int INGREDIENTS_PER_RECIPE = 12;
+    private static final int TAGS_PER_RECIPE = 4;
+
+    // 사전 크기 (재료 수, 태그는 1/10)
+    @Param({"1000", "10000"})
+    public int dictionarySize;
+
+    // 배치 조회는 steps를 정렬해서 주지만, 신규/수정 응답 경로는 요청 순서 그대로다
+    @Param({"true", "false"})
+    public boolean stepsOrdered;
+
+    private List<Recipe> recipes;
+    private Map<Long, List<RecipeStep>> stepsByRecipe;
+    private Map<Long, List<RecipeIngredient>> ingredientsByRecipe;
+    private Map<Long, List<RecipeTag>> tagsByRecipe;
+
+    private List<Ingredient> ingredients;
+    private List<Tag> tags;
+    private Map<Long, String> ingredientNames;
+    private Map<Long, String> tagNames;
+
+    private RecipeMapper mapper;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        int tagCount = Math.max(1, dictionarySize / 10);
+
+        ingredients = new ArrayList<>(dictionarySize);
+        ingredientNames = new HashMap<>();
+        for (long id = 1; id <= dictionarySize; id++) {
+            ingredients.add(Ingredient.builder().id(id).name("ingredient-" + id).build());
+            ingredientNames.put(id, "ingredient-" + id);
+        }
+        tags = new ArrayList<>(tagCount);
+        tagNames = new HashMap<>();
+        for (long id = 1; id <= tagCount; id++) {
+            tags.add(Tag.builder().id(id).name("tag-" + id).build());
+            tagNames.put(id, "tag-" + id);
+        }
+
+        recipes = new ArrayList<>(PAGE_SIZE);
+        stepsByRecipe = new HashMap<>();
+        ingredientsByRecipe = new HashMap<>();
+        tagsByRecipe = new HashMap<>();
+        for (long recipeId = 1; recipeId <= PAGE_SIZE; recipeId++) {
+            recipes.add(Recipe.builder()
+                    .id(recipeId)
+                    .title("recipe-" + recipeId)
+                    .description("description of recipe " + recipeId)
+                    .cookingTime(30)
+                    .servings(2)
+                    .difficulty("보통")
+                    .writerId("writer")
+                    .viewCount(random.nextInt(10_000))
+                    .createdAt(LocalDateTime.of(2024, 1, 1, 0, 0).plusMinutes(recipeId))
+                    .build());
+
+            List<RecipeStep> steps = new ArrayList<>(STEPS_PER_RECIPE);
+            for (int index = 1; index <= STEPS_PER_RECIPE; index++) {
+                steps.add(RecipeStep.builder()
+                        .recipeId(recipeId)
+                        .stepIndex(index)
+                        .description("step " + index + " of recipe " + recipeId)
+                        .imageUrl(index % 2 == 0 ? "https://example.com/" + recipeId + "/" + index + ".jpg" : null)
+                        .build());
+            }
+            if (!stepsOrdered) {
+                Collections.shuffle(steps, random);
+            }
+            stepsByRecipe.put(recipeId, steps);
+
+            List<RecipeIngredient> recipeIngredients = new ArrayList<>(INGREDIENTS_PER_RECIPE);
+            for (int i = 0; i < INGREDIENTS_PER_RECIPE; i++) {
+                recipeIngredients.add(RecipeIngredient.builder()
+                        .recipeId(recipeId)
+                        .ingredientId(1L + random.nextInt(dictionarySize))
+                        .amount("1 cup")
+                        .build());
+            }
+            ingredientsByRecipe.put(recipeId, recipeIngredients);
+
+            List<RecipeTag> recipeTags = new ArrayList<>(TAGS_PER_RECIPE);
+            for (int i = 0; i < TAGS_PER_RECIPE; i++) {
+                recipeTags.add(RecipeTag.builder()
+                        .recipeId(recipeId)
+                        .tagId(1L + random.nextInt(tagCount))
+                        .build());
+            }
+            tagsByRecipe.put(recipeId, recipeTags);
+        }
+
+        // 적재가 끝난 사전과 같다: 모든 이름이 메모리에 있어 저장소/Redis는 쓰지 않는다
+        IngredientTagDictionary dictionary = new IngredientTagDictionary(null, null, null, null, Duration.ofMinutes(1)) {
+            @Override
+            public String ingredientName(Long id) {
+                return ingredientNames.get(id);
+            }
+
+            @Override
+            public String tagName(Long id) {
+                return tagNames.get(id);
+            }
+        };
+        mapper = new RecipeMapper(dictionary);
+    }
+
+    @Benchmark
+    public List<RecipeResponseDto> baseline() {
+        List<RecipeResponseDto> page = new ArrayList<>(recipes.size());
+        for (Recipe recipe : recipes) {
+            page.add(Baseline.toResponseDto(recipe, stepsByRecipe.get(recipe.getId()),
+                    ingredientsByRecipe.get(recipe.getId()), ingredients,
+                    tagsByRecipe.get(recipe.getId()), tags));
+        }
+        return page;
+    }
+
+    @Benchmark
+    public List<RecipeResponseDto> current() {
+        List<RecipeResponseDto> page = new ArrayList<>(recipes.size());
+        for (Recipe recipe : recipes) {
+            page.add(mapper.toResponseDto(recipe, stepsByRecipe.get(recipe.getId()),
+                    ingredientsByRecipe.get(recipe.getId()), tagsByRecipe.get(recipe.getId())));
+        }
+        return page;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RecipeMapperBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    /**
+     * 변경 전 RecipeMapper.toResponseDto 그대로 (비교 기준).
+     */
+    static final class Baseline {
+
+        private Baseline() {
+        }
+
+        static RecipeResponseDto toResponseDto(Recipe recipe, List<RecipeStep> steps, List<RecipeIngredient> recipeIngredients,
+                                               List<Ingredient> ingredients, List<RecipeTag> recipeTags, List<Tag> tags) {
+            List<String> instructions = null;
+            List<String> instructionImages = null;
+
+            if (steps != null && !steps.isEmpty()) {
+                instructions = steps.stream()
+                        .sorted((s1, s2) -> Integer.compare(s1.getStepIndex(), s2.getStepIndex()))
+                        .map(RecipeStep::getDescription)
+                        .collect(Collectors.toList());
+
+                instructionImages = steps.stream()
+                        .sorted((s1, s2) -> Integer.compare(s1.getStepIndex(), s2.getStepIndex()))
+                        .map(RecipeStep::getImageUrl)
+                        .collect(Collectors.toList());
+            }
+
+            return RecipeResponseDto.builder()
+                    .id(recipe.getId())
+                    .title(recipe.getTitle())
+                    .description(recipe.getDescription())
+                    .cookingTime(recipe.getCookingTime())
+                    .servings(recipe.getServings())
+                    .difficulty(recipe.getDifficulty())
+                    .imageUrl(recipe.getImageUrl())
+                    .ingredientsCount(recipe.getIngredientsCount())
+                    .kind(recipe.getKind())
+                    .situation(recipe.getSituation())
+                    .mainIngredient(recipe.getMainIngredient())
+                    .cookingMethod(recipe.getCookingMethod())
+                    .writerId(recipe.getWriterId())
+                    .viewCount(recipe.getViewCount())
+                    .createdAt(recipe.getCreatedAt())
+                    .updatedAt(recipe.getUpdatedAt())
+                    .steps(steps == null ? null : steps.stream().map(Baseline::toStepDto).collect(Collectors.toList()))
+                    .ingredients(recipeIngredients == null ? null : recipeIngredients.stream().map(ri -> toIngredientDetailDto(ri, ingredients)).collect(Collectors.toList()))
+                    .tags(recipeTags == null ? null : recipeTags.stream().map(rt -> toTagDto(rt, tags)).collect(Collectors.toList()))
+                    .instructions(instructions)
+                    .instructionImages(instructionImages)
+                    .build();
+        }
+
+        private static RecipeStepDto toStepDto(RecipeStep step) {
+            return RecipeStepDto.builder()
+                    .stepIndex(step.getStepIndex())
+                    .description(step.getDescription())
+                    .imageUrl(step.getImageUrl())
+                    .build();
+        }
+
+        private static RecipeIngredientDetailDto toIngredientDetailDto(RecipeIngredient ri, List<Ingredient> ingredients) {
+            Ingredient ingredient = ingredients.stream()
+                    .filter(i -> i.getId().equals(ri.getIngredientId()))
+                    .findFirst().orElse(null);
+            return RecipeIngredientDetailDto.builder()
+                    .ingredientId(ri.getIngredientId())
+                    .ingredientName(ingredient != null ? ingredient.getName() : null)
+                    .amount(ri.getAmount())
+                    .build();
+        }
+
+        private static TagDto toTagDto(RecipeTag rt, List<Tag> tags) {
+            Tag tag = tags.stream()
+                    .filter(t -> t.getId().equals(rt.getTagId()))
+                    .findFirst().orElse(null);
+            return TagDto.builder()
+                    .name(tag != null ? tag.getName() : null)
+                    .build();
+        }
+    }
+}
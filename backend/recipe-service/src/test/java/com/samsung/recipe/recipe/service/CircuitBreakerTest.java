@@ -0,0 +1,110 @@
+package com.samsung.recipe.recipe.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CircuitBreakerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void staysClosedUntilMinimumCallsAreRecorded() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+        fail(breaker, 3);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void opensAtTheFailureRateAndRejectsCalls() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+        succeed(breaker, 2);
+        fail(breaker, 2);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(meterRegistry.get("recipe.circuit.state").tag("name", "test").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void oldOutcomesLeaveTheWindow() {
+        CircuitBreaker breaker = breaker(Duration.ofMinutes(1));
+
+        // 창(10) 밖으로 밀려난 실패는 실패율에 들어가지 않는다
+        fail(breaker, 3);
+        succeed(breaker, 10);
+        fail(breaker, 4);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        fail(breaker, 1);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void halfOpenLetsOneTrialThroughAndClosesOnSuccess() {
+        CircuitBreaker breaker = openedBreaker();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        // 닫힐 때 창을 비우므로 이전 실패로 곧바로 다시 열리지 않는다
+        fail(breaker, 3);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void failedTrialReopens() {
+        CircuitBreaker breaker = openedBreaker();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void releasedTrialCanBeRetried() {
+        CircuitBreaker breaker = openedBreaker();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.release();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    // openDuration 0: 열린 직후 다음 tryAcquire가 HALF_OPEN으로 넘어간다
+    private CircuitBreaker openedBreaker() {
+        CircuitBreaker breaker = breaker(Duration.ZERO);
+        fail(breaker, 4);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        return breaker;
+    }
+
+    private CircuitBreaker breaker(Duration openDuration) {
+        return new CircuitBreaker("test", 10, 4, 0.5, openDuration, meterRegistry);
+    }
+
+    private static void succeed(CircuitBreaker breaker, int times) {
+        for (int i = 0; i < times; i++) {
+            breaker.onSuccess();
+        }
+    }
+
+    private static void fail(CircuitBreaker breaker, int times) {
+        for (int i = 0; i < times; i++) {
+            breaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.samsung.recipe.recipe.service;
+
+import com.google.cloud.WriteChannel;
+import com.google.cloud.storage.BlobInfo;
+import com.google.cloud.storage.Storage;
+import com.samsung.recipe.recipe.config.StorageConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageServiceTest {
+
+    private static final byte[] JPEG = bytes(0xFF, 0xD8, 0xFF, 0xE0, 0x00, 0x10, 'J', 'F', 'I', 'F');
+    private static final byte[] PNG = bytes(0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0x00, 0x00, 0x00, 0x0D);
+    private static final byte[] GIF87 = ascii("GIF87a\u0001\u0000");
+    private static final byte[] GIF89 = ascii("GIF89a\u0001\u0000");
+    private static final byte[] WEBP = ascii("RIFF$\u0000\u0000\u0000WEBPVP8 ");
+
+    @Test
+    void detectsEachSupportedSignature() {
+        assertThat(detect(JPEG)).isEqualTo(ImageService.ImageType.JPEG);
+        assertThat(detect(PNG)).isEqualTo(ImageService.ImageType.PNG);
+        assertThat(detect(GIF87)).isEqualTo(ImageService.ImageType.GIF);
+        assertThat(detect(GIF89)).isEqualTo(ImageService.ImageType.GIF);
+        assertThat(detect(WEBP)).isEqualTo(ImageService.ImageType.WEBP);
+    }
+
+    @Test
+    void truncatedHeadersAreRejected() {
+        assertThat(detect(Arrays.copyOf(JPEG, 2))).isNull();
+        assertThat(detect(Arrays.copyOf(PNG, 7))).isNull();
+        assertThat(detect(Arrays.copyOf(GIF89, 5))).isNull();
+        assertThat(detect(Arrays.copyOf(WEBP, 11))).isNull();
+        assertThat(detect(new byte[0])).isNull();
+    }
+
+    @Test
+    void onlyTheBytesThatWereReadCount() {
+        // 버퍼 뒤쪽에 이전 내용이 남아 있어도 읽은 길이까지만 본다
+        byte[] buffer = Arrays.copyOf(PNG, 64);
+
+        assertThat(ImageService.ImageType.detect(buffer, 4)).isNull();
+    }
+
+    @Test
+    void spoofedContentIsRejected() {
+        // 확장자/Content-Type만 이미지인 텍스트, 비슷하지만 다른 RIFF/GIF 변형
+        assertThat(detect(ascii("<html><body>hello</body></html>"))).isNull();
+        assertThat(detect(ascii("RIFF$\u0000\u0000\u0000WAVEfmt "))).isNull();
+        assertThat(detect(ascii("GIF88a\u0001\u0000"))).isNull();
+        assertThat(detect(bytes(0xFF, 0xD8, 0x00, 0xE0))).isNull();
+        assertThat(detect(ascii("\u0000PNG\r\n\u001a\n"))).isNull();
+    }
+
+    @Test
+    void readFailureMidUploadAbandonsTheWriteChannel() throws IOException {
+        Storage storage = mock(Storage.class);
+        WriteChannel writer = mock(WriteChannel.class);
+        when(storage.writer(any(BlobInfo.class))).thenReturn(writer);
+        when(writer.write(any(ByteBuffer.class))).thenAnswer(invocation -> {
+            ByteBuffer chunk = invocation.getArgument(0);
+            int written = chunk.remaining();
+            chunk.position(chunk.limit());
+            return written;
+        });
+        ImageService imageService = new ImageService(new StorageConfig(), storage, new SimpleMeterRegistry(),
+                1, DataSize.ofBytes(PNG.length), DataSize.ofKilobytes(256));
+
+        MultipartFile file = mock(MultipartFile.class);
+        when(file.getSize()).thenReturn(1024L);
+        when(file.getInputStream()).thenReturn(new SequenceInputStream(new ByteArrayInputStream(PNG), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("connection reset");
+            }
+        }));
+
+        assertThatThrownBy(() -> imageService.uploadImage(file)).isInstanceOf(IOException.class);
+
+        // 첫 버퍼는 보냈지만 잘린 객체가 확정되지 않도록 닫지 않는다
+        verify(writer).write(any(ByteBuffer.class));
+        verify(writer, never()).close();
+
+        // 실패한 업로드도 동시 업로드 허용량을 돌려준다
+        when(file.getInputStream()).thenReturn(new ByteArrayInputStream(ascii("not an image")));
+        assertThatThrownBy(() -> imageService.uploadImage(file))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("이미지 파일만 업로드 가능합니다.");
+    }
+
+    private static ImageService.ImageType detect(byte[] head) {
+        return ImageService.ImageType.detect(head, head.length);
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
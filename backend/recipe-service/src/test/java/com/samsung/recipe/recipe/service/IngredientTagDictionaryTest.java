@@ -0,0 +1,75 @@
+package com.samsung.recipe.recipe.service;
+
+import com.samsung.recipe.recipe.entity.Ingredient;
+import com.samsung.recipe.recipe.repository.IngredientRepository;
+import com.samsung.recipe.recipe.repository.TagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class IngredientTagDictionaryTest {
+
+    private IngredientRepository ingredientRepository;
+    private TagRepository tagRepository;
+    private IngredientTagDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        ingredientRepository = mock(IngredientRepository.class);
+        tagRepository = mock(TagRepository.class);
+        when(ingredientRepository.findAll()).thenReturn(List.of());
+        when(tagRepository.findAll()).thenReturn(List.of());
+        dictionary = new IngredientTagDictionary(ingredientRepository, tagRepository,
+                mock(StringRedisTemplate.class), mock(RedisMessageListenerContainer.class), Duration.ofMinutes(1));
+    }
+
+    @Test
+    void repeatedMissesQueryTheDatabaseOnce() {
+        when(ingredientRepository.findByName("용과")).thenReturn(Optional.empty());
+        when(tagRepository.findById(9L)).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(dictionary.ingredientId("용과")).isNull();
+            assertThat(dictionary.tagName(9L)).isNull();
+        }
+
+        verify(ingredientRepository, times(1)).findByName("용과");
+        verify(tagRepository, times(1)).findById(9L);
+    }
+
+    @Test
+    void entryFromAnotherNodeReplacesTheMiss() {
+        when(ingredientRepository.findById(5L)).thenReturn(Optional.empty());
+        assertThat(dictionary.ingredientName(5L)).isNull();
+
+        dictionary.onMessage(new DefaultMessage(IngredientTagDictionary.TOPIC.getBytes(StandardCharsets.UTF_8),
+                "I\t5\t용과".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertThat(dictionary.ingredientName(5L)).isEqualTo("용과");
+        assertThat(dictionary.ingredientId("용과")).isEqualTo(5L);
+    }
+
+    @Test
+    void missExpiresAfterTheTtl() {
+        dictionary = new IngredientTagDictionary(ingredientRepository, tagRepository,
+                mock(StringRedisTemplate.class), mock(RedisMessageListenerContainer.class), Duration.ZERO);
+        when(ingredientRepository.findByName("용과")).thenReturn(Optional.empty(),
+                Optional.of(Ingredient.builder().id(5L).name("용과").build()));
+
+        assertThat(dictionary.ingredientId("용과")).isNull();
+        assertThat(dictionary.ingredientId("용과")).isEqualTo(5L);
+    }
+}
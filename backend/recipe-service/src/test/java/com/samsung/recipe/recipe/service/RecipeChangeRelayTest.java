@@ -0,0 +1,117 @@
+package com.samsung.recipe.recipe.service;
+
+import com.samsung.recipe.recipe.event.RecipeChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecipeChangeRelayTest {
+
+    private StringRedisTemplate redis;
+    private ApplicationEventPublisher eventPublisher;
+    private CatalogVersion catalogVersion;
+    private RecipeChangeRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        redis = mock(StringRedisTemplate.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        catalogVersion = mock(CatalogVersion.class);
+        when(catalogVersion.bump()).thenReturn(7L);
+        relay = new RecipeChangeRelay(redis, mock(RedisMessageListenerContainer.class), eventPublisher, catalogVersion);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.unbindResourceIfPossible(relay);
+    }
+
+    @Test
+    void changesInOneTransactionAreSentOnceAfterCommit() {
+        beginTransaction();
+        relay.onRecipeChanged(new RecipeChangedEvent(1L, RecipeChangedEvent.Type.CREATED));
+        relay.onRecipeChanged(new RecipeChangedEvent(2L, RecipeChangedEvent.Type.CREATED));
+        relay.onRecipeChanged(new RecipeChangedEvent(3L, RecipeChangedEvent.Type.UPDATED));
+        verify(catalogVersion, never()).bump();
+
+        complete(true);
+
+        verify(catalogVersion, times(1)).bump();
+        ArgumentCaptor<String> messages = ArgumentCaptor.forClass(String.class);
+        verify(redis, times(2)).convertAndSend(eq(RecipeChangeRelay.TOPIC), messages.capture());
+        assertThat(messages.getAllValues()).extracting(message -> message.substring(message.indexOf('\t') + 1))
+                .containsExactly("CREATED\t1,2\t7", "UPDATED\t3\t7");
+    }
+
+    @Test
+    void rolledBackChangesAreNotSent() {
+        beginTransaction();
+        relay.onRecipeChanged(new RecipeChangedEvent(1L, RecipeChangedEvent.Type.CREATED));
+
+        complete(false);
+
+        verify(catalogVersion, never()).bump();
+        verify(redis, never()).convertAndSend(anyString(), anyString());
+        assertThat(TransactionSynchronizationManager.getResource(relay)).isNull();
+    }
+
+    @Test
+    void changeOutsideATransactionIsSentImmediately() {
+        relay.onRecipeChanged(new RecipeChangedEvent(4L, RecipeChangedEvent.Type.DELETED));
+
+        verify(catalogVersion).bump();
+        verify(redis).convertAndSend(eq(RecipeChangeRelay.TOPIC), anyString());
+    }
+
+    @Test
+    void batchedMessageFromAnotherNodeIsReplayedPerRecipe() {
+        relay.onMessage(new DefaultMessage(RecipeChangeRelay.TOPIC.getBytes(StandardCharsets.UTF_8),
+                "other-node\tCREATED\t10,11\t42".getBytes(StandardCharsets.UTF_8)), null);
+
+        verify(catalogVersion).observe(42L);
+        ArgumentCaptor<RecipeChangedEvent> events = ArgumentCaptor.forClass(RecipeChangedEvent.class);
+        verify(eventPublisher, times(2)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(RecipeChangedEvent::getRecipeId).containsExactly(10L, 11L);
+        assertThat(events.getAllValues()).allMatch(RecipeChangedEvent::isRemote);
+    }
+
+    private static void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    // 트랜잭션 매니저가 커밋/롤백 후 하는 것처럼 동기화 콜백을 부른다
+    private static void complete(boolean committed) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (committed) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(committed
+                ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+}
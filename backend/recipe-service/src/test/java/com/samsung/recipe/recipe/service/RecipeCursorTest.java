@@ -0,0 +1,70 @@
+package com.samsung.recipe.recipe.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RecipeCursorTest {
+
+    @Test
+    void createdAtCursorKeepsMicroseconds() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000);
+
+        RecipeCursor cursor = RecipeCursor.decode(RecipeCursor.encode(createdAt, 42L), RecipeCursor.CREATED_AT);
+
+        assertThat(cursor.createdAt()).isEqualTo(createdAt);
+        assertThat(cursor.id()).isEqualTo(42L);
+    }
+
+    @Test
+    void createdAtCursorBeforeTheEpochRoundTrips() {
+        LocalDateTime createdAt = LocalDateTime.of(1969, 12, 31, 23, 59, 59, 500_000_000);
+
+        RecipeCursor cursor = RecipeCursor.decode(RecipeCursor.encode(createdAt, 1L), RecipeCursor.CREATED_AT);
+
+        assertThat(cursor.createdAt()).isEqualTo(createdAt);
+    }
+
+    @Test
+    void viewCountCursorRoundTrips() {
+        RecipeCursor cursor = RecipeCursor.decode(
+                RecipeCursor.encode(RecipeCursor.VIEW_COUNT, 1_234L, 99L), RecipeCursor.VIEW_COUNT);
+
+        assertThat(cursor.sortKey()).isEqualTo(1_234L);
+        assertThat(cursor.id()).isEqualTo(99L);
+    }
+
+    @Test
+    void blankCursorMeansFirstPage() {
+        assertThat(RecipeCursor.decode(null, RecipeCursor.VIEW_COUNT)).isNull();
+        assertThat(RecipeCursor.decode(" ", RecipeCursor.CREATED_AT)).isNull();
+    }
+
+    @Test
+    void cursorOfAnotherSortIsRejected() {
+        String cursor = RecipeCursor.encode(RecipeCursor.VIEW_COUNT, 10L, 1L);
+
+        assertThatThrownBy(() -> RecipeCursor.decode(cursor, RecipeCursor.CREATED_AT))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void malformedCursorIsRejected() {
+        for (String cursor : new String[]{"not base64!", base64("v:10"), base64("v:ten:1"), base64("vv:10:1")}) {
+            assertThatThrownBy(() -> RecipeCursor.decode(cursor, RecipeCursor.VIEW_COUNT))
+                    .as(cursor)
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Invalid cursor");
+        }
+    }
+
+    private static String base64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,84 @@
+package com.samsung.recipe.recipe.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.samsung.recipe.recipe.dto.RecipeResponseDto;
+import com.samsung.recipe.recipe.event.RecipeChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecipeDetailCacheTest {
+
+    private Cache shared;
+    private RecipeDetailCache cache;
+
+    @BeforeEach
+    void setUp() {
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager(RecipeDetailCache.CACHE_NAME);
+        shared = cacheManager.getCache(RecipeDetailCache.CACHE_NAME);
+        // refresh-after-write 0: 한 번 채운 값은 바로 백그라운드 갱신 대상이 된다 (갱신은 호출 스레드에서 돈다)
+        cache = new RecipeDetailCache(cacheManager, new ObjectMapper().registerModule(new JavaTimeModule()),
+                new SimpleMeterRegistry(), Runnable::run, 1 << 20, Duration.ofMinutes(5), Duration.ofNanos(1));
+    }
+
+    @Test
+    void singleLoadInvalidatedMidwayIsNotCached() {
+        RecipeJson json = cache.get(1L, id -> {
+            // 커밋 전 값을 읽은 사이에 수정 이벤트가 지나간다
+            cache.onRecipeChanged(new RecipeChangedEvent(id, RecipeChangedEvent.Type.UPDATED));
+            return recipe(id, "old");
+        });
+
+        assertThat(json).isNotNull();
+        assertThat(cache.peek(1L)).isNull();
+        assertThat(shared.get(1L)).isNull();
+    }
+
+    @Test
+    void batchLoadInvalidatedMidwayIsNotCached() {
+        List<RecipeJson> jsons = cache.getAll(List.of(1L, 2L), ids -> {
+            cache.onRecipeChanged(new RecipeChangedEvent(1L, RecipeChangedEvent.Type.UPDATED));
+            return ids.stream().map(id -> recipe(id, "old")).toList();
+        });
+
+        assertThat(jsons).hasSize(2);
+        assertThat(cache.peek(1L)).isNull();
+        assertThat(cache.peek(2L)).isNull();
+        assertThat(shared.get(1L)).isNull();
+    }
+
+    @Test
+    void batchLoadWithoutInvalidationFillsBothLevels() {
+        cache.getAll(List.of(1L, 2L), ids -> ids.stream().map(id -> recipe(id, "title")).toList());
+
+        assertThat(cache.peek(1L)).isNotNull();
+        assertThat(shared.get(2L)).isNotNull();
+    }
+
+    @Test
+    void backgroundRefreshReadsTheLoaderNotTheSharedCache() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1L, id -> recipe(id, "v" + loads.incrementAndGet()));
+        // 다른 노드가 L2에 오래된 값을 남겨 두었다
+        shared.put(1L, recipe(1L, "stale"));
+
+        cache.get(1L, id -> recipe(id, "v" + loads.incrementAndGet()));
+
+        assertThat(loads).hasValue(2);
+        assertThat(new String(cache.peek(1L).body())).contains("\"v2\"");
+        assertThat(shared.get(1L, RecipeResponseDto.class).getTitle()).isEqualTo("v2");
+    }
+
+    private static RecipeResponseDto recipe(Long id, String title) {
+        return RecipeResponseDto.builder().id(id).title(title).build();
+    }
+}
@@ -0,0 +1,174 @@
+package com.samsung.recipe.recipe.service;
+
+import com.samsung.recipe.recipe.config.HttpClientConfig;
+import com.samsung.recipe.recipe.event.RecipeChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * unsplash.api.url을 MockWebServer로 바꿔 작업 하나의 처리 결과 (적용 / 재시도 / 포기 / 미룸)를 확인한다.
+ * DB는 JdbcTemplate mock으로 대신하고, 임대한 작업의 시도 횟수는 CLAIM 결과로 준다.
+ */
+class RecipeImageEnricherTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final String IMAGE_URL = "https://images.unsplash.com/photo-kimchi";
+
+    private MockWebServer server;
+    private JdbcTemplate jdbcTemplate;
+    private UnsplashRateLimiter rateLimiter;
+    private ApplicationEventPublisher eventPublisher;
+    private UnsplashService unsplashService;
+    private RecipeImageEnricher enricher;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+
+        WebClient webClient = new HttpClientConfig().unsplashWebClient(WebClient.builder(),
+                server.url("/").toString(), "test-key", Duration.ofSeconds(1), Duration.ofSeconds(1), 2);
+        rateLimiter = mock(UnsplashRateLimiter.class);
+        when(rateLimiter.tryAcquire()).thenReturn(true);
+        // 최소 2번 호출 중 실패율 100%면 연다
+        unsplashService = new UnsplashService(webClient, rateLimiter, new SimpleMeterRegistry(),
+                100, Duration.ofHours(1), Duration.ofMinutes(1), 2, 4, 2, 1.0, Duration.ofMinutes(1));
+        ReflectionTestUtils.setField(unsplashService, "unsplashAccessKey", "test-key");
+        ReflectionTestUtils.setField(unsplashService, "timeout", Duration.ofSeconds(2));
+
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), anyLong())).thenReturn(List.of("김치찌개"));
+        when(jdbcTemplate.update(anyString(), any(), any(), any())).thenReturn(1);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+
+        enricher = new RecipeImageEnricher(jdbcTemplate, mock(PlatformTransactionManager.class), unsplashService,
+                eventPublisher, inlineWorkers(), 10, Duration.ofMinutes(2), MAX_ATTEMPTS,
+                Duration.ofSeconds(30), Duration.ofMinutes(30), Duration.ofMinutes(1));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    void appliesFoundImageAndDeletesTheJob() throws InterruptedException {
+        server.enqueue(json("{\"results\":[{\"urls\":{\"regular\":\"" + IMAGE_URL + "\"}}]}"));
+
+        runJob(1);
+
+        assertThat(server.takeRequest().getRequestUrl().queryParameter("query")).isEqualTo("김치찌개 food recipe");
+        verify(jdbcTemplate).update(contains("UPDATE recipes SET image_url"), eq(IMAGE_URL), any(), eq(7L));
+        verify(jdbcTemplate).update(contains("DELETE FROM recipe_image_job"), eq(7L));
+        verify(eventPublisher).publishEvent(any(RecipeChangedEvent.class));
+    }
+
+    @Test
+    void serverErrorSchedulesARetryWithBackoff() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        runJob(1);
+
+        assertThat(server.getRequestCount()).isEqualTo(1);
+        verify(jdbcTemplate).update(contains("next_attempt_at = now() + CAST(? AS interval), last_error"),
+                anyString(), anyString(), eq(7L));
+        verify(jdbcTemplate, never()).update(contains("attempts = attempts - 1"), any(), any(), any());
+        verify(jdbcTemplate, never()).update(contains("UPDATE recipes SET image_url"), any(), any(), any());
+    }
+
+    @Test
+    void givesUpWithPlaceholderAfterTheLastAttempt() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        runJob(MAX_ATTEMPTS);
+
+        verify(jdbcTemplate).update(contains("UPDATE recipes SET image_url"),
+                eq(unsplashService.getPlaceholderImage()), any(), eq(7L));
+        verify(jdbcTemplate).update(contains("DELETE FROM recipe_image_job"), eq(7L));
+    }
+
+    @Test
+    void exhaustedQuotaDefersWithoutCountingTheAttempt() {
+        when(rateLimiter.tryAcquire()).thenReturn(false);
+
+        runJob(MAX_ATTEMPTS);
+
+        assertThat(server.getRequestCount()).isZero();
+        verify(jdbcTemplate).update(contains("attempts = attempts - 1"), anyString(), anyString(), eq(7L));
+        verify(jdbcTemplate, never()).update(contains("UPDATE recipes SET image_url"), any(), any(), any());
+    }
+
+    @Test
+    void openCircuitDefersWithoutCountingTheAttempt() {
+        // 다른 검색어로 두 번 실패시켜 서킷을 연다
+        server.enqueue(new MockResponse().setResponseCode(503));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        for (String title : List.of("된장찌개", "순두부찌개")) {
+            try {
+                unsplashService.findRecipeImage(title);
+            } catch (RuntimeException expected) {
+                // 실패로 기록된다
+            }
+        }
+
+        runJob(MAX_ATTEMPTS);
+
+        assertThat(server.getRequestCount()).isEqualTo(2);
+        verify(jdbcTemplate).update(contains("attempts = attempts - 1"), anyString(), anyString(), eq(7L));
+        verify(jdbcTemplate, never()).update(contains("UPDATE recipes SET image_url"), any(), any(), any());
+    }
+
+    // 레시피 7번 작업을 attempt번째 시도로 임대해 처리한다
+    @SuppressWarnings("unchecked")
+    private void runJob(int attempt) {
+        when(jdbcTemplate.query(contains("RETURNING recipe_id"), any(RowMapper.class), any(), any()))
+                .thenReturn(List.of(new long[]{7L, attempt}));
+        enricher.poll();
+    }
+
+    private static MockResponse json(String body) {
+        return new MockResponse().setHeader("Content-Type", "application/json").setBody(body);
+    }
+
+    // 워커 풀 대신 호출 스레드에서 바로 실행한다 (큐 여유는 실제 풀처럼 본다)
+    private static ThreadPoolTaskExecutor inlineWorkers() {
+        ThreadPoolTaskExecutor workers = mock(ThreadPoolTaskExecutor.class);
+        when(workers.getThreadPoolExecutor()).thenReturn(
+                new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>(10)));
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(workers).execute(any(Runnable.class));
+        return workers;
+    }
+}
@@ -0,0 +1,187 @@
+package com.samsung.recipe.recipe.service;
+
+import com.samsung.recipe.recipe.entity.Recipe;
+import com.samsung.recipe.recipe.event.RecipeChangedEvent;
+import com.samsung.recipe.recipe.repository.RecipeRepository;
+import com.samsung.recipe.recipe.repository.RecipeStepRepository;
+import com.samsung.recipe.recipe.repository.RecipeTagRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RecipeSearchIndexTest {
+
+    private RecipeRepository recipeRepository;
+    private JdbcTemplate jdbcTemplate;
+    private RecipeSearchIndex index;
+    private final List<Recipe> catalog = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        recipeRepository = mock(RecipeRepository.class);
+        RecipeStepRepository recipeStepRepository = mock(RecipeStepRepository.class);
+        RecipeTagRepository recipeTagRepository = mock(RecipeTagRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(recipeStepRepository.findByRecipeIdInOrderByRecipeIdAscStepIndexAsc(anyList())).thenReturn(List.of());
+        when(recipeTagRepository.findByRecipeIdIn(anyList())).thenReturn(List.of());
+        // 한 배치로 전부 돌려주고 다음 호출에서 끝낸다
+        when(recipeRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class)))
+                .thenAnswer(invocation -> (Long) invocation.getArgument(0) == 0 ? List.copyOf(catalog) : List.of());
+
+        index = new RecipeSearchIndex(recipeRepository, recipeStepRepository, recipeTagRepository,
+                mock(IngredientTagDictionary.class), mock(PlatformTransactionManager.class), jdbcTemplate);
+        ReflectionTestUtils.setField(index, "searchMode", RecipeSearchIndex.MODE);
+        ReflectionTestUtils.setField(index, "viewCountBoost", 0.1);
+    }
+
+    @Test
+    void gramsIndexesUnigramsAndBigramsPerWord() {
+        assertThat(RecipeSearchIndex.grams("된장국")).containsExactly("된", "장", "국", "된장", "장국");
+        assertThat(RecipeSearchIndex.grams("Kimchi 국!")).contains("k", "ki", "hi", "국");
+        assertThat(RecipeSearchIndex.grams("  ...  ")).isEmpty();
+    }
+
+    @Test
+    void queryGramsUseBigramsAndUnigramsOnlyForOneCharacterWords() {
+        assertThat(RecipeSearchIndex.queryGrams("국")).containsExactly("국");
+        assertThat(RecipeSearchIndex.queryGrams("김치 볶음밥")).containsExactly("김치", "볶음", "음밥");
+        assertThat(RecipeSearchIndex.queryGrams("떡 볶이")).containsExactly("떡", "볶이");
+        assertThat(RecipeSearchIndex.queryGrams(null)).isEmpty();
+    }
+
+    @Test
+    void oneSyllableQueryMatchesWordsContainingIt() {
+        add(1, "된장국", 0);
+        add(2, "김치볶음밥", 0);
+        add(3, "소고기 무국", 0);
+        add(4, "떡볶이", 0);
+        index.rebuild();
+
+        assertThat(index.search("국", 0, 10).getRecipeIds()).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.search("밥", 0, 10).getRecipeIds()).containsExactly(2L);
+        assertThat(index.search("떡", 0, 10).getRecipeIds()).containsExactly(4L);
+    }
+
+    @Test
+    void substringQueryMatchesInsideWords() {
+        add(1, "김치볶음밥", 0);
+        add(2, "새우볶음", 0);
+        add(3, "김치찌개", 0);
+        index.rebuild();
+
+        assertThat(index.search("볶음", 0, 10).getRecipeIds()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(index.search("볶음", 0, 10).getTotal()).isEqualTo(2);
+    }
+
+    @Test
+    void multiWordQueryRequiresMostGramsAndRanksFullMatchFirst() {
+        add(1, "김치찌개", 0);
+        add(2, "김치볶음밥", 0);
+        add(3, "새우볶음밥", 0);
+        index.rebuild();
+
+        // 김치 / 볶음 / 음밥 중 3개 (2번), 2개 (3번)를 포함. 1번은 하나뿐이라 제외된다
+        assertThat(index.search("김치 볶음밥", 0, 10).getRecipeIds()).containsExactly(2L);
+        assertThat(index.search("볶음밥", 0, 10).getRecipeIds()).containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    @Test
+    void titleMatchOutranksDescriptionMatchAndViewCountBreaksTies() {
+        add(1, "된장찌개", "구수한 국물", 0);
+        add(2, "오늘의 반찬", "된장찌개와 함께", 0);
+        add(3, "된장찌개", "구수한 국물", 500);
+        index.rebuild();
+
+        assertThat(index.search("된장찌개", 0, 10).getRecipeIds()).containsExactly(3L, 1L, 2L);
+        assertThat(index.search("된장찌개", 1, 1).getRecipeIds()).containsExactly(1L);
+    }
+
+    @Test
+    void refreshViewCountsUpdatesTheBoost() throws Exception {
+        add(1, "된장찌개", 100);
+        add(2, "된장찌개", 0);
+        index.rebuild();
+        assertThat(index.search("된장찌개", 0, 10).getRecipeIds()).containsExactly(1L, 2L);
+
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(1L, 2L);
+        when(rs.getInt(2)).thenReturn(100, 10_000);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(rs);
+            handler.processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        index.refreshViewCounts();
+
+        assertThat(index.search("된장찌개", 0, 10).getRecipeIds()).containsExactly(2L, 1L);
+    }
+
+    @Test
+    void changesDuringRebuildAreReplayedAfterwards() {
+        add(1, "된장국", 0);
+        add(2, "김치볶음밥", 0);
+        Recipe renamed = recipe(1, "미역국", 0);
+        when(recipeRepository.findById(1L)).thenReturn(Optional.of(renamed));
+        when(recipeRepository.findById(2L)).thenReturn(Optional.empty());
+        // 배치를 읽는 도중 (색인 구축 중) 1번 수정, 2번 삭제 이벤트가 도착한다
+        when(recipeRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class))).thenAnswer(invocation -> {
+            List<Recipe> batch = List.copyOf(catalog);
+            index.onRecipeChanged(new RecipeChangedEvent(1L, RecipeChangedEvent.Type.UPDATED));
+            index.onRecipeChanged(new RecipeChangedEvent(2L, RecipeChangedEvent.Type.DELETED));
+            return batch;
+        });
+
+        index.rebuild();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search("미역", 0, 10).getRecipeIds()).containsExactly(1L);
+        assertThat(index.search("된장", 0, 10).getRecipeIds()).isEmpty();
+        assertThat(index.search("볶음밥", 0, 10).getRecipeIds()).isEmpty();
+    }
+
+    @Test
+    void changesAfterRebuildAreAppliedDirectly() {
+        add(1, "된장국", 0);
+        index.rebuild();
+        when(recipeRepository.findById(5L)).thenReturn(Optional.of(recipe(5, "콩나물국", 0)));
+
+        index.onRecipeChanged(new RecipeChangedEvent(5L, RecipeChangedEvent.Type.CREATED));
+        index.onRecipeChanged(new RecipeChangedEvent(1L, RecipeChangedEvent.Type.DELETED));
+
+        assertThat(index.search("국", 0, 10).getRecipeIds()).containsExactly(5L);
+    }
+
+    private void add(long id, String title, int viewCount) {
+        add(id, title, null, viewCount);
+    }
+
+    private void add(long id, String title, String description, int viewCount) {
+        Recipe recipe = recipe(id, title, viewCount);
+        recipe.setDescription(description);
+        catalog.add(recipe);
+    }
+
+    private static Recipe recipe(long id, String title, int viewCount) {
+        return Recipe.builder().id(id).title(title).writerId("1").viewCount(viewCount).build();
+    }
+}
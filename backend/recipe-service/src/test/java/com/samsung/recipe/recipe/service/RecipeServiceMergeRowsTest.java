@@ -0,0 +1,95 @@
+package com.samsung.recipe.recipe.service;
+
+import com.samsung.recipe.recipe.entity.RecipeStep;
+import com.samsung.recipe.recipe.repository.RecipeStepRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class RecipeServiceMergeRowsTest {
+
+    private RecipeStepRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RecipeStepRepository.class);
+    }
+
+    @Test
+    void matchedRowsAreUpdatedInPlace() {
+        RecipeStep first = step(10L, 1, "썬다");
+        RecipeStep second = step(11L, 2, "끓인다");
+
+        List<RecipeStep> result = merge(List.of(first, second), List.of(step(null, 1, "썬다"), step(null, 2, "졸인다")));
+
+        // 관리 상태인 기존 엔티티를 그대로 돌려줘 flush 때 바뀐 행만 UPDATE된다
+        assertThat(result).containsExactly(first, second);
+        assertThat(second.getDescription()).isEqualTo("졸인다");
+        verify(repository, never()).saveAll(anyIterable());
+        verify(repository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void unmatchedRowsAreInsertedAndLeftoversDeletedInOneBatch() {
+        RecipeStep kept = step(10L, 1, "썬다");
+        RecipeStep incoming = step(null, 3, "담는다");
+
+        List<RecipeStep> result = merge(List.of(kept, step(11L, 2, "끓인다"), step(12L, 4, "식힌다")),
+                List.of(step(null, 1, "썬다"), incoming));
+
+        assertThat(result).containsExactly(kept, incoming);
+        verify(repository).saveAll(List.of(incoming));
+        ArgumentCaptor<Iterable<Long>> deleted = captureDeletedIds();
+        assertThat(deleted.getValue()).containsExactlyInAnyOrder(11L, 12L);
+    }
+
+    @Test
+    void duplicateKeysArePairedInOrder() {
+        RecipeStep first = step(10L, 1, "a");
+        RecipeStep second = step(11L, 1, "b");
+        RecipeStep extra = step(null, 1, "c");
+
+        List<RecipeStep> result = merge(List.of(first, second),
+                List.of(step(null, 1, "x"), step(null, 1, "y"), extra));
+
+        assertThat(result).containsExactly(first, second, extra);
+        assertThat(first.getDescription()).isEqualTo("x");
+        assertThat(second.getDescription()).isEqualTo("y");
+        verify(repository).saveAll(List.of(extra));
+    }
+
+    @Test
+    void emptyRequestDeletesEverything() {
+        List<RecipeStep> result = merge(List.of(step(10L, 1, "a"), step(11L, 2, "b")), List.of());
+
+        assertThat(result).isEmpty();
+        assertThat(captureDeletedIds().getValue()).containsExactlyInAnyOrder(10L, 11L);
+        verify(repository, never()).saveAll(anyIterable());
+    }
+
+    private List<RecipeStep> merge(List<RecipeStep> current, List<RecipeStep> incoming) {
+        return RecipeService.mergeRows(new ArrayList<>(current), incoming, RecipeStep::getStepIndex, RecipeStep::getId,
+                (row, request) -> row.setDescription(request.getDescription()), repository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<Iterable<Long>> captureDeletedIds() {
+        ArgumentCaptor<Iterable<Long>> ids = ArgumentCaptor.forClass(Iterable.class);
+        verify(repository).deleteAllByIdInBatch(ids.capture());
+        return ids;
+    }
+
+    private static RecipeStep step(Long id, int index, String description) {
+        return RecipeStep.builder().id(id).recipeId(1L).stepIndex(index).description(description).build();
+    }
+}
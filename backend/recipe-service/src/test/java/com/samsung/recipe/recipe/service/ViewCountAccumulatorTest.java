@@ -0,0 +1,76 @@
+package com.samsung.recipe.recipe.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ViewCountAccumulatorTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private BestRecipeLeaderboard leaderboard;
+    private ViewCountAccumulator accumulator;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        leaderboard = mock(BestRecipeLeaderboard.class);
+        accumulator = new ViewCountAccumulator(jdbcTemplate, mock(PlatformTransactionManager.class), leaderboard,
+                mock(TrendingRecipes.class), Duration.ofSeconds(5), 100);
+    }
+
+    @Test
+    void flushRemovesDrainedEntries() {
+        accumulator.increment(1L);
+        accumulator.increment(1L);
+        accumulator.increment(2L);
+
+        accumulator.flush();
+
+        verify(leaderboard).incrementAll(Map.of(1L, 2L, 2L, 1L));
+        assertThat(pending()).isEmpty();
+        assertThat(accumulator.pendingCount(1L)).isZero();
+    }
+
+    @Test
+    void viewsDuringFlushStayPending() {
+        accumulator.increment(1L);
+        accumulator.increment(2L);
+        // 배치 UPDATE가 도는 사이 1번이 한 번 더 조회된다
+        doAnswer(invocation -> {
+            accumulator.increment(1L);
+            return new int[0];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+
+        accumulator.flush();
+
+        assertThat(pending()).containsOnlyKeys(1L);
+        assertThat(accumulator.pendingCount(1L)).isEqualTo(1);
+    }
+
+    @Test
+    void countsAgainAfterTheEntryWasRemoved() {
+        accumulator.increment(1L);
+        accumulator.flush();
+
+        accumulator.increment(1L);
+
+        assertThat(accumulator.pendingCount(1L)).isEqualTo(1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, ?> pending() {
+        return (Map<Long, ?>) ReflectionTestUtils.getField(accumulator, "pending");
+    }
+}
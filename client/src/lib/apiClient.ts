@@ -141,6 +141,8 @@ export const recipeAPI = {
   getByAuthor: (authorId: number) => recipeApi.get<ApiResponse<Recipe[]>>(`/recipes/author/${authorId}`),
   search: (query: string, filters?: Record<string, unknown>) => 
     recipeApi.get<ApiResponse<Recipe[]>>('/recipes/search', { params: { keyword: query, ...filters } }),
+  searchByIngredients: (query: string, params?: { page?: number; size?: number }) =>
+    recipeApi.get<ApiResponse<Recipe[]>>('/recipes/by-ingredients', { params: { q: query, ...params } }),
   getByCategory: (category: string) => recipeApi.get<ApiResponse<Recipe[]>>(`/recipes/category/${category}`),
   uploadImage: (file: File) => {
     const formData = new FormData();
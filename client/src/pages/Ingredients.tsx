@@ -13,46 +13,31 @@ export default function Ingredients() {
   const [searchInput, setSearchInput] = useState('');
   const [searchQuery, setSearchQuery] = useState('');
 
-  const { data: recipes = [], isLoading } = useQuery<Recipe[]>({
-    queryKey: ['recipes'],
+  // 쉼표 기준 키워드 추출
+  const keywords = searchQuery
+    .split(',')
+    .map((k) => k.trim().toLowerCase())
+    .filter((k) => k.length > 0);
+
+  // 재료 검색은 서버의 재료 색인(/recipes/by-ingredients)에서 처리
+  const { data: filteredRecipes = [], isLoading } = useQuery<Recipe[]>({
+    queryKey: ['recipes', 'by-ingredients', keywords.join(',')],
+    enabled: keywords.length > 0,
     queryFn: async () => {
       try {
-        const response = await recipeAPI.getAll();
+        const response = await recipeAPI.searchByIngredients(keywords.join(','), { size: 100 });
         const data = response.data;
-        if (Array.isArray(data)) {
-          return data;
-        } else if (data && Array.isArray(data.recipes)) {
+        if (data && Array.isArray(data.recipes)) {
           return data.recipes;
-        } else if (data && Array.isArray(data.data)) {
-          return data.data;
         }
         return [];
       } catch (error) {
-        console.error('Failed to fetch recipes:', error);
+        console.error('Failed to search recipes by ingredients:', error);
         return [];
       }
     },
   });
 
-  // 쉼표 기준 키워드 추출
-  const keywords = searchQuery
-    .split(',')
-    .map((k) => k.trim().toLowerCase())
-    .filter((k) => k.length > 0);
-
-  // 필터링된 레시피 (정규화된 재료 구조에 맞춰 수정)
-  const filteredRecipes =
-  keywords.length === 0
-    ? []
-    : recipes.filter((recipe) =>
-        keywords.every((keyword) =>
-          recipe.ingredients?.some((ingredient) => {
-            const cleanIngredient = ingredient.ingredientName.toLowerCase();
-            return cleanIngredient.includes(keyword);
-          })
-        )
-      );
-
   return (
     <div className="min-h-screen py-8 px-4">
       <div className="max-w-7xl mx-auto">
@@ -56,13 +56,16 @@ export default function Recipes() {
       try {
         // 검색어가 있으면 검색 API 사용, 없으면 페이징된 전체 데이터 사용
         if (debouncedSearchQuery.trim()) {
-          const response = await recipeAPI.search(debouncedSearchQuery);
+          const response = await recipeAPI.search(debouncedSearchQuery, {
+            page: currentPage,
+            size: pageSize
+          });
           return {
             recipes: response.data.recipes || response.data.data || [],
-            currentPage: 0,
-            totalPages: 1,
-            totalElements: (response.data.recipes || response.data.data || []).length,
-            size: pageSize
+            currentPage: response.data.currentPage || 0,
+            totalPages: response.data.totalPages || 1,
+            totalElements: response.data.totalElements || 0,
+            size: response.data.size || pageSize
           };
         } else {
           const response = await recipeAPI.getAllPaged({ 
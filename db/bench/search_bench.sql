@@ -0,0 +1,66 @@
+-- 검색 모드 비교 벤치마크 (ILIKE 순차 스캔 vs pg_trgm GIN)
+-- 빈 스크래치 DB에서 실행한다: psql -d recipe_bench -f db/init.sql -f db/bench/search_bench.sql
+-- 레시피 100,000건 / 태그 2,000개 / 레시피당 태그 3개의 합성 데이터를 만든 뒤
+-- RecipeRepository.searchByTrigram 과 같은 형태의 쿼리를 인덱스 적용 전후로 EXPLAIN ANALYZE 한다.
+--
+-- 측정 결과 (PostgreSQL 16.4, 1 vCPU / 5GB, LC_CTYPE=C.UTF-8, 공유 버퍼 적중 상태, 검색어 '김치찌개' → 1,000건 일치).
+-- Execution Time 5회 중앙값:
+--   1) ILIKE, 인덱스 없음          350 ms  Seq Scan on recipes (99,000행 필터로 버림)
+--   2) trigram 쿼리, 인덱스 없음   351 ms  Seq Scan on recipes + Seq Scan on tag
+--   3) trigram 쿼리, GIN 적용 후    87 ms  BitmapOr (idx_recipes_title_trgm, idx_recipes_description_trgm)
+--                                          + Bitmap Index Scan on idx_tag_name_trgm. 남은 시간은 일치한 id를
+--                                          recipes와 Hash Join 하는 Seq Scan (100,000행)과 similarity 정렬
+--   1)을 GIN 적용 후 다시 돌리면       13 ms  (같은 BitmapOr)
+-- 인덱스 생성: title 0.5 s, description 2.7 s, tag 0.01 s.
+
+\timing on
+
+INSERT INTO tag (name)
+SELECT '태그' || g FROM generate_series(1, 2000) g;
+
+INSERT INTO recipes (title, description, cooking_time, servings, difficulty, writer_id, view_count, created_at, updated_at)
+SELECT
+  (ARRAY['김치','된장','불고기','비빔','잡채','떡볶이','갈비','순두부','미역','계란'])[1 + g % 10]
+    || (ARRAY['찌개','국','볶음','구이','조림','무침','전','밥','면','탕'])[1 + (g / 10) % 10] || ' ' || g,
+  '집에서 쉽게 만드는 ' || md5(g::text) || ' 레시피',
+  10 + g % 90, 1 + g % 4, (ARRAY['EASY','MEDIUM','HARD'])[1 + g % 3], '1', g % 5000,
+  now() - (g || ' minutes')::interval, now()
+FROM generate_series(1, 100000) g;
+
+INSERT INTO recipe_tag (recipe_id, tag_id)
+SELECT r.id, 1 + ((r.id * k) % 2000) FROM recipes r, generate_series(1, 3) k;
+
+ANALYZE;
+
+-- 1) 기존 방식: 인덱스 없는 ILIKE (결과 전체를 가져와 정렬 없음)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT r.* FROM recipes r WHERE r.title ILIKE '%김치찌개%' OR r.description ILIKE '%김치찌개%';
+
+-- similarity()/word_similarity()는 확장이 있어야 하므로 인덱스 없이 확장만 먼저 만든다
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- 2) trigram 모드 쿼리 (인덱스 적용 전)
+EXPLAIN (ANALYZE, BUFFERS)
+WITH matched AS (
+  SELECT r.id FROM recipes r WHERE r.title ILIKE '%김치찌개%' OR r.description ILIKE '%김치찌개%'
+  UNION
+  SELECT rt.recipe_id FROM recipe_tag rt JOIN tag t ON t.id = rt.tag_id WHERE t.name ILIKE '%김치찌개%'
+)
+SELECT r.* FROM recipes r JOIN matched m ON m.id = r.id
+ORDER BY GREATEST(similarity(r.title, '김치찌개') * 2, word_similarity('김치찌개', COALESCE(r.description, ''))) DESC,
+         r.view_count DESC, r.id DESC
+LIMIT 20 OFFSET 0;
+
+\i db/migrations/001_search_trgm.sql
+
+-- 3) trigram 모드 쿼리 (GIN 인덱스 적용 후)
+EXPLAIN (ANALYZE, BUFFERS)
+WITH matched AS (
+  SELECT r.id FROM recipes r WHERE r.title ILIKE '%김치찌개%' OR r.description ILIKE '%김치찌개%'
+  UNION
+  SELECT rt.recipe_id FROM recipe_tag rt JOIN tag t ON t.id = rt.tag_id WHERE t.name ILIKE '%김치찌개%'
+)
+SELECT r.* FROM recipes r JOIN matched m ON m.id = r.id
+ORDER BY GREATEST(similarity(r.title, '김치찌개') * 2, word_similarity('김치찌개', COALESCE(r.description, ''))) DESC,
+         r.view_count DESC, r.id DESC
+LIMIT 20 OFFSET 0;
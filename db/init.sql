@@ -68,10 +68,36 @@ CREATE TABLE recipe_tag (
   tag_id BIGINT NOT NULL REFERENCES tag(id) ON DELETE CASCADE
 );
 
+-- ✅ 레시피 이미지 자동 채우기 작업 큐 (recipes FK 없음: db/migrations/004_recipe_image_job.sql 참고)
+CREATE TABLE recipe_image_job (
+  recipe_id BIGINT PRIMARY KEY,
+  attempts INTEGER NOT NULL DEFAULT 0,
+  next_attempt_at TIMESTAMP NOT NULL DEFAULT now(),
+  locked_until TIMESTAMP,
+  last_error TEXT,
+  created_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+-- ✅ CSV 카탈로그 원본 추적 (db/migrations/005_recipe_source.sql 참고)
+CREATE TABLE recipe_source (
+  source_key TEXT PRIMARY KEY,
+  recipe_id BIGINT NOT NULL UNIQUE REFERENCES recipes(id) ON DELETE CASCADE,
+  content_hash BYTEA NOT NULL,
+  synced_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+-- 추적 이전 레시피를 이어 받을 수 있는 id 상한. 새 DB에는 이어 받을 레시피가 없으므로 0
+CREATE TABLE recipe_source_legacy (
+  max_recipe_id BIGINT NOT NULL
+);
+INSERT INTO recipe_source_legacy (max_recipe_id) VALUES (0);
+
 -- 인덱스 생성 (성능 최적화)
 CREATE INDEX idx_recipes_writer_id ON recipes(writer_id);
 CREATE INDEX idx_recipes_created_at ON recipes(created_at);
+CREATE INDEX idx_recipes_created_at_id ON recipes(created_at DESC, id DESC);
 CREATE INDEX idx_recipes_view_count ON recipes(view_count);
+CREATE INDEX idx_recipes_view_count_id ON recipes(view_count DESC, id DESC);
 CREATE INDEX idx_recipes_difficulty ON recipes(difficulty);
 CREATE INDEX idx_recipes_cooking_time ON recipes(cooking_time);
 CREATE INDEX idx_recipe_step_recipe_id ON recipe_step(recipe_id);
@@ -79,5 +105,12 @@ CREATE INDEX idx_recipe_ingredient_recipe_id ON recipe_ingredient(recipe_id);
 CREATE INDEX idx_recipe_ingredient_ingredient_id ON recipe_ingredient(ingredient_id);
 CREATE INDEX idx_recipe_tag_recipe_id ON recipe_tag(recipe_id);
 CREATE INDEX idx_recipe_tag_tag_id ON recipe_tag(tag_id);
+CREATE INDEX idx_recipe_image_job_next_attempt ON recipe_image_job(next_attempt_at);
 CREATE INDEX idx_users_username ON users(username);
-CREATE INDEX idx_users_email ON users(email); 
\ No newline at end of file
+CREATE INDEX idx_users_email ON users(email); 
+
+-- JPA 시퀀스 할당 크기(allocationSize = 50)와 맞춘다 (db/migrations/003_id_sequence_increment.sql)
+ALTER SEQUENCE recipes_id_seq INCREMENT BY 50;
+ALTER SEQUENCE recipe_step_id_seq INCREMENT BY 50;
+ALTER SEQUENCE recipe_ingredient_id_seq INCREMENT BY 50;
+ALTER SEQUENCE recipe_tag_id_seq INCREMENT BY 50;
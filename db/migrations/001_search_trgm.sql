@@ -0,0 +1,17 @@
+-- 레시피 검색용 pg_trgm 인덱스 (recipe.search.mode=postgres)
+-- db/init.sql로 만든 기존 DB에 한 번 적용한다. 여러 번 실행해도 안전하다.
+--
+-- 한국어는 기본 text search 설정이 없어 tsvector 대신 trigram을 쓴다.
+-- DB의 LC_CTYPE이 UTF-8 계열이어야 한글이 trigram으로 분해된다 (C 로케일에서는 무시됨).
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- ILIKE '%키워드%' 와 similarity() 정렬을 GIN 인덱스로 처리
+CREATE INDEX IF NOT EXISTS idx_recipes_title_trgm ON recipes USING gin (title gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_recipes_description_trgm ON recipes USING gin (description gin_trgm_ops);
+
+-- 태그 이름 매칭 → recipe_tag(tag_id) 인덱스로 레시피를 모은다
+CREATE INDEX IF NOT EXISTS idx_tag_name_trgm ON tag USING gin (name gin_trgm_ops);
+
+ANALYZE recipes;
+ANALYZE tag;
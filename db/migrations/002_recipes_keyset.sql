@@ -0,0 +1,6 @@
+-- 키셋(커서) 페이지네이션용 복합 인덱스
+-- db/init.sql로 만든 기존 DB에 한 번 적용한다. 여러 번 실행해도 안전하다.
+-- (created_at, id) / (view_count, id) 행 비교 + 역순 정렬을 인덱스 스캔 한 번으로 처리한다.
+
+CREATE INDEX IF NOT EXISTS idx_recipes_created_at_id ON recipes (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_recipes_view_count_id ON recipes (view_count DESC, id DESC);
@@ -0,0 +1,9 @@
+-- 레시피/하위 테이블 id 시퀀스를 50씩 증가하도록 바꾼다 (JPA @SequenceGenerator allocationSize = 50과 일치해야 한다).
+-- db/init.sql로 만든 기존 DB에 한 번 적용한다. 여러 번 실행해도 안전하다.
+-- Hibernate가 시퀀스 값 하나로 id 50개를 미리 할당하므로 insert를 JDBC 배치로 묶을 수 있다.
+-- 기본값(nextval)으로 직접 insert하는 스크립트와 함께 써도 id가 겹치지 않는다 (중간에 빈 번호만 생긴다).
+
+ALTER SEQUENCE recipes_id_seq INCREMENT BY 50;
+ALTER SEQUENCE recipe_step_id_seq INCREMENT BY 50;
+ALTER SEQUENCE recipe_ingredient_id_seq INCREMENT BY 50;
+ALTER SEQUENCE recipe_tag_id_seq INCREMENT BY 50;
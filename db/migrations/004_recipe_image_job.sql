@@ -0,0 +1,15 @@
+-- 레시피 이미지 자동 채우기 작업 큐 (RecipeImageEnricher)
+-- db/init.sql로 만든 기존 DB에 한 번 적용한다. 여러 번 실행해도 안전하다.
+-- recipes FK는 두지 않는다: 작업 행이 JPA의 레시피 INSERT(커밋 시 배치 flush)보다 먼저 들어가며,
+-- 레시피가 삭제된 작업은 워커가 처리할 때 지운다.
+
+CREATE TABLE IF NOT EXISTS recipe_image_job (
+  recipe_id BIGINT PRIMARY KEY,
+  attempts INTEGER NOT NULL DEFAULT 0,
+  next_attempt_at TIMESTAMP NOT NULL DEFAULT now(),
+  locked_until TIMESTAMP,
+  last_error TEXT,
+  created_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_recipe_image_job_next_attempt ON recipe_image_job (next_attempt_at);
@@ -0,0 +1,21 @@
+-- CSV 카탈로그 원본 추적 (CatalogImporter). 원본 키별로 레시피 id와 내용 해시를 둔다.
+-- db/init.sql로 만든 기존 DB에 한 번 적용한다. 여러 번 실행해도 안전하다.
+-- 이 테이블이 생기기 전에 적재된 레시피는 동기화(recipe.import.mode=sync)에서 제목/작성자로 찾아 이어 받는다.
+-- 이어 받는 대상은 이 스크립트를 처음 적용할 때의 최대 레시피 id (recipe_source_legacy) 이하로 한정한다.
+-- 그 뒤에 사용자가 만든 레시피는 제목/작성자가 같아도 CSV 레시피로 바뀌지 않는다.
+
+CREATE TABLE IF NOT EXISTS recipe_source (
+  source_key TEXT PRIMARY KEY,
+  recipe_id BIGINT NOT NULL UNIQUE REFERENCES recipes(id) ON DELETE CASCADE,
+  content_hash BYTEA NOT NULL,
+  synced_at TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE TABLE IF NOT EXISTS recipe_source_legacy (
+  max_recipe_id BIGINT NOT NULL
+);
+
+-- 처음 적용할 때 한 번만 기록한다
+INSERT INTO recipe_source_legacy (max_recipe_id)
+SELECT COALESCE((SELECT max(id) FROM recipes), 0)
+ WHERE NOT EXISTS (SELECT 1 FROM recipe_source_legacy);